@@ -1,12 +1,33 @@
 package com.stayease;
 
-import org.springframework.stereotype.Component;
+import java.util.Map;
 
-import lombok.Data;
+// Immutable, so a response can never carry another request's message or data.
+public record MyResponseWrapper(String message, Object data) {
 
-@Component
-@Data
-public class MyResponseWrapper {
-	private String message;
-	private Object data;
+	public static final MyResponseWrapper EMPTY = new MyResponseWrapper(null, null);
+	public static final MyResponseWrapper BOOKING_NOT_FOUND = new MyResponseWrapper("Booking not found", null);
+	public static final MyResponseWrapper HOTEL_NOT_FOUND = new MyResponseWrapper("Hotel not found", null);
+	public static final MyResponseWrapper USER_NOT_FOUND = new MyResponseWrapper("User not found", null);
+	public static final MyResponseWrapper EMAIL_DOES_NOT_EXIST = new MyResponseWrapper("Email does not exist!", null);
+	public static final MyResponseWrapper INVALID_PASSWORD = new MyResponseWrapper("Invalid password!", null);
+
+	// Only these fixed messages are shared; anything else, including messages built from request input, is allocated.
+	private static final Map<String, MyResponseWrapper> SHARED = Map.of(
+			BOOKING_NOT_FOUND.message(), BOOKING_NOT_FOUND,
+			HOTEL_NOT_FOUND.message(), HOTEL_NOT_FOUND,
+			USER_NOT_FOUND.message(), USER_NOT_FOUND,
+			EMAIL_DOES_NOT_EXIST.message(), EMAIL_DOES_NOT_EXIST,
+			INVALID_PASSWORD.message(), INVALID_PASSWORD);
+
+	public static MyResponseWrapper of(String message, Object data) {
+		if (data != null) {
+			return new MyResponseWrapper(message, data);
+		}
+		if (message == null) {
+			return EMPTY;
+		}
+		MyResponseWrapper shared = SHARED.get(message);
+		return shared != null ? shared : new MyResponseWrapper(message, null);
+	}
 }
@@ -0,0 +1,52 @@
+package com.stayease.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Size-bounded map that drops the least recently used entry on overflow instead of growing or being cleared wholesale.
+public class LruCache<K, V> {
+
+	private final int maxEntries;
+	private final LinkedHashMap<K, V> entries;
+
+	public LruCache(int maxEntries) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("maxEntries must be at least 1");
+		}
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > LruCache.this.maxEntries;
+			}
+		};
+	}
+
+	public synchronized V get(K key) {
+		return entries.get(key);
+	}
+
+	public synchronized void put(K key, V value) {
+		entries.put(key, value);
+	}
+
+	public synchronized V remove(K key) {
+		return entries.remove(key);
+	}
+
+	public synchronized boolean remove(K key, V value) {
+		return entries.remove(key, value);
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+}
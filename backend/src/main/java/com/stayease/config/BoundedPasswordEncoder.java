@@ -0,0 +1,133 @@
+package com.stayease.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+	private static final String BUSY_MESSAGE = "Authentication service is busy, please try again shortly";
+
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+	private final long timeoutMillis;
+
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong timedOut = new AtomicLong();
+	private final AtomicLong totalHashNanos = new AtomicLong();
+	private final AtomicLong maxHashNanos = new AtomicLong();
+	private final AtomicLong totalWaitNanos = new AtomicLong();
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMillis) {
+		this.delegate = delegate;
+		this.timeoutMillis = timeoutMillis;
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(
+				threads,
+				threads,
+				0L,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				runnable -> {
+					Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return submit(() -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return submit(() -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	public Map<String, Object> getMetrics() {
+		long done = completed.get();
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		metrics.put("threads", executor.getMaximumPoolSize());
+		metrics.put("activeThreads", executor.getActiveCount());
+		metrics.put("queueDepth", executor.getQueue().size());
+		metrics.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+		metrics.put("completed", done);
+		metrics.put("rejected", rejected.get());
+		metrics.put("timedOut", timedOut.get());
+		metrics.put("avgHashMillis", done == 0 ? 0.0 : totalHashNanos.get() / 1_000_000.0 / done);
+		metrics.put("maxHashMillis", maxHashNanos.get() / 1_000_000.0);
+		metrics.put("avgQueueWaitMillis", done == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / done);
+		return metrics;
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	private <T> T submit(Callable<T> work) {
+		long submittedAt = System.nanoTime();
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				long startedAt = System.nanoTime();
+				try {
+					return work.call();
+				} finally {
+					record(startedAt - submittedAt, System.nanoTime() - startedAt);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			rejected.incrementAndGet();
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, BUSY_MESSAGE);
+		}
+
+		// A BCrypt round never checks for interrupts, so cancelling only frees the caller and drops work still queued;
+		// a hash that already started runs to completion, and the thread count is what bounds that CPU.
+		try {
+			return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			timedOut.incrementAndGet();
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, BUSY_MESSAGE);
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, BUSY_MESSAGE);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private void record(long waitNanos, long hashNanos) {
+		completed.incrementAndGet();
+		totalWaitNanos.addAndGet(waitNanos);
+		totalHashNanos.addAndGet(hashNanos);
+		maxHashNanos.accumulateAndGet(hashNanos, Math::max);
+	}
+}
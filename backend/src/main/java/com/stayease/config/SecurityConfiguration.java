@@ -1,6 +1,10 @@
 package com.stayease.config;
 
+import java.time.Duration;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -15,7 +19,12 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stayease.jwt.JWTRequestValidator;
+import com.stayease.ratelimit.RateLimitFilter;
+import com.stayease.ratelimit.RateLimitPolicy;
+import com.stayease.ratelimit.RateLimitRule;
+import com.stayease.ratelimit.RateLimitStore;
 
 @Configuration
 @EnableWebSecurity
@@ -24,6 +33,42 @@ public class SecurityConfiguration {
     @Autowired
     private JWTRequestValidator jwtRequestValidator;
 
+    @Autowired
+    private RateLimitStore rateLimitStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${app.rate-limit.login.per-ip:20}")
+    private long loginPerIp;
+
+    @Value("${app.rate-limit.login.per-account:5}")
+    private long loginPerAccount;
+
+    @Value("${app.rate-limit.login.period-seconds:60}")
+    private long loginPeriodSeconds;
+
+    @Value("${app.rate-limit.otp.per-ip:5}")
+    private long otpPerIp;
+
+    @Value("${app.rate-limit.otp.per-account:3}")
+    private long otpPerAccount;
+
+    @Value("${app.rate-limit.otp.period-seconds:600}")
+    private long otpPeriodSeconds;
+
+    @Value("${app.rate-limit.booking.per-ip:30}")
+    private long bookingPerIp;
+
+    @Value("${app.rate-limit.booking.per-account:10}")
+    private long bookingPerAccount;
+
+    @Value("${app.rate-limit.booking.period-seconds:60}")
+    private long bookingPeriodSeconds;
+
     private static final String[] GENERAL_WHITELIST = {
             "/uploads/**",
             "/error",
@@ -112,6 +157,7 @@ public class SecurityConfiguration {
                         "/api/bookings/user/**",
                         "/api/add-to-wishlist/**",
                         "/api/get-wishlist/**",
+                        "/api/get-wishlist-room-ids/**",
                         "/api/remove-wishlist/**",
                         "/api/feedback/submit",
                         "/api/submit/**",
@@ -127,7 +173,29 @@ public class SecurityConfiguration {
             );
 
         http.addFilterBefore(jwtRequestValidator, UsernamePasswordAuthenticationFilter.class);
+        if (rateLimitEnabled) {
+            http.addFilterAfter(new RateLimitFilter(rateLimitStore, objectMapper, rateLimitRules()), JWTRequestValidator.class);
+        }
 
         return http.build();
     }
+
+    private List<RateLimitRule> rateLimitRules() {
+        Duration loginPeriod = Duration.ofSeconds(loginPeriodSeconds);
+        Duration otpPeriod = Duration.ofSeconds(otpPeriodSeconds);
+        Duration bookingPeriod = Duration.ofSeconds(bookingPeriodSeconds);
+        return List.of(
+                RateLimitRule.byBodyField(HttpMethod.POST, "/api/auth/login",
+                        new RateLimitPolicy("login-ip", loginPerIp, loginPeriod),
+                        new RateLimitPolicy("login-account", loginPerAccount, loginPeriod),
+                        "email"),
+                RateLimitRule.byBodyField(HttpMethod.POST, "/api/auth/forgot-password/send-otp",
+                        new RateLimitPolicy("otp-ip", otpPerIp, otpPeriod),
+                        new RateLimitPolicy("otp-account", otpPerAccount, otpPeriod),
+                        "email"),
+                RateLimitRule.byPrincipal(HttpMethod.POST, "/api/bookroom",
+                        new RateLimitPolicy("booking-ip", bookingPerIp, bookingPeriod),
+                        new RateLimitPolicy("booking-account", bookingPerAccount, bookingPeriod))
+        );
+    }
 }
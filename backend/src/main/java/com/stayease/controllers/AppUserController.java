@@ -13,9 +13,9 @@ import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stayease.models.AppUser;
 import com.stayease.services.AppUserService;
+import com.stayease.services.JsonPayloadReader;
 
 import lombok.RequiredArgsConstructor;
 
@@ -25,7 +25,7 @@ import lombok.RequiredArgsConstructor;
 public class AppUserController {
 
 	private final AppUserService appUserService;
-	private final ObjectMapper objectMapper;
+	private final JsonPayloadReader jsonPayloadReader;
 	
 	@GetMapping("/user/{userId}")
 	public ResponseEntity<?> getUserById(@PathVariable long userId){
@@ -44,7 +44,7 @@ public class AppUserController {
 	        @RequestPart("user") String userJson,
 	        @RequestPart(value = "profilePicture", required = false) MultipartFile profilePicture,
 	        @PathVariable long userId) throws IOException {
-	    AppUser user = objectMapper.readValue(userJson, AppUser.class);
+	    AppUser user = jsonPayloadReader.read(userJson, AppUser.class);
 	    return appUserService.updateUser(user, profilePicture, userId);
 	}
 	
@@ -16,7 +16,9 @@ import java.time.LocalDate;
 import com.stayease.dto.BookingRequest;
 import com.stayease.dto.BookingStatusUpdateDto;
 import com.stayease.dto.EmailRequest;
+import com.stayease.dto.GuestCampaignRequest;
 import com.stayease.services.BookingService;
+import com.stayease.services.GuestCampaignService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -26,6 +28,7 @@ import lombok.RequiredArgsConstructor;
 public class BookingController {
 
 	private final BookingService bookingService;
+	private final GuestCampaignService guestCampaignService;
 
 	@PostMapping("/bookroom")
 	private ResponseEntity<?> bookRoom(@RequestBody BookingRequest bookingRequest) {
@@ -99,6 +102,21 @@ public class BookingController {
 		);
 	}
 
+	@PostMapping("/guests/campaigns")
+	public ResponseEntity<?> startGuestCampaign(@RequestBody GuestCampaignRequest campaignRequest) {
+		return guestCampaignService.startCampaign(campaignRequest);
+	}
+
+	@GetMapping("/guests/campaigns/{campaignId}")
+	public ResponseEntity<?> getGuestCampaign(@PathVariable long campaignId) {
+		return guestCampaignService.getCampaign(campaignId);
+	}
+
+	@GetMapping("/guests/campaigns/hotel/{hotelId}")
+	public ResponseEntity<?> getHotelGuestCampaigns(@PathVariable long hotelId) {
+		return guestCampaignService.getHotelCampaigns(hotelId);
+	}
+
 	@GetMapping("/payments/user/{userId}")
 	public ResponseEntity<?> getUserPaymentTransactions(@PathVariable Long userId) {
 		return bookingService.getUserPaymentTransactions(userId);
@@ -1,6 +1,7 @@
 package com.stayease.controllers;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -41,11 +42,17 @@ public class HotelController {
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String location,
             @RequestParam(required = false) String sortBy,
-            @RequestParam(required = false) String sortDirection
+            @RequestParam(required = false) String sortDirection,
+            @RequestParam(required = false) String fields
     ){
-    	return hotelService.getFilteredHotels(search, status, location, sortBy, sortDirection);
+    	return hotelService.getFilteredHotels(search, status, location, sortBy, sortDirection, fields);
     }
     
+    @GetMapping("/hotels/batch")
+    ResponseEntity<?> getHotelsByIds(@RequestParam List<Long> ids) {
+    	return hotelService.getHotelsByIds(ids);
+    }
+
     @GetMapping("/hotels/{hotelId}")
     ResponseEntity<?> getHotelById(@PathVariable long hotelId){
     	return hotelService.getHotelById(hotelId);
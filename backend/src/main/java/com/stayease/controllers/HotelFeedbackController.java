@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.stayease.dto.FeedbackRequest;
@@ -36,6 +37,20 @@ public class HotelFeedbackController {
         return feedbackService.getFeedbackByHotelId(hotelId);
     }
 
+    @GetMapping("/hotel/{hotelId}/reviews")
+    public ResponseEntity<?> getHotelReviews(
+            @PathVariable Long hotelId,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return feedbackService.getHotelReviews(hotelId, sort, cursor, size);
+    }
+
+    @GetMapping("/hotel/{hotelId}/summary")
+    public ResponseEntity<?> getRatingSummary(@PathVariable Long hotelId) {
+        return feedbackService.getRatingSummary(hotelId);
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<?> getFeedbackByUserId(@PathVariable Long userId) {
         return feedbackService.getFeedbackByUserId(userId);
@@ -0,0 +1,32 @@
+package com.stayease.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.stayease.MyResponseWrapper;
+import com.stayease.config.BoundedPasswordEncoder;
+import com.stayease.resilience.DependencyGuards;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+	private final BoundedPasswordEncoder passwordEncoder;
+	private final DependencyGuards dependencyGuards;
+
+	@GetMapping("/password-hashing")
+	public ResponseEntity<?> getPasswordHashingMetrics() {
+		return new ResponseEntity<>(MyResponseWrapper.of("Password hashing metrics", passwordEncoder.getMetrics()), HttpStatus.OK);
+	}
+
+	@GetMapping("/dependencies")
+	public ResponseEntity<?> getDependencyMetrics() {
+		return new ResponseEntity<>(MyResponseWrapper.of("External dependency metrics", dependencyGuards.getMetrics()), HttpStatus.OK);
+	}
+}
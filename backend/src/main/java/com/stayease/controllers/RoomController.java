@@ -36,13 +36,20 @@ public class RoomController {
 	    return roomService.addRoom(hotelId, roomJson, roomImages);
 	}
 
+	@GetMapping("/rooms/batch")
+	public ResponseEntity<?> getRoomsByIds(@RequestParam List<Long> ids) {
+		return roomService.getRoomsByIds(ids);
+	}
+
 	@GetMapping("/rooms/{hotelId}")
 	private ResponseEntity<?> getFilteredRooms(@PathVariable long hotelId,
 			@RequestParam(required = false) String search, @RequestParam(required = false) String status,
 			@RequestParam(required = false) String roomType,
 			@RequestParam(required = false) Double minPrice, @RequestParam(required = false) Double maxPrice,
-			@RequestParam(required = false) String sortBy, @RequestParam(required = false) String sortDirection) {
-		return roomService.getFilteredRooms(hotelId, search, status, roomType, minPrice, maxPrice, sortBy, sortDirection);
+			@RequestParam(required = false) String sortBy, @RequestParam(required = false) String sortDirection,
+			@RequestParam(required = false) String fields) {
+		return roomService.getFilteredRooms(hotelId, search, status, roomType, minPrice, maxPrice, sortBy, sortDirection,
+				fields);
 	}
 	
 	@GetMapping("/room/{roomId}")
@@ -0,0 +1,138 @@
+package com.stayease.controllers;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.stayease.storage.LocalImageStore;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.images.store", havingValue = "local")
+public class UploadController {
+
+	// Blobs are content-addressed, so a URL's bytes never change.
+	private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+	private static final Map<String, String> CONTENT_TYPES = Map.of(
+			"jpg", "image/jpeg",
+			"png", "image/png",
+			"gif", "image/gif",
+			"webp", "image/webp",
+			"bin", "application/octet-stream");
+
+	private final LocalImageStore localImageStore;
+
+	@GetMapping("/uploads/**")
+	public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		String prefix = request.getContextPath() + "/uploads/";
+		String key = request.getRequestURI().startsWith(prefix) ? request.getRequestURI().substring(prefix.length()) : null;
+		Optional<Path> resolved = localImageStore.resolve(key);
+		if (resolved.isEmpty() || !Files.isRegularFile(resolved.get())) {
+			response.sendError(HttpStatus.NOT_FOUND.value());
+			return;
+		}
+		Path file = resolved.get();
+		String fileName = file.getFileName().toString();
+		String etag = "\"" + fileName.substring(0, fileName.indexOf('.')) + "\"";
+		long length = Files.size(file);
+
+		response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+		response.setHeader(HttpHeaders.ETAG, etag);
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+		response.setContentType(CONTENT_TYPES.get(fileName.substring(fileName.indexOf('.') + 1)));
+		if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+			response.setStatus(HttpStatus.NOT_MODIFIED.value());
+			return;
+		}
+
+		long start = 0;
+		long end = length - 1;
+		String range = request.getHeader(HttpHeaders.RANGE);
+		String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+		if (range != null && (ifRange == null || ifRange.equals(etag))) {
+			long[] bounds = parseRange(range, length);
+			if (bounds == null) {
+				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+				response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+				return;
+			}
+			if (bounds.length == 2) {
+				start = bounds[0];
+				end = bounds[1];
+				response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+			}
+		}
+		response.setContentLengthLong(end - start + 1);
+		if ("HEAD".equals(request.getMethod()) || length == 0) {
+			return;
+		}
+
+		// Tomcat's NIO connector hands the file to sendfile(2) once the servlet returns.
+		if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+			request.setAttribute("org.apache.tomcat.sendfile.filename", file.toAbsolutePath().toString());
+			request.setAttribute("org.apache.tomcat.sendfile.start", start);
+			request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+			long position = start;
+			while (position <= end) {
+				position += channel.transferTo(position, end + 1 - position, out);
+			}
+		}
+	}
+
+	// Returns {start, end} for one satisfiable range, an empty array to ignore the header, or null for 416.
+	private long[] parseRange(String header, long length) {
+		if (!header.startsWith("bytes=") || header.contains(",")) {
+			return new long[0];
+		}
+		String spec = header.substring("bytes=".length()).trim();
+		int dash = spec.indexOf('-');
+		if (dash < 0) {
+			return new long[0];
+		}
+		try {
+			String first = spec.substring(0, dash).trim();
+			String last = spec.substring(dash + 1).trim();
+			long start;
+			long end;
+			if (first.isEmpty()) {
+				long suffix = Long.parseLong(last);
+				if (suffix <= 0) {
+					return null;
+				}
+				start = Math.max(0, length - suffix);
+				end = length - 1;
+			} else {
+				start = Long.parseLong(first);
+				end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+			}
+			if (start >= length || start > end) {
+				return null;
+			}
+			return new long[] { start, end };
+		} catch (NumberFormatException e) {
+			return new long[0];
+		}
+	}
+}
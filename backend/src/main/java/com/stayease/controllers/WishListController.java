@@ -28,6 +28,11 @@ public class WishListController {
 		return wishListService.getUserWishlist(userId);
 	}
 	
+	@GetMapping("/get-wishlist-room-ids/{userId}")
+	ResponseEntity<?> getWishlistRoomIds(@PathVariable long userId){
+		return wishListService.getWishlistRoomIds(userId);
+	}
+	
 	@DeleteMapping("/remove-wishlist/{wishListId}")
 	ResponseEntity<?> removeFromWishlist(@PathVariable long wishListId){
 		return wishListService.removeFromWishlist(wishListId);
@@ -0,0 +1,20 @@
+package com.stayease.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// One slot per requested id, in request order; found is false and item null when the id does not exist.
+public record BatchEntry<T>(Long id, boolean found, T item) {
+
+	public static final int MAX_IDS = 100;
+
+	public static <T> List<BatchEntry<T>> inOrder(List<Long> ids, Map<Long, T> items) {
+		List<BatchEntry<T>> entries = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			T item = items.get(id);
+			entries.add(new BatchEntry<>(id, item != null, item));
+		}
+		return entries;
+	}
+}
@@ -0,0 +1,15 @@
+package com.stayease.dto;
+
+import java.time.LocalDate;
+
+import lombok.Data;
+
+@Data
+public class GuestCampaignRequest {
+	private Long hotelId;
+	private String bookingStatus;
+	private LocalDate checkInFrom;
+	private LocalDate checkInTo;
+	private String subject;
+	private String body;
+}
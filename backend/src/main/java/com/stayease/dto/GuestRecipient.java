@@ -0,0 +1,4 @@
+package com.stayease.dto;
+
+public record GuestRecipient(String email, String firstname, String lastname) {
+}
@@ -0,0 +1,10 @@
+package com.stayease.dto;
+
+import java.util.Map;
+
+public record HotelRatingSummary(
+		Long hotelId,
+		Double averageRating,
+		Long totalReviews,
+		Map<Integer, Long> histogram) {
+}
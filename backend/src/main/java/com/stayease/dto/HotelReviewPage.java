@@ -0,0 +1,9 @@
+package com.stayease.dto;
+
+import java.util.List;
+
+public record HotelReviewPage(
+		List<HotelReviewView> items,
+		String nextCursor,
+		HotelRatingSummary summary) {
+}
@@ -0,0 +1,12 @@
+package com.stayease.dto;
+
+import java.time.LocalDate;
+
+public record HotelReviewView(
+		Long id,
+		String reviewerFirstName,
+		String reviewerAvatar,
+		Integer rating,
+		String comment,
+		LocalDate date) {
+}
@@ -0,0 +1,32 @@
+package com.stayease.dto;
+
+// Hotel list and detail payload; the flat constructor is the target of JPQL and Criteria constructor projections.
+public record HotelView(
+		Long id,
+		String hotelName,
+		String email,
+		String contactNumber,
+		String status,
+		String description,
+		String hotelImage,
+		String hotelImageCard,
+		String hotelImageThumbnail,
+		Double starRating,
+		Address address,
+		Manager manager) {
+
+	public HotelView(Long id, String hotelName, String email, String contactNumber, String status, String description,
+			String hotelImage, String hotelImageCard, String hotelImageThumbnail, Double starRating,
+			Long addressId, String streetAddress, String city, String state, String pincode,
+			Long managerId, String managerFirstname, String managerLastname, String managerEmail, String managerContactNumber) {
+		this(id, hotelName, email, contactNumber, status, description, hotelImage, hotelImageCard, hotelImageThumbnail, starRating,
+				addressId == null ? null : new Address(addressId, streetAddress, city, state, pincode),
+				managerId == null ? null : new Manager(managerId, managerFirstname, managerLastname, managerEmail, managerContactNumber));
+	}
+
+	public record Address(Long id, String streetAddress, String city, String state, String pincode) {
+	}
+
+	public record Manager(Long id, String firstname, String lastname, String email, String contactNumber) {
+	}
+}
@@ -0,0 +1,8 @@
+package com.stayease.dto;
+
+public record ImageUploadResult(String fileName, ImageVariants variants, String error) {
+
+	public boolean succeeded() {
+		return variants != null;
+	}
+}
@@ -0,0 +1,8 @@
+package com.stayease.dto;
+
+public record ImageVariants(String thumbnailUrl, String cardUrl, String fullUrl) {
+
+	public static ImageVariants single(String url) {
+		return new ImageVariants(url, url, url);
+	}
+}
@@ -1,18 +1,15 @@
 package com.stayease.dto;
 
-import lombok.Data;
-
-@Data
-public class ProfileResponse {
-	private Long id;
-
-	private String firstname;
-	private String lastname;
-	private String contactNumber;
-	private String profilePicture;
-
-	private String email;
-	private Boolean isGoogleUser;
-	private String authProviderType;
+import com.stayease.enums.AuthProviderType;
+
+public record ProfileResponse(
+		Long id,
+		String firstname,
+		String lastname,
+		String contactNumber,
+		String profilePicture,
+		String profilePictureThumbnail,
+		String email,
+		Boolean isGoogleUser,
+		AuthProviderType authProviderType) {
 }
-
@@ -0,0 +1,11 @@
+package com.stayease.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public record RoomImageView(
+		@JsonIgnore Long roomId,
+		Long id,
+		String imageUrl,
+		String cardUrl,
+		String thumbnailUrl) {
+}
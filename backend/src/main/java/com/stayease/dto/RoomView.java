@@ -0,0 +1,31 @@
+package com.stayease.dto;
+
+import java.util.List;
+
+import com.stayease.enums.RoomStatus;
+
+// Room list and detail payload; images and amenities are loaded for the whole page in one query each.
+public record RoomView(
+		Long id,
+		Long hotelId,
+		String roomNumber,
+		String roomType,
+		double price,
+		RoomStatus status,
+		Integer capacity,
+		String bedType,
+		String viewType,
+		String description,
+		List<String> amenities,
+		List<RoomImageView> images) {
+
+	public RoomView(Long id, Long hotelId, String roomNumber, String roomType, double price, RoomStatus status,
+			Integer capacity, String bedType, String viewType, String description) {
+		this(id, hotelId, roomNumber, roomType, price, status, capacity, bedType, viewType, description, List.of(), List.of());
+	}
+
+	public RoomView withCollections(List<String> amenities, List<RoomImageView> images) {
+		return new RoomView(id, hotelId, roomNumber, roomType, price, status, capacity, bedType, viewType, description,
+				amenities, images);
+	}
+}
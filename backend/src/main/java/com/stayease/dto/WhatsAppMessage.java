@@ -0,0 +1,4 @@
+package com.stayease.dto;
+
+public record WhatsAppMessage(String phone, String message) {
+}
@@ -0,0 +1,15 @@
+package com.stayease.dto;
+
+import com.stayease.enums.RoomStatus;
+
+public record WishListView(Long id, RoomView room) {
+
+	public WishListView(Long id, Long roomId, Long hotelId, String roomNumber, String roomType, double price,
+			RoomStatus status, Integer capacity, String bedType, String viewType, String description) {
+		this(id, new RoomView(roomId, hotelId, roomNumber, roomType, price, status, capacity, bedType, viewType, description));
+	}
+
+	public WishListView withRoom(RoomView room) {
+		return new WishListView(id, room);
+	}
+}
@@ -0,0 +1,5 @@
+package com.stayease.enums;
+
+public enum CampaignStatus {
+	QUEUED, SENDING, COMPLETED, FAILED
+}
@@ -0,0 +1,5 @@
+package com.stayease.enums;
+
+public enum NotificationType {
+	BOOKING_CONFIRMATION_EMAIL, BOOKING_CONFIRMATION_WHATSAPP, BOOKING_CANCELLATION_EMAIL
+}
@@ -0,0 +1,5 @@
+package com.stayease.enums;
+
+public enum OutboxStatus {
+	PENDING, IN_PROGRESS, SENT, DEAD
+}
@@ -0,0 +1,5 @@
+package com.stayease.enums;
+
+public enum PrincipalType {
+	USER, ADMIN, HOTEL_MANAGER
+}
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,6 +29,9 @@ public class JWTRequestValidator extends OncePerRequestFilter {
 	@Autowired
 	MyUserDetailsService myUserDetailsService;
 
+	@Value("${app.security.stateless-principal:false}")
+	boolean statelessPrincipal;
+
 	@Override
 	protected void doFilterInternal(
 			HttpServletRequest request, 
@@ -43,14 +47,10 @@ public class JWTRequestValidator extends OncePerRequestFilter {
 		}
 
 		String jwtToken = header.substring(7);
-		String email = null;
-		String role = null;
-		Long userId = null;
+		JwtClaims claims;
 
 		try {
-			email = jwtTokenGenerator.extractEmail(jwtToken);
-			role = jwtTokenGenerator.extractRole(jwtToken);
-			userId = jwtTokenGenerator.extractUserId(jwtToken);
+			claims = jwtTokenGenerator.parseToken(jwtToken);
 		} catch (Exception e) {
 			// Invalid token - continue without authentication (for public endpoints)
 			System.out.println("Invalid Token: " + e.getMessage());
@@ -58,11 +58,24 @@ public class JWTRequestValidator extends OncePerRequestFilter {
 			return;
 		}
 
+		String email = claims.email();
+		String role = claims.role();
+		Long userId = claims.userId();
+
 		if (SecurityContextHolder.getContext().getAuthentication() == null) {
-			if (userId != null) {
+			if (statelessPrincipal) {
+				if (email != null && role != null && !jwtTokenGenerator.isExpired(claims)) {
+					UserDetails userDetails = new org.springframework.security.core.userdetails.User(
+							email,
+							"",
+							List.of(new SimpleGrantedAuthority(role))
+					);
+					setAuthentication(request, userDetails, role);
+				}
+			} else if (userId != null) {
 				try {
 					UserDetails userDetails = myUserDetailsService.loadUserById(userId);
-					if (jwtTokenGenerator.validateToken(jwtToken, userId)) {
+					if (jwtTokenGenerator.validateToken(claims, userId)) {
 						setAuthentication(request, userDetails, role);
 					}
 				} catch (Exception e) {
@@ -71,7 +84,7 @@ public class JWTRequestValidator extends OncePerRequestFilter {
 			} else if (email != null && role != null) {
 				try {
 					UserDetails userDetails = myUserDetailsService.loadByRoleAndEmail(role, email);
-					if (jwtTokenGenerator.validateToken(jwtToken, userDetails)) {
+					if (jwtTokenGenerator.validateToken(claims, userDetails)) {
 						setAuthentication(request, userDetails, role);
 					}
 				} catch (Exception e) {
@@ -1,5 +1,10 @@
 package com.stayease.jwt;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -8,9 +13,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.stayease.cache.LruCache;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 
 @Component
@@ -19,57 +28,75 @@ public class JWTTokenGenerator {
 	@Value("${jwt.secret}")
 	private String SECRET;
 
-	private SecretKey getSigningKey() {
-		return Keys.hmacShaKeyFor(SECRET.getBytes());
+	@Value("${jwt.verified-cache-size:10000}")
+	private int verifiedCacheSize;
+
+	private SecretKey signingKey;
+
+	private JwtParser jwtParser;
+
+	private LruCache<String, JwtClaims> verifiedTokens;
+
+	// Issuing, parsing and the cached expiry checks all read this, so tests can move time forward.
+	private Clock clock = Clock.systemUTC();
+
+	@PostConstruct
+	void init() {
+		signingKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+		jwtParser = Jwts.parser().verifyWith(signingKey).clock(this::now).build();
+		verifiedTokens = new LruCache<>(verifiedCacheSize);
+	}
+
+	public JwtClaims parseToken(String token) {
+		String digest = digest(token);
+		JwtClaims cached = verifiedTokens.get(digest);
+		if (cached != null) {
+			if (!isExpired(cached)) {
+				return cached;
+			}
+			verifiedTokens.remove(digest, cached);
+		}
+
+		Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+		JwtClaims parsed = new JwtClaims(
+				claims.get("email", String.class),
+				claims.get("role", String.class),
+				toUserId(claims.get("userId")),
+				claims.getExpiration());
+		verifiedTokens.put(digest, parsed);
+		return parsed;
 	}
 
 	public String extractEmail(String token) {
-		Claims claims = extractAllClaims(token);
-		return claims.get("email", String.class);
+		return parseToken(token).email();
 	}
 
 	public Long extractUserId(String token) {
-		Claims claims = extractAllClaims(token);
-		Object userId = claims.get("userId");
-		if (userId instanceof Integer) {
-			return ((Integer) userId).longValue();
-		}
-		if (userId instanceof Long) {
-			return (Long) userId;
-		}
-		if (userId instanceof String) {
-			return Long.valueOf((String) userId);
-		}
-		return null;
+		return parseToken(token).userId();
 	}
 
 	public String extractRole(String token) {
-		Claims claims = extractAllClaims(token);
-		return claims.get("role", String.class);
+		return parseToken(token).role();
+	}
+
+	public Boolean validateToken(String token, UserDetails userDetails) {
+		return validateToken(parseToken(token), userDetails);
 	}
 
-	private Claims extractAllClaims(String token) {
-		return Jwts.parser()
-				.verifyWith(getSigningKey())
-				.build()
-				.parseSignedClaims(token)
-				.getPayload();
+	public Boolean validateToken(String token, Long expectedUserId) {
+		return validateToken(parseToken(token), expectedUserId);
 	}
 
-	private Boolean isExpired(String token) {
-		Claims claims = extractAllClaims(token);
-		Date expiration = claims.getExpiration();
-		return expiration.before(new Date());
+	public Boolean validateToken(JwtClaims claims, UserDetails userDetails) {
+		return (claims.email() != null && claims.email().equals(userDetails.getUsername()) && !isExpired(claims));
 	}
 
-	public Boolean validateToken(String token, UserDetails userDetails) {
-		String email = extractEmail(token);
-		return (email != null && email.equals(userDetails.getUsername()) && !isExpired(token));
+	public Boolean validateToken(JwtClaims claims, Long expectedUserId) {
+		return (claims.userId() != null && claims.userId().equals(expectedUserId) && !isExpired(claims));
 	}
 
-	public Boolean validateToken(String token, Long expectedUserId) {
-		Long tokenUserId = extractUserId(token);
-		return (tokenUserId != null && tokenUserId.equals(expectedUserId) && !isExpired(token));
+	public boolean isExpired(JwtClaims claims) {
+		return claims.isExpired(now());
 	}
 
 	public String generateToken(UserDetails userDetails, String role) {
@@ -86,10 +113,35 @@ public class JWTTokenGenerator {
 		return Jwts.builder()
 				.claims(claims)
 				.subject(userDetails.getUsername())
-				.issuedAt(new Date())
-				.expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24))
-				.signWith(getSigningKey())
+				.issuedAt(now())
+				.expiration(new Date(clock.millis() + 1000 * 60 * 60 * 24))
+				.signWith(signingKey)
 				.compact();
 	}
-}
 
+	private Date now() {
+		return new Date(clock.millis());
+	}
+
+	private Long toUserId(Object userId) {
+		if (userId instanceof Integer) {
+			return ((Integer) userId).longValue();
+		}
+		if (userId instanceof Long) {
+			return (Long) userId;
+		}
+		if (userId instanceof String) {
+			return Long.valueOf((String) userId);
+		}
+		return null;
+	}
+
+	private String digest(String token) {
+		try {
+			MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+			return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
@@ -0,0 +1,10 @@
+package com.stayease.jwt;
+
+import java.util.Date;
+
+public record JwtClaims(String email, String role, Long userId, Date expiration) {
+
+	public boolean isExpired(Date now) {
+		return expiration != null && expiration.before(now);
+	}
+}
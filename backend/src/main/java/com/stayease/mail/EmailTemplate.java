@@ -0,0 +1,169 @@
+package com.stayease.mail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * A template parsed once into alternating literal and variable segments.
+ *   {{name}}     HTML-escaped variable
+ *   {{{name}}}   raw variable
+ *   {{>name}}    fragment, inlined at compile time
+ * Variables bound as constants (e.g. appName) are folded into the literals,
+ * so static headers and footers render as a single pre-built string.
+ */
+public final class EmailTemplate {
+
+	private static final int MAX_INCLUDE_DEPTH = 5;
+
+	private final String name;
+	private final String[] literals;
+	private final String[] variables;
+	private final boolean[] raw;
+	private final int staticLength;
+	private final Set<String> variableNames;
+
+	private EmailTemplate(String name, List<String> literals, List<String> variables, List<Boolean> raw) {
+		this.name = name;
+		this.literals = literals.toArray(new String[0]);
+		this.variables = variables.toArray(new String[0]);
+		this.raw = new boolean[raw.size()];
+		for (int i = 0; i < raw.size(); i++) {
+			this.raw[i] = raw.get(i);
+		}
+		int length = 0;
+		for (String literal : this.literals) {
+			length += literal.length();
+		}
+		this.staticLength = length;
+		this.variableNames = Collections.unmodifiableSet(new LinkedHashSet<>(variables));
+	}
+
+	public static EmailTemplate compile(String name, String source, Map<String, String> fragments, Map<String, ?> constants) {
+		String expanded = expandFragments(name, source, fragments, 0);
+		List<String> literals = new ArrayList<>();
+		List<String> variables = new ArrayList<>();
+		List<Boolean> raw = new ArrayList<>();
+		StringBuilder literal = new StringBuilder();
+
+		int position = 0;
+		while (true) {
+			int open = expanded.indexOf("{{", position);
+			if (open < 0) {
+				literal.append(expanded, position, expanded.length());
+				break;
+			}
+			literal.append(expanded, position, open);
+			boolean isRaw = expanded.startsWith("{{{", open);
+			String closing = isRaw ? "}}}" : "}}";
+			int start = open + (isRaw ? 3 : 2);
+			int close = expanded.indexOf(closing, start);
+			if (close < 0) {
+				throw new IllegalArgumentException("Unclosed placeholder in email template '" + name + "' at offset " + open);
+			}
+			String variable = expanded.substring(start, close).trim();
+			if (variable.isEmpty()) {
+				throw new IllegalArgumentException("Empty placeholder in email template '" + name + "' at offset " + open);
+			}
+			if (constants.containsKey(variable)) {
+				appendValue(literal, constants.get(variable), isRaw);
+			} else {
+				literals.add(literal.toString());
+				literal.setLength(0);
+				variables.add(variable);
+				raw.add(isRaw);
+			}
+			position = close + closing.length();
+		}
+		literals.add(literal.toString());
+		return new EmailTemplate(name, literals, variables, raw);
+	}
+
+	public String render(Map<String, ?> model) {
+		StringBuilder out = new StringBuilder(staticLength + variables.length * 24);
+		for (int i = 0; i < variables.length; i++) {
+			out.append(literals[i]);
+			String variable = variables[i];
+			Object value = model.get(variable);
+			if (value == null && !model.containsKey(variable)) {
+				throw new IllegalArgumentException("Missing variable '" + variable + "' for email template '" + name + "'");
+			}
+			appendValue(out, value, raw[i]);
+		}
+		out.append(literals[variables.length]);
+		return out.toString();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Set<String> getVariableNames() {
+		return variableNames;
+	}
+
+	public static String escapeHtml(String value) {
+		StringBuilder out = new StringBuilder(value.length() + 16);
+		appendEscaped(out, value);
+		return out.toString();
+	}
+
+	private static void appendValue(StringBuilder out, Object value, boolean raw) {
+		if (value == null) {
+			return;
+		}
+		String text = value.toString();
+		if (raw) {
+			out.append(text);
+		} else {
+			appendEscaped(out, text);
+		}
+	}
+
+	private static void appendEscaped(StringBuilder out, String text) {
+		int last = 0;
+		for (int i = 0; i < text.length(); i++) {
+			String replacement;
+			switch (text.charAt(i)) {
+			case '<': replacement = "&lt;"; break;
+			case '>': replacement = "&gt;"; break;
+			case '&': replacement = "&amp;"; break;
+			case '"': replacement = "&quot;"; break;
+			case '\'': replacement = "&#39;"; break;
+			default: continue;
+			}
+			out.append(text, last, i).append(replacement);
+			last = i + 1;
+		}
+		out.append(text, last, text.length());
+	}
+
+	private static String expandFragments(String name, String source, Map<String, String> fragments, int depth) {
+		if (depth > MAX_INCLUDE_DEPTH) {
+			throw new IllegalArgumentException("Fragments nested too deeply in email template '" + name + "'");
+		}
+		StringBuilder out = new StringBuilder(source.length());
+		int position = 0;
+		while (true) {
+			int open = source.indexOf("{{>", position);
+			if (open < 0) {
+				out.append(source, position, source.length());
+				return out.toString();
+			}
+			int close = source.indexOf("}}", open);
+			if (close < 0) {
+				throw new IllegalArgumentException("Unclosed fragment include in email template '" + name + "'");
+			}
+			String fragmentName = source.substring(open + 3, close).trim();
+			String fragment = fragments.get(fragmentName);
+			if (fragment == null) {
+				throw new IllegalArgumentException("Unknown fragment '" + fragmentName + "' in email template '" + name + "'");
+			}
+			out.append(source, position, open).append(expandFragments(name, fragment, fragments, depth + 1));
+			position = close + 2;
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.stayease.mail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+@Component
+public class EmailTemplates {
+
+	public static final String OTP = "otp";
+	public static final String GUEST_MESSAGE = "guest-message";
+	public static final String THANK_YOU = "thank-you";
+	public static final String BOOKING_CONFIRMATION = "booking-confirmation";
+	public static final String BOOKING_CANCELLATION = "booking-cancellation";
+
+	private static final List<String> TEMPLATE_NAMES = List.of(
+			OTP, GUEST_MESSAGE, THANK_YOU, BOOKING_CONFIRMATION, BOOKING_CANCELLATION);
+
+	private static final String LOCATION = "classpath:templates/email/";
+
+	@Value("${app.name}")
+	private String appName;
+
+	private final Map<String, EmailTemplate> templates = new HashMap<>();
+
+	@PostConstruct
+	void load() throws IOException {
+		PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+		Map<String, String> fragments = new HashMap<>();
+		for (Resource resource : resolver.getResources(LOCATION + "fragments/*.html")) {
+			String fragmentName = resource.getFilename().substring(0, resource.getFilename().length() - ".html".length());
+			fragments.put(fragmentName, stripTrailingNewline(read(resource)));
+		}
+
+		Map<String, Object> constants = Map.of("appName", appName);
+		for (String name : TEMPLATE_NAMES) {
+			String source = read(resolver.getResource(LOCATION + name + ".html"));
+			templates.put(name, EmailTemplate.compile(name, source, fragments, constants));
+		}
+	}
+
+	public String render(String name, Map<String, ?> model) {
+		EmailTemplate template = templates.get(name);
+		if (template == null) {
+			throw new IllegalArgumentException("Unknown email template: " + name);
+		}
+		return template.render(model);
+	}
+
+	private String read(Resource resource) throws IOException {
+		try (InputStream input = resource.getInputStream()) {
+			return new String(input.readAllBytes(), StandardCharsets.UTF_8).replace("\r\n", "\n");
+		}
+	}
+
+	private String stripTrailingNewline(String text) {
+		return text.endsWith("\n") ? text.substring(0, text.length() - 1) : text;
+	}
+}
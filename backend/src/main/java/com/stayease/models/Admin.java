@@ -17,6 +17,7 @@ import jakarta.persistence.Id;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.stayease.enums.Role;
 
 @Entity
@@ -40,6 +41,7 @@ public class Admin {
 	private String email;
 	
 	@Column(nullable = false)
+	@JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
 	private String password;
 	
 	@Column(nullable = false)
@@ -43,6 +43,8 @@ public class AppUser {
 	private String contactNumber;
 	
 	private String profilePicture;
+
+	private String profilePictureThumbnail;
 	
 	@Enumerated(EnumType.STRING)
 	private Role role;
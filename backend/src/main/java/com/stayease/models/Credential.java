@@ -0,0 +1,40 @@
+package com.stayease.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import com.stayease.enums.PrincipalType;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = {
+		@Index(name = "uk_credential_email", columnList = "email", unique = true),
+		@Index(name = "idx_credential_principal", columnList = "principal_type, principal_id")
+})
+public class Credential {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(nullable = false, length = 100)
+	private String email;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "principal_type", nullable = false, length = 20)
+	private PrincipalType principalType;
+
+	@Column(name = "principal_id", nullable = false)
+	private Long principalId;
+}
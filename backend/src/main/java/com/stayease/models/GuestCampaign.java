@@ -0,0 +1,61 @@
+package com.stayease.models;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import com.stayease.enums.CampaignStatus;
+
+@Entity
+@Data
+@Table(indexes = @Index(name = "idx_guest_campaign_hotel", columnList = "hotelId"))
+public class GuestCampaign {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(nullable = false)
+	private Long hotelId;
+
+	private String bookingStatus;
+
+	private LocalDate checkInFrom;
+
+	private LocalDate checkInTo;
+
+	@Column(nullable = false)
+	private String subject;
+
+	@Column(nullable = false, columnDefinition = "TEXT")
+	private String body;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 20)
+	private CampaignStatus status;
+
+	@Column(nullable = false)
+	private Integer totalRecipients = 0;
+
+	@Column(nullable = false)
+	private Integer sentCount = 0;
+
+	@Column(nullable = false)
+	private Integer failedCount = 0;
+
+	@Column(length = 1000)
+	private String lastError;
+
+	private Instant createdAt;
+
+	private Instant completedAt;
+}
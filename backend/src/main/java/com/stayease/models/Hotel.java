@@ -39,6 +39,10 @@ public class Hotel {
 
     private String hotelImage;
 
+    private String hotelImageCard;
+
+    private String hotelImageThumbnail;
+
     private Double starRating; 
 
     @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
@@ -0,0 +1,63 @@
+package com.stayease.models;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotelRatingStats {
+
+	@Id
+	private Long hotelId;
+
+	@Column(nullable = false)
+	private Long ratingSum = 0L;
+
+	@Column(nullable = false)
+	private Long ratingCount = 0L;
+
+	@Column(nullable = false)
+	private Long oneStarCount = 0L;
+
+	@Column(nullable = false)
+	private Long twoStarCount = 0L;
+
+	@Column(nullable = false)
+	private Long threeStarCount = 0L;
+
+	@Column(nullable = false)
+	private Long fourStarCount = 0L;
+
+	@Column(nullable = false)
+	private Long fiveStarCount = 0L;
+
+	@JsonIgnore
+	public Double getAverageRating() {
+		if (ratingCount == null || ratingCount == 0) {
+			return null;
+		}
+		return ratingSum.doubleValue() / ratingCount;
+	}
+
+	@JsonIgnore
+	public Map<Integer, Long> getHistogram() {
+		Map<Integer, Long> histogram = new LinkedHashMap<>();
+		histogram.put(5, fiveStarCount);
+		histogram.put(4, fourStarCount);
+		histogram.put(3, threeStarCount);
+		histogram.put(2, twoStarCount);
+		histogram.put(1, oneStarCount);
+		return histogram;
+	}
+}
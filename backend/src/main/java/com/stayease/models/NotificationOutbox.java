@@ -0,0 +1,58 @@
+package com.stayease.models;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import com.stayease.enums.NotificationType;
+import com.stayease.enums.OutboxStatus;
+
+@Entity
+@Data
+@Table(name = "notification_outbox", indexes = {
+		@Index(name = "uk_notification_outbox_dedupe_key", columnList = "dedupe_key", unique = true),
+		@Index(name = "idx_notification_outbox_due", columnList = "status, next_attempt_at")
+})
+public class NotificationOutbox {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "dedupe_key", nullable = false, length = 150)
+	private String dedupeKey;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 40)
+	private NotificationType type;
+
+	@Column(nullable = false, columnDefinition = "TEXT")
+	private String payload;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 20)
+	private OutboxStatus status;
+
+	@Column(nullable = false)
+	private Integer attempts;
+
+	@Column(name = "next_attempt_at", nullable = false)
+	private Instant nextAttemptAt;
+
+	@Column(length = 1000)
+	private String lastError;
+
+	@Column(name = "created_at", nullable = false)
+	private Instant createdAt;
+
+	@Column(name = "sent_at")
+	private Instant sentAt;
+}
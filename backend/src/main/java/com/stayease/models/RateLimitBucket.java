@@ -0,0 +1,21 @@
+package com.stayease.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "rate_limit_bucket", indexes = @Index(name = "idx_rate_limit_bucket_tat", columnList = "tat"))
+public class RateLimitBucket {
+
+	@Id
+	@Column(name = "bucket_key", length = 191)
+	private String bucketKey;
+
+	@Column(nullable = false)
+	private Long tat;
+}
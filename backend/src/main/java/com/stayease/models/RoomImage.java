@@ -22,6 +22,10 @@ public class RoomImage {
 
     @Column(nullable = false)
     private String imageUrl;
+
+    private String cardUrl;
+
+    private String thumbnailUrl;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "room_id", nullable = false)
@@ -0,0 +1,50 @@
+package com.stayease.models;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+// One row per distinct upload, shared by every room, hotel or profile that references its URLs.
+@Entity
+@Data
+@Table(name = "stored_image", indexes = {
+		@Index(name = "uk_stored_image_content_hash", columnList = "content_hash", unique = true),
+		@Index(name = "idx_stored_image_full_url", columnList = "full_url"),
+		@Index(name = "idx_stored_image_card_url", columnList = "card_url"),
+		@Index(name = "idx_stored_image_thumbnail_url", columnList = "thumbnail_url"),
+		@Index(name = "idx_stored_image_unreferenced", columnList = "ref_count, updated_at")
+})
+public class StoredImage {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "content_hash", nullable = false, length = 64)
+	private String contentHash;
+
+	@Column(name = "thumbnail_url", nullable = false, length = 500)
+	private String thumbnailUrl;
+
+	@Column(name = "card_url", nullable = false, length = 500)
+	private String cardUrl;
+
+	@Column(name = "full_url", nullable = false, length = 500)
+	private String fullUrl;
+
+	@Column(name = "ref_count", nullable = false)
+	private Integer refCount;
+
+	@Column(name = "created_at", nullable = false)
+	private Instant createdAt;
+
+	@Column(name = "updated_at", nullable = false)
+	private Instant updatedAt;
+}
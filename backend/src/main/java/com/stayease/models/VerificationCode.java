@@ -0,0 +1,29 @@
+package com.stayease.models;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "verification_code", indexes = @Index(name = "idx_verification_code_expires_at", columnList = "expires_at"))
+public class VerificationCode {
+
+	@Id
+	@Column(length = 100)
+	private String email;
+
+	@Column(nullable = false, length = 16)
+	private String code;
+
+	@Column(name = "expires_at", nullable = false)
+	private Instant expiresAt;
+
+	@Column(nullable = false)
+	private Integer attempts = 0;
+}
@@ -0,0 +1,134 @@
+package com.stayease.otp;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryVerificationCodeStore implements VerificationCodeStore {
+
+	@Value("${app.otp.max-attempts:5}")
+	private int maxAttempts;
+
+	@Value("${app.otp.max-entries:10000}")
+	private int maxEntries;
+
+	private final Map<String, Entry> codes = new ConcurrentHashMap<>();
+
+	// Expiry queue ordered by deadline, so each sweep only touches entries that are due.
+	private final DelayQueue<Entry> expiries = new DelayQueue<>();
+
+	@Override
+	public void save(String email, String code, Duration ttl) {
+		String key = normalize(email);
+		if (!codes.containsKey(key) && codes.size() >= maxEntries) {
+			purgeExpired();
+			if (codes.size() >= maxEntries) {
+				throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many pending verification codes, please try again shortly");
+			}
+		}
+		Entry entry = new Entry(key, code, System.nanoTime() + ttl.toNanos());
+		Entry previous = codes.put(key, entry);
+		// Resending a code replaces its queue entry rather than leaving one behind per resend.
+		if (previous != null) {
+			expiries.remove(previous);
+		}
+		expiries.add(entry);
+	}
+
+	@Override
+	public VerificationResult verify(String email, String code, boolean consume) {
+		String key = normalize(email);
+		Entry entry = codes.get(key);
+		if (entry == null) {
+			return VerificationResult.INVALID;
+		}
+		if (entry.isExpired()) {
+			discard(key, entry);
+			return VerificationResult.EXPIRED;
+		}
+		synchronized (entry) {
+			if (entry.attempts >= maxAttempts) {
+				discard(key, entry);
+				return VerificationResult.TOO_MANY_ATTEMPTS;
+			}
+			if (code == null || !MessageDigest.isEqual(
+					entry.code.getBytes(StandardCharsets.UTF_8), code.getBytes(StandardCharsets.UTF_8))) {
+				entry.attempts++;
+				return VerificationResult.INVALID;
+			}
+		}
+		if (consume) {
+			discard(key, entry);
+		}
+		return VerificationResult.VALID;
+	}
+
+	@Override
+	public void remove(String email) {
+		String key = normalize(email);
+		Entry entry = codes.get(key);
+		if (entry != null) {
+			discard(key, entry);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${app.otp.purge-interval-ms:60000}")
+	public void purgeExpired() {
+		Entry entry;
+		while ((entry = expiries.poll()) != null) {
+			codes.remove(entry.key, entry);
+		}
+	}
+
+	// Removing from the queue is linear, but it keeps the queue no larger than the map.
+	private void discard(String key, Entry entry) {
+		if (codes.remove(key, entry)) {
+			expiries.remove(entry);
+		}
+	}
+
+	private String normalize(String email) {
+		return email == null ? "" : email.trim().toLowerCase();
+	}
+
+	private static class Entry implements Delayed {
+		private final String key;
+		private final String code;
+		private final long expiresAt;
+		private int attempts;
+
+		Entry(String key, String code, long expiresAt) {
+			this.key = key;
+			this.code = code;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired() {
+			return System.nanoTime() - expiresAt >= 0;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(expiresAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return Long.compare(expiresAt, ((Entry) other).expiresAt);
+		}
+	}
+}
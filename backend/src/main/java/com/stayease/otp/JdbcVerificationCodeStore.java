@@ -0,0 +1,97 @@
+package com.stayease.otp;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "jdbc")
+public class JdbcVerificationCodeStore implements VerificationCodeStore {
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${app.otp.max-attempts:5}")
+	private int maxAttempts;
+
+	@Value("${app.otp.purge-batch-size:1000}")
+	private int purgeBatchSize;
+
+	private record StoredCode(String code, Instant expiresAt, int attempts) {
+	}
+
+	@Override
+	public void save(String email, String code, Duration ttl) {
+		jdbcTemplate.update("""
+				INSERT INTO verification_code (email, code, expires_at, attempts) VALUES (?, ?, ?, 0)
+				ON DUPLICATE KEY UPDATE code = VALUES(code), expires_at = VALUES(expires_at), attempts = 0
+				""", normalize(email), code, Timestamp.from(Instant.now().plus(ttl)));
+	}
+
+	@Override
+	public VerificationResult verify(String email, String code, boolean consume) {
+		String key = normalize(email);
+		return transactionTemplate.execute(status -> {
+			List<StoredCode> rows = jdbcTemplate.query(
+					"SELECT code, expires_at, attempts FROM verification_code WHERE email = ? FOR UPDATE",
+					(rs, rowNum) -> new StoredCode(rs.getString("code"), rs.getTimestamp("expires_at").toInstant(), rs.getInt("attempts")),
+					key);
+			if (rows.isEmpty()) {
+				return VerificationResult.INVALID;
+			}
+			StoredCode stored = rows.get(0);
+			if (!stored.expiresAt().isAfter(Instant.now())) {
+				delete(key);
+				return VerificationResult.EXPIRED;
+			}
+			if (stored.attempts() >= maxAttempts) {
+				delete(key);
+				return VerificationResult.TOO_MANY_ATTEMPTS;
+			}
+			if (code == null || !MessageDigest.isEqual(
+					stored.code().getBytes(StandardCharsets.UTF_8), code.getBytes(StandardCharsets.UTF_8))) {
+				jdbcTemplate.update("UPDATE verification_code SET attempts = attempts + 1 WHERE email = ?", key);
+				return VerificationResult.INVALID;
+			}
+			if (consume) {
+				delete(key);
+			}
+			return VerificationResult.VALID;
+		});
+	}
+
+	@Override
+	public void remove(String email) {
+		delete(normalize(email));
+	}
+
+	@Scheduled(fixedDelayString = "${app.otp.purge-interval-ms:60000}")
+	public void purgeExpired() {
+		Timestamp now = Timestamp.from(Instant.now());
+		int removed;
+		do {
+			removed = jdbcTemplate.update("DELETE FROM verification_code WHERE expires_at < ? LIMIT " + purgeBatchSize, now);
+		} while (removed == purgeBatchSize);
+	}
+
+	private void delete(String key) {
+		jdbcTemplate.update("DELETE FROM verification_code WHERE email = ?", key);
+	}
+
+	private String normalize(String email) {
+		return email == null ? "" : email.trim().toLowerCase();
+	}
+}
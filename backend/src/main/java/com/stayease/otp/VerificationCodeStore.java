@@ -0,0 +1,13 @@
+package com.stayease.otp;
+
+import java.time.Duration;
+
+public interface VerificationCodeStore {
+
+	void save(String email, String code, Duration ttl);
+
+	// Only a wrong code counts as an attempt; a VALID result with consume=true also deletes the code.
+	VerificationResult verify(String email, String code, boolean consume);
+
+	void remove(String email);
+}
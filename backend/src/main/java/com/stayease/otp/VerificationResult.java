@@ -0,0 +1,5 @@
+package com.stayease.otp;
+
+public enum VerificationResult {
+	VALID, INVALID, EXPIRED, TOO_MANY_ATTEMPTS
+}
@@ -0,0 +1,62 @@
+package com.stayease.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+	@Value("${app.rate-limit.max-keys:100000}")
+	private int maxKeys;
+
+	// Each bucket is a GCRA "theoretical arrival time" in System.nanoTime() units.
+	private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+	@Override
+	public long tryAcquire(String key, RateLimitPolicy policy) {
+		AtomicLong bucket = buckets.get(key);
+		if (bucket == null) {
+			if (buckets.size() >= maxKeys) {
+				evictIdleBuckets();
+				if (buckets.size() >= maxKeys) {
+					// Fail closed: a flood of fresh keys must not switch limiting off for the keys already tracked.
+					return Math.max(1, TimeUnit.NANOSECONDS.toMillis(policy.emissionIntervalNanos()));
+				}
+			}
+			bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+		}
+
+		long interval = policy.emissionIntervalNanos();
+		long tolerance = policy.burstToleranceNanos();
+		while (true) {
+			long now = System.nanoTime();
+			long tat = bucket.get();
+			long newTat = Math.max(tat, now) + interval;
+			long excess = newTat - now - tolerance;
+			if (excess > 0) {
+				return Math.max(1, TimeUnit.NANOSECONDS.toMillis(excess));
+			}
+			if (bucket.compareAndSet(tat, newTat)) {
+				return 0;
+			}
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${app.rate-limit.idle-eviction-ms:60000}")
+	public void evictIdleBuckets() {
+		long now = System.nanoTime();
+		buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+	}
+
+	public int size() {
+		return buckets.size();
+	}
+}
@@ -0,0 +1,54 @@
+package com.stayease.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "jdbc")
+public class JdbcRateLimitStore implements RateLimitStore {
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${app.rate-limit.jdbc.purge-batch-size:1000}")
+	private int purgeBatchSize;
+
+	@Override
+	public long tryAcquire(String key, RateLimitPolicy policy) {
+		// Shared buckets use wall-clock millis so every node agrees on the timeline.
+		long interval = Math.max(1, TimeUnit.NANOSECONDS.toMillis(policy.emissionIntervalNanos()));
+		long tolerance = interval * policy.capacity();
+		Long waitMillis = transactionTemplate.execute(status -> {
+			long now = System.currentTimeMillis();
+			jdbcTemplate.update("INSERT IGNORE INTO rate_limit_bucket (bucket_key, tat) VALUES (?, ?)", key, now);
+			Long tat = jdbcTemplate.queryForObject(
+					"SELECT tat FROM rate_limit_bucket WHERE bucket_key = ? FOR UPDATE", Long.class, key);
+			long newTat = Math.max(tat == null ? now : tat, now) + interval;
+			long excess = newTat - now - tolerance;
+			if (excess > 0) {
+				return excess;
+			}
+			jdbcTemplate.update("UPDATE rate_limit_bucket SET tat = ? WHERE bucket_key = ?", newTat, key);
+			return 0L;
+		});
+		return waitMillis == null ? 0 : waitMillis;
+	}
+
+	@Scheduled(fixedDelayString = "${app.rate-limit.idle-eviction-ms:60000}")
+	public void evictIdleBuckets() {
+		int removed;
+		do {
+			removed = jdbcTemplate.update("DELETE FROM rate_limit_bucket WHERE tat < ? LIMIT " + purgeBatchSize,
+					System.currentTimeMillis());
+		} while (removed == purgeBatchSize);
+	}
+}
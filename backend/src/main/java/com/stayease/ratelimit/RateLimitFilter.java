@@ -0,0 +1,191 @@
+package com.stayease.ratelimit;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stayease.exception.GlobalExceptionHandler.ErrorResponse;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class RateLimitFilter extends OncePerRequestFilter {
+
+	private static final int MAX_BUFFERED_BODY = 16 * 1024;
+
+	private final RateLimitStore store;
+	private final ObjectMapper objectMapper;
+	private final List<RateLimitRule> rules;
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+	public RateLimitFilter(RateLimitStore store, ObjectMapper objectMapper, List<RateLimitRule> rules) {
+		this.store = store;
+		this.objectMapper = objectMapper;
+		this.rules = List.copyOf(rules);
+	}
+
+	@Override
+	protected void doFilterInternal(
+			HttpServletRequest request,
+			HttpServletResponse response,
+			FilterChain filterChain)
+			throws ServletException, IOException {
+
+		RateLimitRule rule = findRule(request);
+		if (rule == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		HttpServletRequest forwarded = request;
+		long waitMillis = 0;
+		// Behind a proxy the remote address is the client's, resolved from X-Forwarded-For by server.forward-headers-strategy.
+		if (rule.ipPolicy() != null) {
+			waitMillis = store.tryAcquire(rule.ipPolicy().name() + ":ip:" + request.getRemoteAddr(), rule.ipPolicy());
+		}
+
+		if (waitMillis == 0 && rule.accountPolicy() != null) {
+			String account = null;
+			if (rule.accountField() != null) {
+				// The declared length is not trusted: chunked bodies have none, so at most one byte past the limit is read.
+				CachedBodyRequest cached = request.getContentLengthLong() > MAX_BUFFERED_BODY ? null : new CachedBodyRequest(request);
+				if (cached == null || cached.body.length > MAX_BUFFERED_BODY) {
+					writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "PAYLOAD_TOO_LARGE",
+							"Request body must not exceed " + MAX_BUFFERED_BODY / 1024 + " KB");
+					return;
+				}
+				forwarded = cached;
+				account = readField(cached.body, rule.accountField());
+			} else {
+				account = principalName();
+			}
+			if (account != null && !account.isBlank()) {
+				String key = rule.accountPolicy().name() + ":account:" + account.trim().toLowerCase();
+				waitMillis = store.tryAcquire(key, rule.accountPolicy());
+			}
+		}
+
+		if (waitMillis > 0) {
+			reject(response, waitMillis);
+			return;
+		}
+		filterChain.doFilter(forwarded, response);
+	}
+
+	private RateLimitRule findRule(HttpServletRequest request) {
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		for (RateLimitRule rule : rules) {
+			if ((rule.method() == null || rule.method().matches(request.getMethod()))
+					&& pathMatcher.match(rule.pathPattern(), path)) {
+				return rule;
+			}
+		}
+		return null;
+	}
+
+	private String principalName() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication == null || !authentication.isAuthenticated()
+				|| authentication instanceof AnonymousAuthenticationToken) {
+			return null;
+		}
+		return authentication.getName();
+	}
+
+	private String readField(byte[] body, String field) {
+		try {
+			JsonNode node = objectMapper.readTree(body);
+			return node != null && node.hasNonNull(field) ? node.get(field).asText() : null;
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private void reject(HttpServletResponse response, long waitMillis) throws IOException {
+		long retryAfterSeconds = Math.max(1, (waitMillis + 999) / 1000);
+		response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+		writeError(response, HttpStatus.TOO_MANY_REQUESTS, "TOO_MANY_REQUESTS",
+				"Too many requests. Please try again in " + retryAfterSeconds + " seconds.");
+	}
+
+	private void writeError(HttpServletResponse response, HttpStatus status, String error, String message) throws IOException {
+		response.setStatus(status.value());
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(error, message));
+	}
+
+	private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+		private final byte[] body;
+
+		CachedBodyRequest(HttpServletRequest request) throws IOException {
+			super(request);
+			this.body = request.getInputStream().readNBytes(MAX_BUFFERED_BODY + 1);
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream input = new ByteArrayInputStream(body);
+			return new ServletInputStream() {
+				@Override
+				public int read() {
+					return input.read();
+				}
+
+				@Override
+				public int read(byte[] buffer, int offset, int length) {
+					return input.read(buffer, offset, length);
+				}
+
+				@Override
+				public boolean isFinished() {
+					return input.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setReadListener(ReadListener listener) {
+					// The whole body is already in memory, so it is available and fully read straight away.
+					try {
+						if (!isFinished()) {
+							listener.onDataAvailable();
+						}
+						listener.onAllDataRead();
+					} catch (IOException e) {
+						listener.onError(e);
+					}
+				}
+			};
+		}
+
+		@Override
+		public BufferedReader getReader() {
+			String encoding = getCharacterEncoding();
+			return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+					encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+		}
+	}
+}
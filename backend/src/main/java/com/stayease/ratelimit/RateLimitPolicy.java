@@ -0,0 +1,14 @@
+package com.stayease.ratelimit;
+
+import java.time.Duration;
+
+public record RateLimitPolicy(String name, long capacity, Duration period) {
+
+	public long emissionIntervalNanos() {
+		return Math.max(1, period.toNanos() / capacity);
+	}
+
+	public long burstToleranceNanos() {
+		return emissionIntervalNanos() * capacity;
+	}
+}
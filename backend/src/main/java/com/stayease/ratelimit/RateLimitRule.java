@@ -0,0 +1,21 @@
+package com.stayease.ratelimit;
+
+import org.springframework.http.HttpMethod;
+
+public record RateLimitRule(
+		HttpMethod method,
+		String pathPattern,
+		RateLimitPolicy ipPolicy,
+		RateLimitPolicy accountPolicy,
+		String accountField) {
+
+	public static RateLimitRule byPrincipal(HttpMethod method, String pathPattern,
+			RateLimitPolicy ipPolicy, RateLimitPolicy accountPolicy) {
+		return new RateLimitRule(method, pathPattern, ipPolicy, accountPolicy, null);
+	}
+
+	public static RateLimitRule byBodyField(HttpMethod method, String pathPattern,
+			RateLimitPolicy ipPolicy, RateLimitPolicy accountPolicy, String accountField) {
+		return new RateLimitRule(method, pathPattern, ipPolicy, accountPolicy, accountField);
+	}
+}
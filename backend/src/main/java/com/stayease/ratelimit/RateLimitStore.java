@@ -0,0 +1,7 @@
+package com.stayease.ratelimit;
+
+public interface RateLimitStore {
+
+	// Takes one token for the key: 0 when allowed, otherwise millis until the next token.
+	long tryAcquire(String key, RateLimitPolicy policy);
+}
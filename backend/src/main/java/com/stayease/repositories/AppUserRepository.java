@@ -1,12 +1,21 @@
 package com.stayease.repositories;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.stayease.dto.ProfileResponse;
 import com.stayease.models.AppUser;
 
 @Repository
 public interface AppUserRepository extends JpaRepository<AppUser, Long>, JpaSpecificationExecutor<AppUser>{
-	
+
+	@Query("select new com.stayease.dto.ProfileResponse(a.id, a.firstname, a.lastname, a.contactNumber, "
+			+ "a.profilePicture, a.profilePictureThumbnail, u.email, u.isGoogleUser, u.authProviderType) "
+			+ "from AppUser a left join a.user u where a.id = :userId")
+	Optional<ProfileResponse> findProfileById(@Param("userId") long userId);
 }
@@ -0,0 +1,48 @@
+package com.stayease.repositories;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.stayease.enums.PrincipalType;
+import com.stayease.models.Credential;
+
+@Repository
+public interface CredentialRepository extends JpaRepository<Credential, Long> {
+
+	Optional<Credential> findByEmail(String email);
+
+	Optional<Credential> findByPrincipalTypeAndPrincipalId(PrincipalType principalType, Long principalId);
+
+	boolean existsByEmail(String email);
+
+	// Users are indexed first, then admins, then managers, the order login used to look them up in.
+	// A principal whose email is already indexed is skipped by IGNORE and reported by findUnindexedEmails.
+	@Modifying
+	@Query(value = "INSERT IGNORE INTO credential (email, principal_type, principal_id) "
+			+ "SELECT TRIM(u.email), 'USER', u.id FROM `user` u WHERE u.email IS NOT NULL "
+			+ "AND NOT EXISTS (SELECT 1 FROM credential c WHERE c.principal_type = 'USER' AND c.principal_id = u.id) "
+			+ "UNION ALL "
+			+ "SELECT TRIM(a.email), 'ADMIN', a.id FROM admin a WHERE a.email IS NOT NULL "
+			+ "AND NOT EXISTS (SELECT 1 FROM credential c WHERE c.principal_type = 'ADMIN' AND c.principal_id = a.id) "
+			+ "UNION ALL "
+			+ "SELECT TRIM(m.email), 'HOTEL_MANAGER', m.id FROM hotel_manager m WHERE m.email IS NOT NULL "
+			+ "AND NOT EXISTS (SELECT 1 FROM credential c WHERE c.principal_type = 'HOTEL_MANAGER' AND c.principal_id = m.id)",
+			nativeQuery = true)
+	int backfillMissing();
+
+	@Query(value = "SELECT u.email FROM `user` u WHERE u.email IS NOT NULL "
+			+ "AND NOT EXISTS (SELECT 1 FROM credential c WHERE c.principal_type = 'USER' AND c.principal_id = u.id) "
+			+ "UNION ALL "
+			+ "SELECT a.email FROM admin a WHERE a.email IS NOT NULL "
+			+ "AND NOT EXISTS (SELECT 1 FROM credential c WHERE c.principal_type = 'ADMIN' AND c.principal_id = a.id) "
+			+ "UNION ALL "
+			+ "SELECT m.email FROM hotel_manager m WHERE m.email IS NOT NULL "
+			+ "AND NOT EXISTS (SELECT 1 FROM credential c WHERE c.principal_type = 'HOTEL_MANAGER' AND c.principal_id = m.id)",
+			nativeQuery = true)
+	List<String> findUnindexedEmails();
+}
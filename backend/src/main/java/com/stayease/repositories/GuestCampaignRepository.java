@@ -0,0 +1,45 @@
+package com.stayease.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.stayease.enums.CampaignStatus;
+import com.stayease.models.GuestCampaign;
+
+@Repository
+public interface GuestCampaignRepository extends JpaRepository<GuestCampaign, Long> {
+
+	List<GuestCampaign> findByHotelIdOrderByIdDesc(Long hotelId);
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE GuestCampaign c SET c.sentCount = c.sentCount + :sent, c.failedCount = c.failedCount + :failed, "
+			+ "c.lastError = COALESCE(:lastError, c.lastError) WHERE c.id = :id")
+	int recordProgress(@Param("id") Long id, @Param("sent") int sent, @Param("failed") int failed,
+			@Param("lastError") String lastError);
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE GuestCampaign c SET c.status = com.stayease.enums.CampaignStatus.SENDING "
+			+ "WHERE c.id = :id AND c.status = com.stayease.enums.CampaignStatus.QUEUED")
+	int markSending(@Param("id") Long id);
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE GuestCampaign c SET c.status = :status, c.completedAt = :completedAt WHERE c.id = :id")
+	int finish(@Param("id") Long id, @Param("status") CampaignStatus status, @Param("completedAt") Instant completedAt);
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE GuestCampaign c SET c.status = com.stayease.enums.CampaignStatus.FAILED, "
+			+ "c.lastError = 'Interrupted by application restart', c.completedAt = :now "
+			+ "WHERE c.status IN (com.stayease.enums.CampaignStatus.QUEUED, com.stayease.enums.CampaignStatus.SENDING)")
+	int failInterrupted(@Param("now") Instant now);
+}
@@ -3,9 +3,13 @@ package com.stayease.repositories;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.stayease.dto.HotelReviewView;
 import com.stayease.models.HotelFeedback;
 
 @Repository
@@ -16,5 +20,24 @@ public interface HotelFeedbackRepository extends JpaRepository<HotelFeedback, Lo
     List<HotelFeedback> findByUserId(Long userId);
     
     Optional<HotelFeedback> findByUserIdAndHotelId(Long userId, Long hotelId);
+
+    @Query("SELECT new com.stayease.dto.HotelReviewView(f.id, u.firstname, COALESCE(u.profilePictureThumbnail, u.profilePicture), f.rating, f.comment, f.date) "
+            + "FROM HotelFeedback f JOIN f.user u WHERE f.hotel.id = :hotelId ORDER BY f.id DESC")
+    List<HotelReviewView> findNewestReviews(@Param("hotelId") Long hotelId, Limit limit);
+
+    @Query("SELECT new com.stayease.dto.HotelReviewView(f.id, u.firstname, COALESCE(u.profilePictureThumbnail, u.profilePicture), f.rating, f.comment, f.date) "
+            + "FROM HotelFeedback f JOIN f.user u WHERE f.hotel.id = :hotelId AND f.id < :beforeId ORDER BY f.id DESC")
+    List<HotelReviewView> findNewestReviewsBefore(@Param("hotelId") Long hotelId, @Param("beforeId") Long beforeId,
+            Limit limit);
+
+    @Query("SELECT new com.stayease.dto.HotelReviewView(f.id, u.firstname, COALESCE(u.profilePictureThumbnail, u.profilePicture), f.rating, f.comment, f.date) "
+            + "FROM HotelFeedback f JOIN f.user u WHERE f.hotel.id = :hotelId ORDER BY f.rating DESC, f.id DESC")
+    List<HotelReviewView> findTopRatedReviews(@Param("hotelId") Long hotelId, Limit limit);
+
+    @Query("SELECT new com.stayease.dto.HotelReviewView(f.id, u.firstname, COALESCE(u.profilePictureThumbnail, u.profilePicture), f.rating, f.comment, f.date) "
+            + "FROM HotelFeedback f JOIN f.user u WHERE f.hotel.id = :hotelId "
+            + "AND (f.rating < :rating OR (f.rating = :rating AND f.id < :beforeId)) ORDER BY f.rating DESC, f.id DESC")
+    List<HotelReviewView> findTopRatedReviewsAfter(@Param("hotelId") Long hotelId, @Param("rating") Integer rating,
+            @Param("beforeId") Long beforeId, Limit limit);
 }
 
@@ -0,0 +1,47 @@
+package com.stayease.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.stayease.models.HotelRatingStats;
+
+@Repository
+public interface HotelRatingStatsRepository extends JpaRepository<HotelRatingStats, Long> {
+
+	// Concurrent first ratings both reach this; INSERT IGNORE waits on the other row and skips, so each
+	// transaction then applies its own delta to the single seeded row instead of racing on the primary key.
+	@Modifying
+	@Query(value = "INSERT IGNORE INTO hotel_rating_stats "
+			+ "(hotel_id, rating_sum, rating_count, one_star_count, two_star_count, three_star_count, four_star_count, five_star_count) "
+			+ "SELECT :hotelId, COALESCE(SUM(f.rating), 0), COUNT(f.id), "
+			+ "COALESCE(SUM(f.rating = 1), 0), COALESCE(SUM(f.rating = 2), 0), COALESCE(SUM(f.rating = 3), 0), "
+			+ "COALESCE(SUM(f.rating = 4), 0), COALESCE(SUM(f.rating = 5), 0) "
+			+ "FROM hotel_feedback f WHERE f.hotel_id = :hotelId", nativeQuery = true)
+	int seedFromFeedback(@Param("hotelId") Long hotelId);
+
+	@Modifying
+	@Query("UPDATE HotelRatingStats s SET "
+			+ "s.ratingSum = s.ratingSum + :rating * :delta, "
+			+ "s.ratingCount = s.ratingCount + :delta, "
+			+ "s.oneStarCount = s.oneStarCount + (CASE WHEN :rating = 1 THEN :delta ELSE 0 END), "
+			+ "s.twoStarCount = s.twoStarCount + (CASE WHEN :rating = 2 THEN :delta ELSE 0 END), "
+			+ "s.threeStarCount = s.threeStarCount + (CASE WHEN :rating = 3 THEN :delta ELSE 0 END), "
+			+ "s.fourStarCount = s.fourStarCount + (CASE WHEN :rating = 4 THEN :delta ELSE 0 END), "
+			+ "s.fiveStarCount = s.fiveStarCount + (CASE WHEN :rating = 5 THEN :delta ELSE 0 END) "
+			+ "WHERE s.hotelId = :hotelId")
+	int applyRating(@Param("hotelId") Long hotelId, @Param("rating") long rating, @Param("delta") long delta);
+
+	@Query("SELECT new com.stayease.models.HotelRatingStats(f.hotel.id, SUM(f.rating), COUNT(f), "
+			+ "SUM(CASE WHEN f.rating = 1 THEN 1L ELSE 0L END), "
+			+ "SUM(CASE WHEN f.rating = 2 THEN 1L ELSE 0L END), "
+			+ "SUM(CASE WHEN f.rating = 3 THEN 1L ELSE 0L END), "
+			+ "SUM(CASE WHEN f.rating = 4 THEN 1L ELSE 0L END), "
+			+ "SUM(CASE WHEN f.rating = 5 THEN 1L ELSE 0L END)) "
+			+ "FROM HotelFeedback f GROUP BY f.hotel.id")
+	List<HotelRatingStats> aggregateAllFromFeedback();
+}
@@ -1,12 +1,30 @@
 package com.stayease.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.stayease.dto.HotelView;
 import com.stayease.models.Hotel;
 
 @Repository
 public interface HotelRepository extends JpaRepository<Hotel, Long>, JpaSpecificationExecutor<Hotel>{
 
+	String HOTEL_VIEW = "select new com.stayease.dto.HotelView(h.id, h.hotelName, h.email, h.contactNumber, h.status, "
+			+ "h.description, h.hotelImage, h.hotelImageCard, h.hotelImageThumbnail, h.starRating, "
+			+ "a.id, a.streetAddress, a.city, a.state, a.pincode, "
+			+ "m.id, m.firstname, m.lastname, m.email, m.contactNumber) "
+			+ "from Hotel h left join h.address a left join h.manager m ";
+
+	@Query(HOTEL_VIEW + "where h.id = :hotelId")
+	Optional<HotelView> findViewById(@Param("hotelId") long hotelId);
+
+	@Query(HOTEL_VIEW + "where h.id in :hotelIds")
+	List<HotelView> findViewsByIds(@Param("hotelIds") Collection<Long> hotelIds);
 }
@@ -0,0 +1,33 @@
+package com.stayease.repositories;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.stayease.models.NotificationOutbox;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+	@Modifying
+	@Query(value = "INSERT IGNORE INTO notification_outbox "
+			+ "(dedupe_key, type, payload, status, attempts, next_attempt_at, created_at) "
+			+ "VALUES (:dedupeKey, :type, :payload, 'PENDING', 0, :now, :now)", nativeQuery = true)
+	int enqueue(@Param("dedupeKey") String dedupeKey, @Param("type") String type,
+			@Param("payload") String payload, @Param("now") Instant now);
+
+	// Stale IN_PROGRESS rows are picked up again once their claim has timed out.
+	@Query(value = "SELECT * FROM notification_outbox "
+			+ "WHERE status IN ('PENDING', 'IN_PROGRESS') AND next_attempt_at <= :now "
+			+ "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+	List<NotificationOutbox> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+	@Modifying
+	@Query(value = "DELETE FROM notification_outbox WHERE status = 'SENT' AND sent_at < :before LIMIT :limit", nativeQuery = true)
+	int purgeSent(@Param("before") Instant before, @Param("limit") int limit);
+}
@@ -1,9 +1,21 @@
 package com.stayease.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.stayease.dto.RoomImageView;
 import com.stayease.models.RoomImage;
 
 public interface RoomImageRepository extends JpaRepository<RoomImage, Long> {
 
+	@Query("SELECT ri.imageUrl FROM RoomImage ri WHERE ri.room.hotel.id = :hotelId")
+	List<String> findImageUrlsByHotelId(@Param("hotelId") long hotelId);
+
+	@Query("SELECT new com.stayease.dto.RoomImageView(ri.room.id, ri.id, ri.imageUrl, ri.cardUrl, ri.thumbnailUrl) "
+			+ "FROM RoomImage ri WHERE ri.room.id IN :roomIds ORDER BY ri.id")
+	List<RoomImageView> findViewsByRoomIds(@Param("roomIds") Collection<Long> roomIds);
 }
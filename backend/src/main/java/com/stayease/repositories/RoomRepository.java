@@ -1,21 +1,63 @@
 package com.stayease.repositories;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.stayease.dto.RoomView;
 import com.stayease.models.Room;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room,Long>, JpaSpecificationExecutor<Room>{
+
+    String ROOM_VIEW = "select new com.stayease.dto.RoomView(r.id, r.hotel.id, r.roomNumber, r.roomType, r.price, r.status, "
+            + "r.capacity, r.bedType, r.viewType, r.description) from Room r ";
+
+    // BOOKED while any booking is still pending or active, AVAILABLE otherwise; rooms under maintenance are left alone.
+    String SYNCED_STATUS = "CASE WHEN EXISTS (SELECT 1 FROM booking b WHERE b.room_id = r.id "
+            + "AND b.booking_status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN', 'CHECKED_OUT')) THEN 'BOOKED' ELSE 'AVAILABLE' END";
+
+    String SYNC_STATUS = "UPDATE room r SET r.status = " + SYNCED_STATUS + ", r.updated_at = :now "
+            + "WHERE (r.status IS NULL OR r.status <> 'MAINTENANCE') AND NOT (r.status <=> " + SYNCED_STATUS + ") ";
+
     List<Room> findByHotelId(Long hotelId);
 
-    @Query("select distinct r from Room r left join fetch r.images where r.hotel.id = :hotelId")
-    List<Room> findByHotelIdWithImages(@Param("hotelId") Long hotelId);
     
     boolean existsByHotelIdAndRoomNumber(Long hotelId, String roomNumber);
+
+    @Query(ROOM_VIEW + "where r.id = :roomId")
+    Optional<RoomView> findViewById(@Param("roomId") long roomId);
+
+    @Query(ROOM_VIEW + "where r.id in :roomIds")
+    List<RoomView> findViewsByIds(@Param("roomIds") Collection<Long> roomIds);
+
+    @Query(ROOM_VIEW + "where r.hotel.id = :hotelId order by r.id")
+    List<RoomView> findViewsByHotelId(@Param("hotelId") long hotelId);
+
+    @Query("select r.id, a from Room r join r.amenities a where r.id in :roomIds")
+    List<Object[]> findAmenitiesByRoomIds(@Param("roomIds") Collection<Long> roomIds);
+
+    @Modifying
+    @Query(value = SYNC_STATUS + "AND r.hotel_id = :hotelId", nativeQuery = true)
+    int syncStatusesByHotelId(@Param("hotelId") long hotelId, @Param("now") Instant now);
+
+    @Modifying
+    @Query(value = SYNC_STATUS + "AND r.id IN (:roomIds)", nativeQuery = true)
+    int syncStatusesByIds(@Param("roomIds") Collection<Long> roomIds, @Param("now") Instant now);
+
+    @Modifying
+    @Query(value = SYNC_STATUS + "AND r.id IN (SELECT w.room_id FROM wish_list w WHERE w.user_id = :userId)", nativeQuery = true)
+    int syncStatusesByWishListUserId(@Param("userId") long userId, @Param("now") Instant now);
+
+    @Modifying
+    @Query(value = SYNC_STATUS + "AND r.id = :roomId", nativeQuery = true)
+    int syncStatusById(@Param("roomId") long roomId, @Param("now") Instant now);
 }
@@ -0,0 +1,47 @@
+package com.stayease.repositories;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.stayease.models.StoredImage;
+
+@Repository
+public interface StoredImageRepository extends JpaRepository<StoredImage, Long> {
+
+	Optional<StoredImage> findByContentHash(String contentHash);
+
+	// Rows start unreferenced; the owner's transaction takes the first reference through acquire.
+	@Modifying
+	@Query(value = "INSERT IGNORE INTO stored_image "
+			+ "(content_hash, thumbnail_url, card_url, full_url, ref_count, created_at, updated_at) "
+			+ "VALUES (:contentHash, :thumbnailUrl, :cardUrl, :fullUrl, 0, :now, :now)", nativeQuery = true)
+	int register(@Param("contentHash") String contentHash, @Param("thumbnailUrl") String thumbnailUrl,
+			@Param("cardUrl") String cardUrl, @Param("fullUrl") String fullUrl, @Param("now") Instant now);
+
+	@Modifying
+	@Query(value = "UPDATE stored_image SET ref_count = ref_count + 1, updated_at = :now "
+			+ "WHERE content_hash = :contentHash", nativeQuery = true)
+	int acquire(@Param("contentHash") String contentHash, @Param("now") Instant now);
+
+	@Modifying
+	@Query(value = "UPDATE stored_image SET ref_count = GREATEST(ref_count - :count, 0), updated_at = :now "
+			+ "WHERE full_url = :url OR card_url = :url", nativeQuery = true)
+	int release(@Param("url") String url, @Param("count") int count, @Param("now") Instant now);
+
+	// Variants are addressed by their own bytes in the local store, so uploads that differ only in metadata share blobs.
+	@Query(value = "SELECT COUNT(*) FROM stored_image "
+			+ "WHERE thumbnail_url = :url OR card_url = :url OR full_url = :url", nativeQuery = true)
+	long countReferences(@Param("url") String url);
+
+	// Locked rows cannot be re-acquired until the collector's delete commits, after which acquire misses.
+	@Query(value = "SELECT * FROM stored_image WHERE ref_count = 0 AND updated_at < :before "
+			+ "ORDER BY updated_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+	List<StoredImage> lockUnreferenced(@Param("before") Instant before, @Param("limit") int limit);
+}
@@ -1,16 +1,39 @@
 package com.stayease.repositories;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.stayease.dto.WishListView;
 import com.stayease.models.WishList;
 
 
 @Repository
 public interface WishListRepository extends JpaRepository<WishList, Long>{
 
-	List<WishList> findByUser_Id(Long userId);
-	
+	String WISHLIST_VIEW = "select new com.stayease.dto.WishListView(w.id, r.id, r.hotel.id, r.roomNumber, r.roomType, "
+			+ "r.price, r.status, r.capacity, r.bedType, r.viewType, r.description) from WishList w join w.room r ";
+
+	@Query(WISHLIST_VIEW + "where w.user.id = :userId order by w.id")
+	List<WishListView> findViewsByUserId(@Param("userId") long userId);
+
+	@Query(WISHLIST_VIEW + "where w.user.id = :userId and r.id = :roomId")
+	Optional<WishListView> findViewByUserIdAndRoomId(@Param("userId") long userId, @Param("roomId") long roomId);
+
+	@Query("select w.room.id from WishList w where w.user.id = :userId")
+	List<Long> findRoomIdsByUserId(@Param("userId") long userId);
+
+	@Query("select w.user.id from WishList w where w.id = :wishListId")
+	Optional<Long> findUserIdById(@Param("wishListId") long wishListId);
+
+	// Selecting from app_user and room makes an unknown user or room insert nothing; the unique key does the same for repeats.
+	@Modifying
+	@Query(value = "INSERT IGNORE INTO wish_list (user_id, room_id) "
+			+ "SELECT u.id, r.id FROM app_user u JOIN room r ON r.id = :roomId WHERE u.id = :userId", nativeQuery = true)
+	int insertIgnore(@Param("userId") long userId, @Param("roomId") long roomId);
 }
@@ -0,0 +1,279 @@
+package com.stayease.resilience;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.server.ResponseStatusException;
+
+// Bulkhead, timeout and circuit breaker for one external dependency.
+public class DependencyGuard {
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final String name;
+	private final int maxConcurrent;
+	private final long timeoutMillis;
+	private final int failureThreshold;
+	private final long openNanos;
+	private final ThreadPoolExecutor executor;
+	private final Semaphore callPermits;
+	private final Semaphore asyncPermits;
+
+	private State state = State.CLOSED;
+	private int consecutiveFailures;
+	private long openedAt;
+	private boolean probeInFlight;
+
+	private final AtomicLong successes = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+	private final AtomicLong timedOut = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong shortCircuited = new AtomicLong();
+	private final AtomicLong totalLatencyNanos = new AtomicLong();
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+	public DependencyGuard(String name, int maxConcurrent, int queueCapacity, long timeoutMillis,
+			int failureThreshold, long openMillis) {
+		this.name = name;
+		this.maxConcurrent = maxConcurrent;
+		this.timeoutMillis = timeoutMillis;
+		this.failureThreshold = failureThreshold;
+		this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+		this.asyncPermits = new Semaphore(maxConcurrent);
+		// Admission is bounded by the semaphore rather than the queue: a worker that has just completed a
+		// future is not yet polling again, so a bounded hand-off would reject the caller's next call.
+		this.callPermits = new Semaphore(maxConcurrent + Math.max(queueCapacity, 0));
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(
+				maxConcurrent,
+				maxConcurrent,
+				0L,
+				TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(),
+				runnable -> {
+					Thread thread = new Thread(runnable, name + "-call-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getTimeoutMillis() {
+		return timeoutMillis;
+	}
+
+	// Runs a blocking call on the dependency's own threads so the caller waits at most timeoutMillis.
+	public <T> T call(Callable<T> action) throws Exception {
+		if (!tryAcquirePermission()) {
+			throw unavailable("is temporarily unavailable");
+		}
+		if (!callPermits.tryAcquire()) {
+			rejected.incrementAndGet();
+			releasePermission();
+			throw unavailable("is busy");
+		}
+		long startedAt = System.nanoTime();
+		AtomicBoolean started = new AtomicBoolean();
+		AtomicBoolean permitReleased = new AtomicBoolean();
+		Runnable releaseCallPermit = () -> {
+			if (permitReleased.compareAndSet(false, true)) {
+				callPermits.release();
+			}
+		};
+		Future<T> future = executor.submit(() -> {
+			started.set(true);
+			try {
+				return action.call();
+			} finally {
+				releaseCallPermit.run();
+			}
+		});
+
+		try {
+			T result = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+			recordSuccess(System.nanoTime() - startedAt);
+			return result;
+		} catch (TimeoutException e) {
+			cancel(future, started, releaseCallPermit);
+			timedOut.incrementAndGet();
+			recordFailure(System.nanoTime() - startedAt);
+			throw unavailable("timed out");
+		} catch (InterruptedException e) {
+			cancel(future, started, releaseCallPermit);
+			releasePermission();
+			Thread.currentThread().interrupt();
+			throw unavailable("call was interrupted");
+		} catch (ExecutionException e) {
+			recordOutcome(e.getCause(), System.nanoTime() - startedAt);
+			if (e.getCause() instanceof Exception exception) {
+				throw exception;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	// A task cancelled while still queued never runs, so its permit is returned here instead.
+	private void cancel(Future<?> future, AtomicBoolean started, Runnable releaseCallPermit) {
+		future.cancel(true);
+		if (future.isCancelled() && !started.get()) {
+			releaseCallPermit.run();
+		}
+	}
+
+	public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> action) {
+		if (!tryAcquirePermission()) {
+			return CompletableFuture.failedFuture(unavailable("is temporarily unavailable"));
+		}
+		if (!asyncPermits.tryAcquire()) {
+			rejected.incrementAndGet();
+			releasePermission();
+			return CompletableFuture.failedFuture(unavailable("is busy"));
+		}
+		long startedAt = System.nanoTime();
+		CompletableFuture<T> future;
+		try {
+			future = action.get();
+		} catch (RuntimeException e) {
+			future = CompletableFuture.failedFuture(e);
+		}
+		return future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((result, error) -> {
+			asyncPermits.release();
+			if (error == null) {
+				recordSuccess(System.nanoTime() - startedAt);
+				return;
+			}
+			Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+			if (cause instanceof TimeoutException) {
+				timedOut.incrementAndGet();
+			}
+			recordOutcome(cause, System.nanoTime() - startedAt);
+		});
+	}
+
+	// Only I/O errors, timeouts and 5xx responses say the dependency is unhealthy; a rejected request
+	// (bad input, 4xx) still proves it answered, so it counts as a success for the breaker.
+	public static boolean isDependencyFailure(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof IOException || cause instanceof UncheckedIOException || cause instanceof TimeoutException) {
+				return true;
+			}
+			if (cause instanceof ErrorResponse response && response.getStatusCode().is5xxServerError()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// For callers that manage their own concurrency: every granted permission must end in recordSuccess or recordFailure.
+	public synchronized boolean tryAcquirePermission() {
+		if (state == State.OPEN) {
+			if (System.nanoTime() - openedAt < openNanos) {
+				shortCircuited.incrementAndGet();
+				return false;
+			}
+			state = State.HALF_OPEN;
+			probeInFlight = false;
+		}
+		if (state == State.HALF_OPEN) {
+			if (probeInFlight) {
+				shortCircuited.incrementAndGet();
+				return false;
+			}
+			probeInFlight = true;
+		}
+		return true;
+	}
+
+	public synchronized void recordSuccess(long latencyNanos) {
+		successes.incrementAndGet();
+		recordLatency(latencyNanos);
+		consecutiveFailures = 0;
+		probeInFlight = false;
+		state = State.CLOSED;
+	}
+
+	public synchronized void recordFailure(long latencyNanos) {
+		failures.incrementAndGet();
+		recordLatency(latencyNanos);
+		consecutiveFailures++;
+		probeInFlight = false;
+		if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+			state = State.OPEN;
+			openedAt = System.nanoTime();
+		}
+	}
+
+	public synchronized State getState() {
+		return state;
+	}
+
+	public Map<String, Object> getMetrics() {
+		long calls = successes.get() + failures.get();
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		synchronized (this) {
+			metrics.put("state", state);
+			metrics.put("consecutiveFailures", consecutiveFailures);
+		}
+		metrics.put("maxConcurrent", maxConcurrent);
+		metrics.put("inFlight", executor.getActiveCount() + maxConcurrent - asyncPermits.availablePermits());
+		metrics.put("queueDepth", executor.getQueue().size());
+		metrics.put("timeoutMillis", timeoutMillis);
+		metrics.put("successes", successes.get());
+		metrics.put("failures", failures.get());
+		metrics.put("timedOut", timedOut.get());
+		metrics.put("rejected", rejected.get());
+		metrics.put("shortCircuited", shortCircuited.get());
+		metrics.put("avgLatencyMillis", calls == 0 ? 0.0 : totalLatencyNanos.get() / 1_000_000.0 / calls);
+		metrics.put("maxLatencyMillis", maxLatencyNanos.get() / 1_000_000.0);
+		return metrics;
+	}
+
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private synchronized void releasePermission() {
+		probeInFlight = false;
+	}
+
+	private void recordOutcome(Throwable error, long latencyNanos) {
+		if (isDependencyFailure(error)) {
+			recordFailure(latencyNanos);
+		} else {
+			recordSuccess(latencyNanos);
+		}
+	}
+
+	private void recordLatency(long latencyNanos) {
+		totalLatencyNanos.addAndGet(latencyNanos);
+		maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+	}
+
+	private ResponseStatusException unavailable(String reason) {
+		return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, name + " " + reason + ", please try again shortly");
+	}
+}
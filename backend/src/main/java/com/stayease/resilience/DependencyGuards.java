@@ -0,0 +1,50 @@
+package com.stayease.resilience;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DependencyGuards implements DisposableBean {
+
+	public static final String CLOUDINARY = "cloudinary";
+	public static final String SMTP = "smtp";
+	public static final String WHATSAPP = "whatsapp";
+
+	private final Map<String, DependencyGuard> guards = new LinkedHashMap<>();
+
+	public DependencyGuards(Environment environment) {
+		for (String name : new String[] { CLOUDINARY, SMTP, WHATSAPP }) {
+			String prefix = "app.dependencies." + name + ".";
+			guards.put(name, new DependencyGuard(
+					name,
+					environment.getProperty(prefix + "max-concurrent", Integer.class, 4),
+					environment.getProperty(prefix + "queue-capacity", Integer.class, 0),
+					environment.getProperty(prefix + "timeout-ms", Long.class, 15000L),
+					environment.getProperty(prefix + "failure-threshold", Integer.class, 5),
+					environment.getProperty(prefix + "open-ms", Long.class, 30000L)));
+		}
+	}
+
+	public DependencyGuard get(String name) {
+		DependencyGuard guard = guards.get(name);
+		if (guard == null) {
+			throw new IllegalArgumentException("Unknown dependency: " + name);
+		}
+		return guard;
+	}
+
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		guards.forEach((name, guard) -> metrics.put(name, guard.getMetrics()));
+		return metrics;
+	}
+
+	@Override
+	public void destroy() {
+		guards.values().forEach(DependencyGuard::shutdown);
+	}
+}
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.stayease.MyResponseWrapper;
+import com.stayease.enums.PrincipalType;
 import com.stayease.models.Admin;
 import com.stayease.dto.ChangePasswordRequest;
 import com.stayease.repositories.AdminRepository;
@@ -21,8 +22,9 @@ import lombok.RequiredArgsConstructor;
 public class AdminService {
 
 	private final AdminRepository adminRepository;
-	private final MyResponseWrapper responseWrapper;
 	private final PasswordEncoder passwordEncoder;
+	private final MyUserDetailsService myUserDetailsService;
+	private final CredentialService credentialService;
 
 
 	public ResponseEntity<?> getAdminById(long adminId) {
@@ -39,6 +41,13 @@ public class AdminService {
 		Optional<Admin> existingAdmin = adminRepository.findById(adminId);
 		if(existingAdmin.isPresent()) {
 			Admin updatedAdmin = existingAdmin.get();
+			if (admin.getEmail() != null && !admin.getEmail().equalsIgnoreCase(updatedAdmin.getEmail())) {
+				if (credentialService.isEmailTaken(admin.getEmail(), PrincipalType.ADMIN, adminId)) {
+					return universalResponse("Email already in use.", null, HttpStatus.CONFLICT);
+				}
+				credentialService.updateEmail(PrincipalType.ADMIN, adminId, admin.getEmail());
+			}
+			myUserDetailsService.evictPrincipal(updatedAdmin.getEmail());
 			updatedAdmin.setFirstname(admin.getFirstname());
 			updatedAdmin.setLastname(admin.getLastname());
 			updatedAdmin.setContactNumber(admin.getContactNumber());
@@ -62,6 +71,7 @@ public class AdminService {
 			String encodedPassword = passwordEncoder.encode(request.getNewPassword());
 			admin.setPassword(encodedPassword);
 			adminRepository.save(admin);
+			myUserDetailsService.evictPrincipal(admin.getEmail());
 			return universalResponse("Password changed successfully", null, HttpStatus.OK);
 		} else {
 			return universalResponse("Admin not found with id: " + adminId, null, HttpStatus.NOT_FOUND);
@@ -70,9 +80,7 @@ public class AdminService {
 	
 
 	private ResponseEntity<?> universalResponse(String message, Object data, HttpStatus httpStatus) {
-		responseWrapper.setMessage(message);
-		responseWrapper.setData(data);
-		return new ResponseEntity<>(responseWrapper, httpStatus);
+		return new ResponseEntity<>(MyResponseWrapper.of(message, data), httpStatus);
 	}
 
 }
@@ -13,8 +13,9 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.stayease.MyResponseWrapper;
 import com.stayease.models.AppUser;
+import com.stayease.dto.ImageVariants;
 import com.stayease.dto.ProfileResponse;
-import com.stayease.models.User;
+import com.stayease.enums.PrincipalType;
 import com.stayease.repositories.AppUserRepository;
 import com.stayease.repositories.UserRepository;
 import com.stayease.specifications.UserSpecification;
@@ -26,34 +27,18 @@ import lombok.RequiredArgsConstructor;
 public class AppUserService {
 
 	private final AppUserRepository appUserRepository;
-	private final MyResponseWrapper responseWrapper;
 	private final UserRepository userRepository;
-	private final CloudinaryService cloudinaryService;
+	private final ImageUploadService imageUploadService;
+	private final MyUserDetailsService myUserDetailsService;
+	private final CredentialService credentialService;
 //	private final PasswordEncoder passwordEncoder;
 
 	public ResponseEntity<?> getUserById(long userId) {
-		Optional<AppUser> existingUser = appUserRepository.findById(userId);
-		if (existingUser.isEmpty()) {
+		Optional<ProfileResponse> profile = appUserRepository.findProfileById(userId);
+		if (profile.isEmpty()) {
 			return universalResponse("User not found with id:" + userId, null, HttpStatus.NOT_FOUND);
 		}
-
-		AppUser appUser = existingUser.get();
-		User authUser = appUser.getUser();
-		ProfileResponse response = new ProfileResponse();
-		response.setId(appUser.getId());
-		response.setFirstname(appUser.getFirstname());
-		response.setLastname(appUser.getLastname());
-		response.setContactNumber(appUser.getContactNumber());
-		response.setProfilePicture(appUser.getProfilePicture());
-
-		if (authUser != null) {
-			response.setEmail(authUser.getEmail());
-			response.setIsGoogleUser(authUser.getIsGoogleUser());
-			response.setAuthProviderType(
-					authUser.getAuthProviderType() != null ? authUser.getAuthProviderType().name() : null);
-		}
-
-		return universalResponse("User found", response, HttpStatus.OK);
+		return universalResponse("User found", profile.get(), HttpStatus.OK);
 	}
 
 	public ResponseEntity<?> updateUser(AppUser user, MultipartFile profilePicture, long userId) throws IOException {
@@ -69,28 +54,32 @@ public class AppUserService {
 		if (user.getUser() != null && user.getUser().getEmail() != null && existingUser.getUser() != null) {
 			String updatedEmail = user.getUser().getEmail().trim();
 			if (!updatedEmail.equalsIgnoreCase(existingUser.getUser().getEmail())) {
-				boolean emailTaken = userRepository.findByEmail(updatedEmail)
-						.filter(foundUser -> !foundUser.getId().equals(existingUser.getUser().getId()))
-						.isPresent();
+				boolean emailTaken = credentialService.isEmailTaken(updatedEmail, PrincipalType.USER, existingUser.getUser().getId());
 				if (emailTaken) {
 					return universalResponse("Email already in use.", null, HttpStatus.CONFLICT);
 				}
+				myUserDetailsService.evictPrincipal(existingUser.getUser().getEmail());
 				existingUser.getUser().setEmail(updatedEmail);
 				userRepository.save(existingUser.getUser());
+				credentialService.updateEmail(PrincipalType.USER, existingUser.getUser().getId(), updatedEmail);
 			}
 		}
 		if (profilePicture != null && !profilePicture.isEmpty()) {
-			String imageUrl = cloudinaryService.uploadImage(profilePicture, "stayease/profile_pictures");
-			if (imageUrl != null && !imageUrl.isEmpty()) {
-				existingUser.setProfilePicture(imageUrl);
+			ImageVariants picture = imageUploadService.uploadVariants(profilePicture, "stayease/profile_pictures");
+			if (picture != null) {
+				releaseProfilePicture(existingUser);
+				existingUser.setProfilePicture(picture.cardUrl());
+				existingUser.setProfilePictureThumbnail(picture.thumbnailUrl());
 			}
 		}
 		if (user.getProfilePicture() != null && user.getProfilePicture().isEmpty()) {
+			releaseProfilePicture(existingUser);
 			existingUser.setProfilePicture(null);
+			existingUser.setProfilePictureThumbnail(null);
 		}
 
 		AppUser savedUser = appUserRepository.save(existingUser);
-		return universalResponse("User updated successfully!", savedUser, HttpStatus.OK);
+		return universalResponse("User updated successfully!", appUserRepository.findProfileById(savedUser.getId()).orElse(null), HttpStatus.OK);
 	}
 
 
@@ -98,6 +87,11 @@ public class AppUserService {
 		Optional<AppUser> existingUser = appUserRepository.findById(userId);
 		if (existingUser.isPresent()) {
 			AppUser user = existingUser.get();
+			if (user.getUser() != null) {
+				myUserDetailsService.evictPrincipal(user.getUser().getEmail());
+				credentialService.remove(PrincipalType.USER, user.getUser().getId());
+			}
+			releaseProfilePicture(user);
 			appUserRepository.delete(user);
 			return universalResponse("User deleted successfully!", null, HttpStatus.OK);
 		} else {
@@ -152,10 +146,14 @@ public class AppUserService {
 //		}
 //	}
 
+	private void releaseProfilePicture(AppUser user) {
+		if (user.getProfilePicture() != null && !user.getProfilePicture().isEmpty()) {
+			imageUploadService.release(List.of(user.getProfilePicture()));
+		}
+	}
+
 	private ResponseEntity<?> universalResponse(String message, Object data, HttpStatus httpStatus) {
-		responseWrapper.setMessage(message);
-		responseWrapper.setData(data);
-		return new ResponseEntity<>(responseWrapper, httpStatus);
+		return new ResponseEntity<>(MyResponseWrapper.of(message, data), httpStatus);
 	}
 
 }
@@ -1,28 +1,34 @@
 package com.stayease.services;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
+import java.security.SecureRandom;
+import java.time.Duration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.stayease.MyResponseWrapper;
 import com.stayease.jwt.JWTTokenGenerator;
 import com.stayease.models.Admin;
 import com.stayease.models.AppUser;
+import com.stayease.models.Credential;
 import com.stayease.enums.AuthProviderType;
 import com.stayease.dto.GoogleOAuthRequest;
 import com.stayease.models.HotelManager;
 import com.stayease.dto.ResetPasswordRequest;
+import com.stayease.enums.PrincipalType;
 import com.stayease.enums.Role;
 import com.stayease.models.User;
+import com.stayease.otp.VerificationCodeStore;
+import com.stayease.otp.VerificationResult;
 import com.stayease.repositories.AdminRepository;
 import com.stayease.repositories.AppUserRepository;
 import com.stayease.repositories.HotelManagerRepository;
@@ -37,23 +43,28 @@ public class AuthService {
 	private final AdminRepository adminRepository;
 	private final AppUserRepository appUserRepository;
 	private final UserRepository userRepository;
-	private final MyResponseWrapper responseWrapper;
 	private final PasswordEncoder passwordEncoder;
 	private final HotelManagerRepository hotelManagerRepository;
 	private final EmailService emailService;
 	private final JWTTokenGenerator jwtTokenGenerator;
 	private final MyUserDetailsService myUserDetailsService;
+	private final CredentialService credentialService;
 	
-	private final Map<String, String> otpStorage = new ConcurrentHashMap<>();
+	private final VerificationCodeStore verificationCodeStore;
 
+	private final SecureRandom otpRandom = new SecureRandom();
+
+	@Value("${app.otp.ttl-seconds:600}")
+	private long otpTtlSeconds;
+
+	@Transactional
 	public ResponseEntity<?> registerUser(com.stayease.dto.SignupRequest signupRequest) {
 		String email = signupRequest.getEmail();
 		if (email == null || email.isEmpty()) {
 			return universalResponse("Email is required", null, HttpStatus.BAD_REQUEST);
 		}
 		
-		Optional<User> existingUser = userRepository.findByEmail(email);
-		if (existingUser.isPresent()) {
+		if (credentialService.isEmailTaken(email)) {
 			return universalResponse("Email already registered", null, HttpStatus.CONFLICT);
 		}
 		
@@ -72,8 +83,9 @@ public class AuthService {
 		user.setAppUser(savedAppUser);
 		
 		User savedUser = userRepository.save(user);
+		credentialService.register(email, PrincipalType.USER, savedUser.getId());
 		
-		org.springframework.security.core.userdetails.UserDetails userDetails = myUserDetailsService.loadUserByUsername(email);
+		UserDetails userDetails = myUserDetailsService.buildUserDetails(savedUser);
 		String token = jwtTokenGenerator.generateToken(userDetails, savedAppUser.getRole().name(), savedUser.getId());
 		
 		Map<String, Object> responseData = new HashMap<>();
@@ -83,18 +95,32 @@ public class AuthService {
 		return universalResponse("User registered successfully", responseData, HttpStatus.OK);
 	}
 
+	@Transactional
 	public ResponseEntity<?> registerAdmin(Admin admin) {
+		if (credentialService.isEmailTaken(admin.getEmail())) {
+			return universalResponse("Email already registered", null, HttpStatus.CONFLICT);
+		}
 		String encodedPassword = passwordEncoder.encode(admin.getPassword());
 		admin.setPassword(encodedPassword);
 		admin.setRole(Role.ADMIN);
 		Admin savedUser = adminRepository.save(admin);
+		credentialService.register(savedUser.getEmail(), PrincipalType.ADMIN, savedUser.getId());
 		return universalResponse("Admin registered successfully", savedUser, HttpStatus.OK);
 	}
 
 	public ResponseEntity<?> login(String email, String password) {
-		Optional<User> existingUser = userRepository.findByEmail(email);
-		
-		if (existingUser.isPresent()) {
+		Optional<Credential> credential = credentialService.resolve(email);
+		if (credential.isEmpty()) {
+			return universalResponse("Email does not exist!", null, HttpStatus.NOT_FOUND);
+		}
+		Long principalId = credential.get().getPrincipalId();
+
+		switch (credential.get().getPrincipalType()) {
+		case USER: {
+			Optional<User> existingUser = userRepository.findById(principalId);
+			if (existingUser.isEmpty()) {
+				return universalResponse("Email does not exist!", null, HttpStatus.NOT_FOUND);
+			}
 			User user = existingUser.get();
 			
 			if (user.getIsGoogleUser() != null && user.getIsGoogleUser()) {
@@ -110,7 +136,7 @@ public class AuthService {
 				return universalResponse("User account not properly configured", null, HttpStatus.INTERNAL_SERVER_ERROR);
 			}
 			
-			org.springframework.security.core.userdetails.UserDetails userDetails = myUserDetailsService.loadUserByUsername(email);
+			UserDetails userDetails = myUserDetailsService.buildUserDetails(user);
 			String token = jwtTokenGenerator.generateToken(userDetails, appUser.getRole().name(), user.getId());
 			
 			Map<String, Object> responseData = new HashMap<>();
@@ -119,17 +145,14 @@ public class AuthService {
 			
 			return universalResponse("Login successful!", responseData, HttpStatus.OK);
 		}
-		
-		Optional<Admin> existingAdmin = adminRepository.findAdminByEmail(email);
-		if (existingAdmin.isPresent()) {
+		case ADMIN: {
+			Optional<Admin> existingAdmin = adminRepository.findById(principalId);
+			if (existingAdmin.isEmpty()) {
+				return universalResponse("Email does not exist!", null, HttpStatus.NOT_FOUND);
+			}
 			Admin admin = existingAdmin.get();
 			if (passwordEncoder.matches(password, admin.getPassword())) {
-				org.springframework.security.core.userdetails.UserDetails adminDetails = 
-					new org.springframework.security.core.userdetails.User(
-						email, 
-						admin.getPassword(), 
-						List.of(new org.springframework.security.core.authority.SimpleGrantedAuthority(admin.getRole().name()))
-					);
+				UserDetails adminDetails = myUserDetailsService.buildAdminDetails(admin);
 				String token = jwtTokenGenerator.generateToken(adminDetails, admin.getRole().name());
 				Map<String, Object> responseData = new HashMap<>();
 				responseData.put("user", admin);
@@ -139,17 +162,14 @@ public class AuthService {
 				return universalResponse("Invalid password!", null, HttpStatus.UNAUTHORIZED);
 			}
 		}
-		
-		Optional<HotelManager> existingManager = hotelManagerRepository.findManagerByEmail(email);
-		if (existingManager.isPresent()) {
+		case HOTEL_MANAGER: {
+			Optional<HotelManager> existingManager = hotelManagerRepository.findById(principalId);
+			if (existingManager.isEmpty()) {
+				return universalResponse("Email does not exist!", null, HttpStatus.NOT_FOUND);
+			}
 			HotelManager manager = existingManager.get();
 			if (passwordEncoder.matches(password, manager.getPassword())) {
-				org.springframework.security.core.userdetails.UserDetails managerDetails = 
-					new org.springframework.security.core.userdetails.User(
-						email, 
-						manager.getPassword(), 
-						List.of(new org.springframework.security.core.authority.SimpleGrantedAuthority(manager.getRole().name()))
-					);
+				UserDetails managerDetails = myUserDetailsService.buildManagerDetails(manager);
 				String token = jwtTokenGenerator.generateToken(managerDetails, manager.getRole().name());
 				Map<String, Object> responseData = new HashMap<>();
 				responseData.put("user", manager);
@@ -159,10 +179,12 @@ public class AuthService {
 				return universalResponse("Invalid password!", null, HttpStatus.UNAUTHORIZED);
 			}
 		}
-
-		return universalResponse("Email does not exist!", null, HttpStatus.NOT_FOUND);
+		default:
+			return universalResponse("Email does not exist!", null, HttpStatus.NOT_FOUND);
+		}
 	}
 	
+	@Transactional
 	public ResponseEntity<?> handleGoogleOAuth(OAuth2User oauth2User) {
 		String email = oauth2User.getAttribute("email");
 		String name = oauth2User.getAttribute("name");
@@ -182,7 +204,7 @@ public class AuthService {
 				return universalResponse("User account not properly configured", null, HttpStatus.INTERNAL_SERVER_ERROR);
 			}
 			
-			org.springframework.security.core.userdetails.UserDetails userDetails = myUserDetailsService.loadUserByUsername(email);
+			UserDetails userDetails = myUserDetailsService.buildUserDetails(user);
 			String token = jwtTokenGenerator.generateToken(userDetails, appUser.getRole().name(), user.getId());
 			
 			Map<String, Object> responseData = new HashMap<>();
@@ -192,8 +214,7 @@ public class AuthService {
 			return universalResponse("Login successful!", responseData, HttpStatus.OK);
 		}
 		
-		Optional<User> existingUserByEmail = userRepository.findByEmail(email);
-		if (existingUserByEmail.isPresent()) {
+		if (credentialService.isEmailTaken(email)) {
 			return universalResponse("Email already registered with local account. Please use email/password login.", null, HttpStatus.CONFLICT);
 		}
 		
@@ -215,8 +236,9 @@ public class AuthService {
 		user.setIsGoogleUser(true);
 		user.setAppUser(savedAppUser);
 		User savedUser = userRepository.save(user);
+		credentialService.register(email, PrincipalType.USER, savedUser.getId());
 		
-		org.springframework.security.core.userdetails.UserDetails userDetails = myUserDetailsService.loadUserByUsername(email);
+		UserDetails userDetails = myUserDetailsService.buildUserDetails(savedUser);
 		String token = jwtTokenGenerator.generateToken(userDetails, savedAppUser.getRole().name(), savedUser.getId());
 		
 		Map<String, Object> responseData = new HashMap<>();
@@ -226,6 +248,7 @@ public class AuthService {
 		return universalResponse("User registered and logged in successfully!", responseData, HttpStatus.OK);
 	}
 
+	@Transactional
 	public ResponseEntity<?> handleGoogleOAuthFromFrontend(GoogleOAuthRequest request) {
 		String email = request.getEmail();
 		String name = request.getName();
@@ -249,7 +272,7 @@ public class AuthService {
 				return universalResponse("User account not properly configured", null, HttpStatus.INTERNAL_SERVER_ERROR);
 			}
 			
-			org.springframework.security.core.userdetails.UserDetails userDetails = myUserDetailsService.loadUserByUsername(email);
+			UserDetails userDetails = myUserDetailsService.buildUserDetails(user);
 			String token = jwtTokenGenerator.generateToken(userDetails, appUser.getRole().name(), user.getId());
 			
 			Map<String, Object> responseData = new HashMap<>();
@@ -259,8 +282,7 @@ public class AuthService {
 			return universalResponse("Login successful!", responseData, HttpStatus.OK);
 		}
 		
-		Optional<User> existingUserByEmail = userRepository.findByEmail(email);
-		if (existingUserByEmail.isPresent()) {
+		if (credentialService.isEmailTaken(email)) {
 			return universalResponse("Email already registered with local account. Please use email/password login.", null, HttpStatus.CONFLICT);
 		}
 		
@@ -285,8 +307,9 @@ public class AuthService {
 		user.setIsGoogleUser(true);
 		user.setAppUser(savedAppUser);
 		User savedUser = userRepository.save(user);
+		credentialService.register(email, PrincipalType.USER, savedUser.getId());
 		
-		org.springframework.security.core.userdetails.UserDetails userDetails = myUserDetailsService.loadUserByUsername(email);
+		UserDetails userDetails = myUserDetailsService.buildUserDetails(savedUser);
 		String token = jwtTokenGenerator.generateToken(userDetails, savedAppUser.getRole().name(), savedUser.getId());
 		
 		Map<String, Object> responseData = new HashMap<>();
@@ -297,37 +320,20 @@ public class AuthService {
 	}
 
 	public ResponseEntity<?> sendForgotPasswordOTP(String email) {
-		Optional<Admin> existingAdmin = adminRepository.findAdminByEmail(email);
-		if (existingAdmin.isPresent()) {
-			String otp = generateOTP();
-			otpStorage.put(email, otp);
-			emailService.sendOTPEmail(email, otp);
-			return universalResponse("OTP sent to your email", null, HttpStatus.OK);
+		if (credentialService.resolve(email).isEmpty()) {
+			return universalResponse("Email not found", null, HttpStatus.NOT_FOUND);
 		}
 
-		Optional<User> existingUser = userRepository.findByEmail(email);
-		if (existingUser.isPresent()) {
-			String otp = generateOTP();
-			otpStorage.put(email, otp);
-			emailService.sendOTPEmail(email, otp);
-			return universalResponse("OTP sent to your email", null, HttpStatus.OK);
-		}
-		
-		Optional<HotelManager> existingManager = hotelManagerRepository.findManagerByEmail(email);
-		if (existingManager.isPresent()) {
-			String otp = generateOTP();
-			otpStorage.put(email, otp);
-			emailService.sendOTPEmail(email, otp);
-			return universalResponse("OTP sent to your email", null, HttpStatus.OK);
-		}
-
-		return universalResponse("Email not found", null, HttpStatus.NOT_FOUND);
+		String otp = generateOTP();
+		verificationCodeStore.save(email, otp, Duration.ofSeconds(otpTtlSeconds));
+		emailService.sendOTPEmail(email, otp);
+		return universalResponse("OTP sent to your email", null, HttpStatus.OK);
 	}
 	
 	public ResponseEntity<?> verifyOTP(String email, String otp) {
-		String storedOTP = otpStorage.get(email);
-		if (storedOTP == null || !storedOTP.equals(otp)) {
-			return universalResponse("Invalid OTP", null, HttpStatus.BAD_REQUEST);
+		VerificationResult result = verificationCodeStore.verify(email, otp, false);
+		if (result != VerificationResult.VALID) {
+			return otpFailure(result);
 		}
 		return universalResponse("OTP verified successfully", null, HttpStatus.OK);
 	}
@@ -337,54 +343,77 @@ public class AuthService {
 		String otp = request.getOtp();
 		String newPassword = request.getNewPassword();
 		
-		String storedOTP = otpStorage.get(email);
-		if (storedOTP == null || !storedOTP.equals(otp)) {
-			return universalResponse("Invalid OTP", null, HttpStatus.BAD_REQUEST);
+		VerificationResult result = verificationCodeStore.verify(email, otp, true);
+		if (result != VerificationResult.VALID) {
+			return otpFailure(result);
 		}
 		
-		Optional<Admin> existingAdmin = adminRepository.findAdminByEmail(email);
-		if (existingAdmin.isPresent()) {
-			Admin admin = existingAdmin.get();
-			String encodedPassword = passwordEncoder.encode(newPassword);
-			admin.setPassword(encodedPassword);
-			adminRepository.save(admin);
-			otpStorage.remove(email);
-			return universalResponse("Password reset successfully", null, HttpStatus.OK);
+		Optional<Credential> credential = credentialService.resolve(email);
+		if (credential.isEmpty()) {
+			return universalResponse("User not found", null, HttpStatus.NOT_FOUND);
 		}
+		Long principalId = credential.get().getPrincipalId();
 
-		Optional<User> existingUser = userRepository.findByEmail(email);
-		if (existingUser.isPresent()) {
-			User user = existingUser.get();
-			String encodedPassword = passwordEncoder.encode(newPassword);
-			user.setPassword(encodedPassword);
-			userRepository.save(user);
-			otpStorage.remove(email);
-			return universalResponse("Password reset successfully", null, HttpStatus.OK);
+		switch (credential.get().getPrincipalType()) {
+		case ADMIN: {
+			Optional<Admin> existingAdmin = adminRepository.findById(principalId);
+			if (existingAdmin.isPresent()) {
+				Admin admin = existingAdmin.get();
+				String encodedPassword = passwordEncoder.encode(newPassword);
+				admin.setPassword(encodedPassword);
+				adminRepository.save(admin);
+				myUserDetailsService.evictPrincipal(email);
+				return universalResponse("Password reset successfully", null, HttpStatus.OK);
+			}
+			break;
+		}
+		case USER: {
+			Optional<User> existingUser = userRepository.findById(principalId);
+			if (existingUser.isPresent()) {
+				User user = existingUser.get();
+				String encodedPassword = passwordEncoder.encode(newPassword);
+				user.setPassword(encodedPassword);
+				userRepository.save(user);
+				myUserDetailsService.evictPrincipal(email);
+				return universalResponse("Password reset successfully", null, HttpStatus.OK);
+			}
+			break;
+		}
+		case HOTEL_MANAGER: {
+			Optional<HotelManager> existingManager = hotelManagerRepository.findById(principalId);
+			if (existingManager.isPresent()) {
+				HotelManager manager = existingManager.get();
+				String encodedPassword = passwordEncoder.encode(newPassword);
+				manager.setPassword(encodedPassword);
+				hotelManagerRepository.save(manager);
+				myUserDetailsService.evictPrincipal(email);
+				return universalResponse("Password reset successfully", null, HttpStatus.OK);
+			}
+			break;
 		}
-		
-		Optional<HotelManager> existingManager = hotelManagerRepository.findManagerByEmail(email);
-		if (existingManager.isPresent()) {
-			HotelManager manager = existingManager.get();
-			String encodedPassword = passwordEncoder.encode(newPassword);
-			manager.setPassword(encodedPassword);
-			hotelManagerRepository.save(manager);
-			otpStorage.remove(email);
-			return universalResponse("Password reset successfully", null, HttpStatus.OK);
 		}
 
 		return universalResponse("User not found", null, HttpStatus.NOT_FOUND);
 	}
 	
+	private ResponseEntity<?> otpFailure(VerificationResult result) {
+		switch (result) {
+		case EXPIRED:
+			return universalResponse("OTP has expired. Please request a new one", null, HttpStatus.BAD_REQUEST);
+		case TOO_MANY_ATTEMPTS:
+			return universalResponse("Too many invalid attempts. Please request a new OTP", null, HttpStatus.TOO_MANY_REQUESTS);
+		default:
+			return universalResponse("Invalid OTP", null, HttpStatus.BAD_REQUEST);
+		}
+	}
+
 	private String generateOTP() {
-		Random random = new Random();
-		int otp = 1000 + random.nextInt(9000);
+		int otp = 1000 + otpRandom.nextInt(9000);
 		return String.valueOf(otp);
 	}
 
 	private ResponseEntity<?> universalResponse(String message, Object data, HttpStatus httpStatus) {
-		responseWrapper.setMessage(message);
-		responseWrapper.setData(data);
-		return new ResponseEntity<>(responseWrapper, httpStatus);
+		return new ResponseEntity<>(MyResponseWrapper.of(message, data), httpStatus);
 	}
 
 }
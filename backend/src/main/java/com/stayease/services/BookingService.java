@@ -16,6 +16,7 @@ import com.stayease.MyResponseWrapper;
 import com.stayease.models.AppUser;
 import com.stayease.models.Booking;
 import com.stayease.enums.BookingStatus;
+import com.stayease.enums.NotificationType;
 import com.stayease.dto.BookingStatusUpdateDto;
 import com.stayease.models.Hotel;
 import com.stayease.enums.PaymentStatus;
@@ -37,10 +38,10 @@ public class BookingService {
 	private final HotelRepository hotelRepository;
 	private final RoomRepository roomRepository;
 	private final BookingRepository bookingRepository;
-	private final MyResponseWrapper responseWrapper;
 	private final AppUserRepository appUserRepository;
 	private final WhatsAppService whatsAppService;
 	private final EmailService emailService;
+	private final NotificationOutboxService notificationOutboxService;
 	
 	@Value("${app.booking.cancellation.allowed-hours-before-checkin:1}")
 	private int cancellationHoursBeforeCheckin;
@@ -220,6 +221,7 @@ public class BookingService {
 		return universalResponse("Bookings found", bookings, HttpStatus.OK);
 	}
 
+	@Transactional
 	public ResponseEntity<?> updateBookingStatus(long bookingId, BookingStatusUpdateDto bookingStatusUpdateDto) {
 		Optional<Booking> existingBooking = bookingRepository.findById(bookingId);
 		if (existingBooking.isPresent()) {
@@ -246,56 +248,59 @@ public class BookingService {
 			}
 			
 			if (newStatus == BookingStatus.CONFIRMED && oldStatus == BookingStatus.PENDING) {
-				try {
-					AppUser user = booking.getAppUser();
-					Hotel hotel = booking.getHotel();
-					
-					if (user != null && user.getUser() != null) {
-						org.hibernate.Hibernate.initialize(user.getUser());
-					}
-					
-					if (hotel != null && hotel.getId() != null) {
-						Optional<Hotel> hotelWithAddress = hotelRepository.findById(hotel.getId());
-						if (hotelWithAddress.isPresent()) {
-							hotel = hotelWithAddress.get();
-							if (hotel.getAddress() != null) {
-								hotel.getAddress().getStreetAddress();
-							}
+				AppUser user = booking.getAppUser();
+				Hotel hotel = booking.getHotel();
+				
+				if (user != null && user.getUser() != null) {
+					org.hibernate.Hibernate.initialize(user.getUser());
+				}
+				
+				if (hotel != null && hotel.getId() != null) {
+					Optional<Hotel> hotelWithAddress = hotelRepository.findById(hotel.getId());
+					if (hotelWithAddress.isPresent()) {
+						hotel = hotelWithAddress.get();
+						if (hotel.getAddress() != null) {
+							hotel.getAddress().getStreetAddress();
 						}
 					}
-					
-					if (room != null && room.getId() != null) {
-						Optional<Room> roomOptional = roomRepository.findById(room.getId());
-						if (roomOptional.isPresent()) {
-							room = roomOptional.get();
-						}
+				}
+				
+				if (room != null && room.getId() != null) {
+					Optional<Room> roomOptional = roomRepository.findById(room.getId());
+					if (roomOptional.isPresent()) {
+						room = roomOptional.get();
+					}
+				}
+				
+				if (user != null && hotel != null && room != null) {
+					String phone = whatsAppService.bookingConfirmationPhone(user);
+					if (!phone.isEmpty()) {
+						Map<String, Object> whatsAppPayload = new HashMap<>();
+						whatsAppPayload.put("phone", phone);
+						whatsAppPayload.put("message", whatsAppService.bookingConfirmationMessage(booking, user, hotel, room));
+						notificationOutboxService.enqueue(NotificationType.BOOKING_CONFIRMATION_WHATSAPP,
+								"booking:" + booking.getId() + ":confirmed:whatsapp", whatsAppPayload);
 					}
 					
-					if (user != null && hotel != null && room != null) {
-						whatsAppService.sendBookingConfirmation(booking, user, hotel, room);
+					if (user.getUser() != null && user.getUser().getEmail() != null && !user.getUser().getEmail().isEmpty()) {
+						String guestName = user.getFirstname() + " " + user.getLastname();
+						String checkInDate = booking.getCheckInDate().format(java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+						String checkOutDate = booking.getCheckOutDate().format(java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy"));
 						
-						if (user.getUser() != null && user.getUser().getEmail() != null && !user.getUser().getEmail().isEmpty()) {
-							String guestName = user.getFirstname() + " " + user.getLastname();
-							String checkInDate = booking.getCheckInDate().format(java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy"));
-							String checkOutDate = booking.getCheckOutDate().format(java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy"));
-							
-							emailService.sendBookingConfirmationEmail(
-								user.getUser().getEmail(),
-								guestName,
-								hotel.getHotelName(),
-								room.getRoomNumber(),
-								room.getRoomType(),
-								checkInDate,
-								checkOutDate,
-								booking.getTransactionId(),
-								booking.getTotalAmount(),
-								booking.getTotalGuests()
-							);
-						}
+						Map<String, Object> emailPayload = new HashMap<>();
+						emailPayload.put("toEmail", user.getUser().getEmail());
+						emailPayload.put("guestName", guestName);
+						emailPayload.put("hotelName", hotel.getHotelName());
+						emailPayload.put("roomNumber", room.getRoomNumber());
+						emailPayload.put("roomType", room.getRoomType());
+						emailPayload.put("checkInDate", checkInDate);
+						emailPayload.put("checkOutDate", checkOutDate);
+						emailPayload.put("transactionId", booking.getTransactionId());
+						emailPayload.put("totalAmount", booking.getTotalAmount());
+						emailPayload.put("totalGuests", booking.getTotalGuests());
+						notificationOutboxService.enqueue(NotificationType.BOOKING_CONFIRMATION_EMAIL,
+								"booking:" + booking.getId() + ":confirmed:email", emailPayload);
 					}
-				} catch (Exception e) {
-					System.err.println("Failed to send confirmation message: " + e.getMessage());
-					e.printStackTrace();
 				}
 			}
 			
@@ -411,31 +416,28 @@ public class BookingService {
 			roomRepository.save(room);
 		}
 		
-		try {
-			AppUser user = booking.getAppUser();
-			Hotel hotel = booking.getHotel();
+		AppUser user = booking.getAppUser();
+		Hotel hotel = booking.getHotel();
+		
+		if (user != null && user.getUser() != null && user.getUser().getEmail() != null && 
+		    !user.getUser().getEmail().isEmpty() && hotel != null) {
+			org.hibernate.Hibernate.initialize(user.getUser());
 			
-			if (user != null && user.getUser() != null && user.getUser().getEmail() != null && 
-			    !user.getUser().getEmail().isEmpty() && hotel != null) {
-				org.hibernate.Hibernate.initialize(user.getUser());
-				
-				String guestName = user.getFirstname() + " " + user.getLastname();
-				String checkInDateStr = booking.getCheckInDate().format(java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy"));
-				String checkOutDateStr = booking.getCheckOutDate() != null ? 
-					booking.getCheckOutDate().format(java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy")) : "";
-				
-				emailService.sendBookingCancellationEmail(
-					user.getUser().getEmail(),
-					guestName,
-					hotel.getHotelName(),
-					booking.getTransactionId(),
-					checkInDateStr,
-					checkOutDateStr,
-					booking.getTotalAmount()
-				);
-			}
-		} catch (Exception e) {
-			System.err.println("Failed to send cancellation email: " + e.getMessage());
+			String guestName = user.getFirstname() + " " + user.getLastname();
+			String checkInDateStr = booking.getCheckInDate().format(java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+			String checkOutDateStr = booking.getCheckOutDate() != null ? 
+				booking.getCheckOutDate().format(java.time.format.DateTimeFormatter.ofPattern("dd-MM-yyyy")) : "";
+			
+			Map<String, Object> emailPayload = new HashMap<>();
+			emailPayload.put("toEmail", user.getUser().getEmail());
+			emailPayload.put("guestName", guestName);
+			emailPayload.put("hotelName", hotel.getHotelName());
+			emailPayload.put("transactionId", booking.getTransactionId());
+			emailPayload.put("checkInDate", checkInDateStr);
+			emailPayload.put("checkOutDate", checkOutDateStr);
+			emailPayload.put("totalAmount", booking.getTotalAmount());
+			notificationOutboxService.enqueue(NotificationType.BOOKING_CANCELLATION_EMAIL,
+					"booking:" + booking.getId() + ":cancelled:email", emailPayload);
 		}
 		
 		return universalResponse("Booking cancelled successfully", savedBooking, HttpStatus.OK);
@@ -507,8 +509,6 @@ public class BookingService {
 	}
 
 	private ResponseEntity<?> universalResponse(String message, Object data, HttpStatus httpStatus) {
-		responseWrapper.setMessage(message);
-		responseWrapper.setData(data);
-		return new ResponseEntity<>(responseWrapper, httpStatus);
+		return new ResponseEntity<>(MyResponseWrapper.of(message, data), httpStatus);
 	}
 }
@@ -2,10 +2,13 @@ package com.stayease.services;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import com.stayease.resilience.DependencyGuard;
+import com.stayease.resilience.DependencyGuards;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Map;
 
@@ -15,24 +18,39 @@ public class CloudinaryService {
     @Autowired(required = false)
     private Cloudinary cloudinary;
 
-    @SuppressWarnings("unchecked")
-    public String uploadImage(MultipartFile file, String folder) throws IOException {
-        if (file == null || file.isEmpty()) {
-            return null;
-        }
+    @Autowired
+    private DependencyGuards dependencyGuards;
+
+    // The SDK streams a File body from disk, so the upload is never held in the heap.
+    public String uploadFile(File file, String folder) throws IOException {
+        return upload(file, folder);
+    }
+
+    public String uploadBytes(byte[] bytes, String folder) throws IOException {
+        return upload(bytes, folder);
+    }
 
+    @SuppressWarnings("unchecked")
+    private String upload(Object source, String folder) throws IOException {
         if (cloudinary == null) {
             throw new IllegalStateException("Cloudinary is not configured.");
         }
 
         try {
+            DependencyGuard guard = dependencyGuards.get(DependencyGuards.CLOUDINARY);
+            int timeoutMillis = (int) guard.getTimeoutMillis();
             Map<String, Object> uploadParams = ObjectUtils.asMap(
                     "folder", folder,
-                    "resource_type", "image"
+                    "resource_type", "image",
+                    "return_error", true,
+                    "timeout", timeoutMillis,
+                    "connect_timeout", Math.min(timeoutMillis, 5000)
             );
 
-            Map<String, Object> uploadResult = (Map<String, Object>) cloudinary.uploader().upload(file.getBytes(), uploadParams);
+            Map<String, Object> uploadResult = guard.call(() -> requireSuccess(cloudinary.uploader().upload(source, uploadParams)));
             return (String) uploadResult.get("secure_url");
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             throw new IOException("Failed to upload image to Cloudinary: " + e.getMessage(), e);
         }
@@ -49,8 +67,32 @@ public class CloudinaryService {
 
         String publicId = extractPublicIdFromUrl(imageUrl);
         if (publicId != null) {
-            cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
+            try {
+                dependencyGuards.get(DependencyGuards.CLOUDINARY).call(() -> {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> result = cloudinary.uploader().destroy(publicId, ObjectUtils.asMap("return_error", true));
+                    return requireSuccess(result);
+                });
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Failed to delete image from Cloudinary: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    // With return_error the SDK hands API errors back instead of throwing, so a 5xx can be told apart:
+    // it surfaces as an IOException and trips the breaker, while a rejected request does not.
+    private static Map<String, Object> requireSuccess(Map<String, Object> result) throws IOException {
+        if (result == null || !(result.get("error") instanceof Map<?, ?> error)) {
+            return result;
+        }
+        Object httpCode = error.get("http_code");
+        String message = "Cloudinary returned " + httpCode + ": " + error.get("message");
+        if (httpCode instanceof Number code && code.intValue() >= 500) {
+            throw new IOException(message);
         }
+        throw new IllegalStateException(message);
     }
 
     private String extractPublicIdFromUrl(String url) {
@@ -18,7 +18,6 @@ import lombok.RequiredArgsConstructor;
 public class ContactService {
 
 	private final ContactRepository contactRepository;
-	private final MyResponseWrapper responseWrapper;
 	private final EmailService emailService;
 
 	public ResponseEntity<?> sendMessage(Contact contact) {
@@ -52,8 +51,6 @@ public class ContactService {
 	}
 
 	private ResponseEntity<?> universalResponse(String message, Object data, HttpStatus httpStatus) {
-		responseWrapper.setMessage(message);
-		responseWrapper.setData(data);
-		return new ResponseEntity<>(responseWrapper, httpStatus);
+		return new ResponseEntity<>(MyResponseWrapper.of(message, data), httpStatus);
 	}
 }
@@ -0,0 +1,82 @@
+package com.stayease.services;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.stayease.enums.PrincipalType;
+import com.stayease.models.Credential;
+import com.stayease.repositories.CredentialRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class CredentialService {
+
+	private final CredentialRepository credentialRepository;
+
+	public Optional<Credential> resolve(String email) {
+		if (email == null || email.isBlank()) {
+			return Optional.empty();
+		}
+		return credentialRepository.findByEmail(email.trim());
+	}
+
+	public boolean isEmailTaken(String email) {
+		return email != null && credentialRepository.existsByEmail(email.trim());
+	}
+
+	public boolean isEmailTaken(String email, PrincipalType principalType, Long principalId) {
+		return resolve(email)
+				.filter(credential -> !(credential.getPrincipalType() == principalType
+						&& credential.getPrincipalId().equals(principalId)))
+				.isPresent();
+	}
+
+	@Transactional
+	public void register(String email, PrincipalType principalType, Long principalId) {
+		if (isEmailTaken(email)) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already registered");
+		}
+		credentialRepository.save(new Credential(null, email.trim(), principalType, principalId));
+	}
+
+	@Transactional
+	public void updateEmail(PrincipalType principalType, Long principalId, String email) {
+		if (isEmailTaken(email, principalType, principalId)) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already in use.");
+		}
+		Credential credential = credentialRepository.findByPrincipalTypeAndPrincipalId(principalType, principalId)
+				.orElseGet(() -> new Credential(null, null, principalType, principalId));
+		credential.setEmail(email.trim());
+		credentialRepository.save(credential);
+	}
+
+	@Transactional
+	public void remove(PrincipalType principalType, Long principalId) {
+		credentialRepository.findByPrincipalTypeAndPrincipalId(principalType, principalId)
+				.ifPresent(credentialRepository::delete);
+	}
+
+	// Indexes principals created before the credential table existed in one statement. An email shared by two
+	// principals can only log in as one of them, so startup fails until the duplicate is resolved.
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional
+	public void backfillCredentials() {
+		int added = credentialRepository.backfillMissing();
+		if (added > 0) {
+			System.out.println("Credential index backfilled with " + added + " entries");
+		}
+		List<String> unindexed = credentialRepository.findUnindexedEmails();
+		if (!unindexed.isEmpty()) {
+			throw new IllegalStateException("Emails shared by more than one account cannot be indexed: " + unindexed);
+		}
+	}
+}
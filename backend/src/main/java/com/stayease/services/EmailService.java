@@ -1,5 +1,9 @@
 package com.stayease.services;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import jakarta.mail.AuthenticationFailedException;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -9,11 +13,19 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import com.stayease.mail.EmailTemplate;
+import com.stayease.mail.EmailTemplates;
+
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final PooledMailTransport pooledMailTransport;
+    private final EmailTemplates emailTemplates;
+
+    @Value("${app.otp.ttl-seconds:600}")
+    private long otpTtlSeconds;
 
     @Value("${app.support.email}")
     private String fromEmail;
@@ -21,6 +33,10 @@ public class EmailService {
     @Value("${app.name}")
     private String appName;
 
+    public void sendAll(List<MimeMessage> messages) {
+        pooledMailTransport.sendAll(messages);
+    }
+
     public void sendOTPEmail(String toEmail, String otp) {
         try {
             MimeMessage mimeMessage = mailSender.createMimeMessage();
@@ -30,28 +46,12 @@ public class EmailService {
             helper.setTo(toEmail);
             helper.setSubject("🔐 " + appName + " - Password Reset OTP");
 
-            String htmlContent = """
-                    <div style="font-family: 'Segoe UI', sans-serif; color: #333; background: #f9fafb; padding: 20px; border-radius: 10px;">
-                        <h2 style="color: #1d4ed8; text-align: center;">%s</h2>
-                        <p style="font-size: 15px;">Hi there 👋,</p>
-                        <p style="font-size: 15px;">
-                            Use the following <b style="color: #1d4ed8;">OTP</b> to reset your password:
-                        </p>
-                        <div style="background: #1d4ed8; color: #fff; font-size: 24px; letter-spacing: 4px; padding: 10px 0; border-radius: 8px; text-align: center; margin: 15px 0;">
-                            <b>%s</b>
-                        </div>
-                        <p style="font-size: 14px; color: #555;">
-                            ⚠️ This OTP is valid for <b>10 minutes</b> only.<br>
-                            If you didn’t request this, please ignore this message.
-                        </p>
-                        <p style="font-size: 14px; margin-top: 20px; color: #1e40af; text-align: center;">
-                            — The %s Support Team 🏨
-                        </p>
-                    </div>
-                    """.formatted(appName, otp, appName);
+            String htmlContent = emailTemplates.render(EmailTemplates.OTP, Map.of(
+                    "otp", otp,
+                    "validMinutes", otpTtlSeconds / 60));
 
             helper.setText(htmlContent, true);
-            mailSender.send(mimeMessage);
+            pooledMailTransport.send(mimeMessage);
 
             System.out.println("✅ OTP email sent successfully to " + toEmail);
 
@@ -74,27 +74,8 @@ public class EmailService {
         }
         
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject(subject != null ? subject : "Message from " + appName);
-
-            String htmlContent = """
-                    <div style="font-family: 'Segoe UI', sans-serif; color: #333; background: #f9fafb; padding: 20px; border-radius: 10px;">
-                        <h2 style="color: #1d4ed8; text-align: center;">%s</h2>
-                        <div style="background: white; padding: 20px; border-radius: 8px; margin: 15px 0;">
-                            <p style="font-size: 15px; white-space: pre-line;">%s</p>
-                        </div>
-                        <p style="font-size: 14px; margin-top: 20px; color: #1e40af; text-align: center;">
-                            — The %s Team 🏨
-                        </p>
-                    </div>
-                    """.formatted(subject, body.replace("\n", "<br>"), appName);
-
-            helper.setText(htmlContent, true);
-            mailSender.send(mimeMessage);
+            MimeMessage mimeMessage = buildGuestMessage(toEmail, subject, body);
+            pooledMailTransport.send(mimeMessage);
 
 
         } catch (AuthenticationFailedException e) {
@@ -121,6 +102,25 @@ public class EmailService {
         }
     }
 
+    public MimeMessage buildGuestMessage(String toEmail, String subject, String body) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+
+        helper.setFrom(fromEmail);
+        helper.setTo(toEmail);
+        helper.setSubject(subject != null ? subject : "Message from " + appName);
+
+        Map<String, Object> model = new HashMap<>();
+        model.put("subject", subject != null ? subject : "Message from " + appName);
+        model.put("bodyHtml", body == null ? "" : EmailTemplate.escapeHtml(body).replace("\n", "<br>"));
+        helper.setText(emailTemplates.render(EmailTemplates.GUEST_MESSAGE, model), true);
+        return mimeMessage;
+    }
+
+    public List<MessagingException> trySendBulk(List<MimeMessage> messages) {
+        return pooledMailTransport.trySendBulk(messages);
+    }
+
     public void sendThankYouEmail(String toEmail, String firstName) {
         try {
             MimeMessage mimeMessage = mailSender.createMimeMessage();
@@ -130,22 +130,12 @@ public class EmailService {
             helper.setTo(toEmail);
             helper.setSubject("Thank You for Contacting StayEase");
 
-            String htmlContent = """
-                    <div style="font-family: 'Segoe UI', sans-serif; color: #333; background: #f9fafb; padding: 20px; border-radius: 10px;">
-                        <h2 style="color: #1d4ed8; text-align: center;">Thank You for Contacting StayEase</h2>
-                        <div style="background: white; padding: 20px; border-radius: 8px; margin: 15px 0;">
-                            <p style="font-size: 15px;">Dear %s,</p>
-                            <p style="font-size: 15px;">Thank you for reaching out to StayEase! Our team has received your message and will get back to you soon.</p>
-                            <p style="font-size: 15px;">We appreciate your interest and look forward to assisting you.</p>
-                        </div>
-                        <p style="font-size: 14px; margin-top: 20px; color: #1e40af; text-align: center;">
-                            — The %s Support Team 🏨
-                        </p>
-                    </div>
-                    """.formatted(firstName, appName);
+            Map<String, Object> model = new HashMap<>();
+            model.put("firstName", firstName);
+            String htmlContent = emailTemplates.render(EmailTemplates.THANK_YOU, model);
 
             helper.setText(htmlContent, true);
-            mailSender.send(mimeMessage);
+            pooledMailTransport.send(mimeMessage);
 
         } catch (MessagingException e) {
             System.err.println("Error sending thank you email: " + e.getMessage());
@@ -163,38 +153,24 @@ public class EmailService {
             helper.setTo(toEmail);
             helper.setSubject("✅ Booking Confirmed - " + appName);
 
-            String htmlContent = """
-                    <div style="font-family: 'Segoe UI', sans-serif; color: #333; background: #f9fafb; padding: 20px; border-radius: 10px;">
-                        <h2 style="color: #1d4ed8; text-align: center;">✅ Booking Confirmed</h2>
-                        <div style="background: white; padding: 20px; border-radius: 8px; margin: 15px 0;">
-                            <p style="font-size: 15px;">Dear %s,</p>
-                            <p style="font-size: 15px; margin-top: 15px;"><strong>Your booking has been confirmed!</strong></p>
-                            
-                            <div style="background: #f0f9ff; padding: 15px; border-radius: 8px; margin: 15px 0;">
-                                <p style="margin: 8px 0;"><strong>Hotel:</strong> %s</p>
-                                <p style="margin: 8px 0;"><strong>Room:</strong> %s (%s)</p>
-                                <p style="margin: 8px 0;"><strong>Guests:</strong> %d</p>
-                                <p style="margin: 8px 0;"><strong>Check-in:</strong> %s (2:00 PM)</p>
-                                <p style="margin: 8px 0;"><strong>Check-out:</strong> %s (11:00 AM)</p>
-                                <p style="margin: 8px 0;"><strong>Amount:</strong> ₹%.2f</p>
-                            </div>
-                            
-                            <p style="font-size: 14px; color: #555; margin-top: 15px;">
-                                Please bring a valid ID proof during check-in.
-                            </p>
-                        </div>
-                        <p style="font-size: 14px; margin-top: 20px; color: #1e40af; text-align: center;">
-                            — The %s Team 🏨
-                        </p>
-                    </div>
-                    """.formatted(guestName, hotelName, roomNumber, roomType, totalGuests, 
-                                 checkInDate, checkOutDate, totalAmount, transactionId, appName);
+            Map<String, Object> model = new HashMap<>();
+            model.put("guestName", guestName);
+            model.put("hotelName", hotelName);
+            model.put("roomNumber", roomNumber);
+            model.put("roomType", roomType);
+            model.put("totalGuests", totalGuests);
+            model.put("checkInDate", checkInDate);
+            model.put("checkOutDate", checkOutDate);
+            model.put("totalAmount", String.format("%.2f", totalAmount));
+            model.put("transactionId", transactionId != null ? transactionId : "-");
+            String htmlContent = emailTemplates.render(EmailTemplates.BOOKING_CONFIRMATION, model);
 
             helper.setText(htmlContent, true);
-            mailSender.send(mimeMessage);
+            pooledMailTransport.send(mimeMessage);
 
         } catch (MessagingException e) {
             System.err.println("Error sending booking confirmation email: " + e.getMessage());
+            throw new RuntimeException("Failed to send booking confirmation email", e);
         }
     }
 
@@ -209,35 +185,21 @@ public class EmailService {
             helper.setTo(toEmail);
             helper.setSubject("Booking Cancelled - " + appName);
 
-            String htmlContent = """
-                    <div style="font-family: 'Segoe UI', sans-serif; color: #333; background: #f9fafb; padding: 20px; border-radius: 10px;">
-                        <h2 style="color: #dc2626; text-align: center;">Booking Cancelled</h2>
-                        <div style="background: white; padding: 20px; border-radius: 8px; margin: 15px 0;">
-                            <p style="font-size: 15px;">Dear %s,</p>
-                            <p style="font-size: 15px; margin-top: 15px;">Your booking has been <strong>cancelled successfully</strong>.</p>
-                            
-                            <div style="background: #fef2f2; padding: 15px; border-radius: 8px; margin: 15px 0; border-left: 4px solid #dc2626;">
-                                <p style="margin: 8px 0;"><strong>Hotel:</strong> %s</p>
-                                <p style="margin: 8px 0;"><strong>Check-in:</strong> %s</p>
-                                <p style="margin: 8px 0;"><strong>Check-out:</strong> %s</p>
-                                <p style="margin: 8px 0;"><strong>Amount:</strong> ₹%.2f</p>
-                            </div>
-                            
-                            <p style="font-size: 14px; color: #555; margin-top: 15px;">
-                                Refund will be processed as per our cancellation policy.
-                            </p>
-                        </div>
-                        <p style="font-size: 14px; margin-top: 20px; color: #1e40af; text-align: center;">
-                            — The %s Team 🏨
-                        </p>
-                    </div>
-                    """.formatted(guestName, hotelName, checkInDate, checkOutDate, totalAmount, transactionId, appName);
+            Map<String, Object> model = new HashMap<>();
+            model.put("guestName", guestName);
+            model.put("hotelName", hotelName);
+            model.put("checkInDate", checkInDate);
+            model.put("checkOutDate", checkOutDate);
+            model.put("totalAmount", String.format("%.2f", totalAmount));
+            model.put("transactionId", transactionId != null ? transactionId : "-");
+            String htmlContent = emailTemplates.render(EmailTemplates.BOOKING_CANCELLATION, model);
 
             helper.setText(htmlContent, true);
-            mailSender.send(mimeMessage);
+            pooledMailTransport.send(mimeMessage);
 
         } catch (MessagingException e) {
             System.err.println("Error sending booking cancellation email: " + e.getMessage());
+            throw new RuntimeException("Failed to send booking cancellation email", e);
         }
     }
 }
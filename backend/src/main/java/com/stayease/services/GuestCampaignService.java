@@ -0,0 +1,223 @@
+package com.stayease.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import com.stayease.MyResponseWrapper;
+import com.stayease.dto.GuestCampaignRequest;
+import com.stayease.dto.GuestRecipient;
+import com.stayease.enums.BookingStatus;
+import com.stayease.enums.CampaignStatus;
+import com.stayease.models.AppUser;
+import com.stayease.models.Booking;
+import com.stayease.models.GuestCampaign;
+import com.stayease.models.User;
+import com.stayease.repositories.GuestCampaignRepository;
+import com.stayease.repositories.HotelRepository;
+import com.stayease.specifications.BookingSpecification;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class GuestCampaignService {
+
+	private final GuestCampaignRepository campaignRepository;
+	private final HotelRepository hotelRepository;
+	private final EmailService emailService;
+	private final EntityManager entityManager;
+
+	@Value("${app.campaigns.parallelism:2}")
+	private int parallelism;
+
+	@Value("${app.campaigns.batch-size:25}")
+	private int batchSize;
+
+	@Value("${app.campaigns.max-queued-batches:1000}")
+	private int maxQueuedBatches;
+
+	private ThreadPoolExecutor executor;
+
+	@PostConstruct
+	void init() {
+		AtomicInteger threadCount = new AtomicInteger();
+		executor = new ThreadPoolExecutor(
+				parallelism,
+				parallelism,
+				0L,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(maxQueuedBatches),
+				runnable -> {
+					Thread thread = new Thread(runnable, "guest-campaign-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void failInterruptedCampaigns() {
+		int interrupted = campaignRepository.failInterrupted(Instant.now());
+		if (interrupted > 0) {
+			System.out.println("Marked " + interrupted + " interrupted guest campaigns as failed");
+		}
+	}
+
+	public ResponseEntity<?> startCampaign(GuestCampaignRequest request) {
+		if (request.getHotelId() == null || !hotelRepository.existsById(request.getHotelId())) {
+			return universalResponse("Hotel not found", null, HttpStatus.NOT_FOUND);
+		}
+		if (request.getSubject() == null || request.getSubject().isBlank()
+				|| request.getBody() == null || request.getBody().isBlank()) {
+			return universalResponse("Subject and body are required", null, HttpStatus.BAD_REQUEST);
+		}
+		if (request.getBookingStatus() != null && !request.getBookingStatus().isEmpty()) {
+			try {
+				BookingStatus.valueOf(request.getBookingStatus().toUpperCase());
+			} catch (IllegalArgumentException e) {
+				return universalResponse("Invalid booking status: " + request.getBookingStatus(), null, HttpStatus.BAD_REQUEST);
+			}
+		}
+
+		List<GuestRecipient> recipients = findRecipients(request);
+		if (recipients.isEmpty()) {
+			return universalResponse("No guests match this filter.", null, HttpStatus.NOT_FOUND);
+		}
+		int batches = (recipients.size() + batchSize - 1) / batchSize;
+		if (batches > maxQueuedBatches) {
+			return universalResponse("This filter matches " + recipients.size() + " guests, but a campaign can reach at most "
+					+ maxQueuedBatches * batchSize + ". Please narrow the filter.", null, HttpStatus.BAD_REQUEST);
+		}
+		if (executor.getQueue().remainingCapacity() < batches) {
+			return universalResponse("Too many campaigns in progress, please try again later", null, HttpStatus.SERVICE_UNAVAILABLE);
+		}
+
+		GuestCampaign campaign = new GuestCampaign();
+		campaign.setHotelId(request.getHotelId());
+		campaign.setBookingStatus(request.getBookingStatus());
+		campaign.setCheckInFrom(request.getCheckInFrom());
+		campaign.setCheckInTo(request.getCheckInTo());
+		campaign.setSubject(request.getSubject());
+		campaign.setBody(request.getBody());
+		campaign.setStatus(CampaignStatus.QUEUED);
+		campaign.setTotalRecipients(recipients.size());
+		campaign.setCreatedAt(Instant.now());
+		GuestCampaign saved = campaignRepository.save(campaign);
+
+		AtomicInteger remainingBatches = new AtomicInteger(batches);
+		AtomicInteger failures = new AtomicInteger();
+		try {
+			for (int start = 0; start < recipients.size(); start += batchSize) {
+				List<GuestRecipient> batch = recipients.subList(start, Math.min(start + batchSize, recipients.size()));
+				executor.execute(() -> sendBatch(saved, batch, remainingBatches, failures));
+			}
+		} catch (RejectedExecutionException e) {
+			campaignRepository.recordProgress(saved.getId(), 0, 0, "Send queue is full");
+			campaignRepository.finish(saved.getId(), CampaignStatus.FAILED, Instant.now());
+			return universalResponse("Too many campaigns in progress, please try again later", null, HttpStatus.SERVICE_UNAVAILABLE);
+		}
+
+		return universalResponse("Campaign queued for " + recipients.size() + " guests", saved, HttpStatus.ACCEPTED);
+	}
+
+	public ResponseEntity<?> getCampaign(long campaignId) {
+		return campaignRepository.findById(campaignId)
+				.<ResponseEntity<?>>map(campaign -> universalResponse("Campaign found", campaign, HttpStatus.OK))
+				.orElseGet(() -> universalResponse("Campaign not found with id: " + campaignId, null, HttpStatus.NOT_FOUND));
+	}
+
+	public ResponseEntity<?> getHotelCampaigns(long hotelId) {
+		List<GuestCampaign> campaigns = campaignRepository.findByHotelIdOrderByIdDesc(hotelId);
+		return universalResponse("Campaigns found", campaigns, HttpStatus.OK);
+	}
+
+	List<GuestRecipient> findRecipients(GuestCampaignRequest request) {
+		Specification<Booking> specification = BookingSpecification.hasHotelId(request.getHotelId())
+				.and(BookingSpecification.hasBookingStatusString(request.getBookingStatus()))
+				.and(BookingSpecification.checkInDateBetween(request.getCheckInFrom(), request.getCheckInTo()));
+
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<GuestRecipient> query = cb.createQuery(GuestRecipient.class);
+		Root<Booking> root = query.from(Booking.class);
+		Join<Booking, AppUser> guest = root.join("appUser");
+		Join<AppUser, User> account = guest.join("user");
+		query.select(cb.construct(GuestRecipient.class, account.get("email"), guest.get("firstname"), guest.get("lastname")))
+				.distinct(true);
+		Predicate predicate = specification.toPredicate(root, query, cb);
+		if (predicate != null) {
+			query.where(predicate);
+		}
+		return entityManager.createQuery(query).getResultList().stream()
+				.filter(recipient -> recipient.email() != null && !recipient.email().isBlank())
+				.toList();
+	}
+
+	private void sendBatch(GuestCampaign campaign, List<GuestRecipient> batch,
+			AtomicInteger remainingBatches, AtomicInteger failures) {
+		int failed = 0;
+		String lastError = null;
+		campaignRepository.markSending(campaign.getId());
+		try {
+			List<MimeMessage> messages = new ArrayList<>(batch.size());
+			for (GuestRecipient recipient : batch) {
+				try {
+					messages.add(emailService.buildGuestMessage(recipient.email(), campaign.getSubject(), campaign.getBody()));
+				} catch (MessagingException e) {
+					failed++;
+					lastError = recipient.email() + ": " + e.getMessage();
+				}
+			}
+			List<MessagingException> sendFailures = emailService.trySendBulk(messages);
+			if (!sendFailures.isEmpty()) {
+				failed += sendFailures.size();
+				lastError = sendFailures.get(sendFailures.size() - 1).getMessage();
+			}
+		} catch (RuntimeException e) {
+			failed = batch.size();
+			lastError = e.getMessage();
+		}
+
+		failures.addAndGet(failed);
+		campaignRepository.recordProgress(campaign.getId(), batch.size() - failed, failed, truncate(lastError));
+		if (remainingBatches.decrementAndGet() == 0) {
+			CampaignStatus status = failures.get() == campaign.getTotalRecipients() ? CampaignStatus.FAILED : CampaignStatus.COMPLETED;
+			campaignRepository.finish(campaign.getId(), status, Instant.now());
+		}
+	}
+
+	private String truncate(String error) {
+		return error == null || error.length() <= 1000 ? error : error.substring(0, 1000);
+	}
+
+	private ResponseEntity<?> universalResponse(String message, Object data, HttpStatus httpStatus) {
+		return new ResponseEntity<>(MyResponseWrapper.of(message, data), httpStatus);
+	}
+}
@@ -1,20 +1,34 @@
 package com.stayease.services;
 
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.stayease.MyResponseWrapper;
+import com.stayease.cache.LruCache;
+import com.stayease.dto.HotelRatingSummary;
+import com.stayease.dto.HotelReviewPage;
+import com.stayease.dto.HotelReviewView;
 import com.stayease.models.AppUser;
 import com.stayease.models.Hotel;
 import com.stayease.models.HotelFeedback;
+import com.stayease.models.HotelRatingStats;
 import com.stayease.repositories.AppUserRepository;
 import com.stayease.repositories.HotelFeedbackRepository;
+import com.stayease.repositories.HotelRatingStatsRepository;
 import com.stayease.repositories.HotelRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -26,12 +40,19 @@ public class HotelFeedbackService {
     private final HotelFeedbackRepository feedbackRepository;
     private final HotelRepository hotelRepository;
     private final AppUserRepository appUserRepository;
+    private final HotelRatingStatsRepository ratingStatsRepository;
+
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_CACHED_HOTELS = 2000;
+
+    private final LruCache<Long, HotelRatingSummary> summaryCache = new LruCache<>(MAX_CACHED_HOTELS);
+    private final LruCache<String, HotelReviewPage> firstPageCache = new LruCache<>(MAX_CACHED_HOTELS * 2);
+    // Bumped on every eviction so a reader that loaded before a commit cannot leave its stale copy behind.
+    private final AtomicLong evictions = new AtomicLong();
 
     private ResponseEntity<?> universalResponse(String message, Object data, HttpStatus status) {
-        MyResponseWrapper response = new MyResponseWrapper();
-        response.setMessage(message);
-        response.setData(data);
-        return new ResponseEntity<>(response, status);
+        return new ResponseEntity<>(MyResponseWrapper.of(message, data), status);
     }
 
     @Transactional
@@ -50,6 +71,7 @@ public class HotelFeedbackService {
             return universalResponse("Hotel not found", null, HttpStatus.NOT_FOUND);
         }
 
+        ratingStatsRepository.seedFromFeedback(hotelId);
         HotelFeedback feedback = new HotelFeedback();
         feedback.setUser(user.get());
         feedback.setHotel(hotel.get());
@@ -57,23 +79,170 @@ public class HotelFeedbackService {
         feedback.setComment(comment);
         feedback.setDate(LocalDate.now());
         feedbackRepository.save(feedback);
-        updateHotelRating(hotelId);
+        applyRatingChange(hotel.get(), rating, 1);
+        evictReviewCaches(hotelId);
 
         return universalResponse("Feedback submitted successfully", feedback, HttpStatus.OK);
     }
 
+    // The stats row must already be seeded, before the feedback row itself was written or removed.
+    private void applyRatingChange(Hotel hotel, int rating, int delta) {
+        ratingStatsRepository.applyRating(hotel.getId(), rating, delta);
+        ratingStatsRepository.findById(hotel.getId())
+                .ifPresent(stats -> hotel.setStarRating(stats.getAverageRating()));
+    }
+
+    @Scheduled(cron = "${app.feedback.rating-recompute-cron:0 30 3 * * *}")
     @Transactional
-    private void updateHotelRating(Long hotelId) {
-        List<HotelFeedback> feedbacks = feedbackRepository.findByHotelId(hotelId);
-        if (feedbacks.isEmpty()) return;
+    public void recomputeAllHotelRatings() {
+        Map<Long, HotelRatingStats> aggregates = new HashMap<>();
+        for (HotelRatingStats stats : ratingStatsRepository.aggregateAllFromFeedback()) {
+            aggregates.put(stats.getHotelId(), stats);
+        }
+
+        Map<Long, HotelRatingStats> current = new HashMap<>();
+        for (HotelRatingStats stats : ratingStatsRepository.findAll()) {
+            current.put(stats.getHotelId(), stats);
+        }
+
+        int drifted = 0;
+        for (Hotel hotel : hotelRepository.findAll()) {
+            HotelRatingStats stats = aggregates.get(hotel.getId());
+            if (stats == null) {
+                stats = new HotelRatingStats();
+                stats.setHotelId(hotel.getId());
+            }
+            HotelRatingStats previous = current.get(hotel.getId());
+            if (!stats.equals(previous)) {
+                drifted++;
+            }
+            ratingStatsRepository.save(stats);
+            // A hotel that never had reviews keeps the rating it was created with.
+            if (stats.getAverageRating() != null || (previous != null && previous.getRatingCount() > 0)) {
+                hotel.setStarRating(stats.getAverageRating());
+            }
+        }
+        evictAllReviewCaches();
+        System.out.println("Hotel rating recompute finished, corrected " + drifted + " hotel(s)");
+    }
+
+    public ResponseEntity<?> getRatingSummary(Long hotelId) {
+        HotelRatingSummary summary = loadRatingSummary(hotelId, evictions.get());
+        if (summary == null) {
+            return universalResponse("Hotel not found", null, HttpStatus.NOT_FOUND);
+        }
+        return universalResponse("Rating summary fetched successfully", summary, HttpStatus.OK);
+    }
+
+    public ResponseEntity<?> getHotelReviews(Long hotelId, String sort, String cursor, Integer size) {
+        boolean topRated = "rating".equalsIgnoreCase(sort);
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        boolean firstPage = cursor == null || cursor.isEmpty();
+        String cacheKey = hotelId + (topRated ? ":rating" : ":newest");
+
+        if (firstPage && pageSize == DEFAULT_PAGE_SIZE) {
+            HotelReviewPage cached = firstPageCache.get(cacheKey);
+            if (cached != null) {
+                return universalResponse("Reviews fetched successfully", cached, HttpStatus.OK);
+            }
+        }
+
+        long generation = evictions.get();
+        HotelRatingSummary summary = loadRatingSummary(hotelId, generation);
+        if (summary == null) {
+            return universalResponse("Hotel not found", null, HttpStatus.NOT_FOUND);
+        }
+
+        List<HotelReviewView> rows;
+        Limit limit = Limit.of(pageSize + 1);
+        try {
+            if (topRated) {
+                if (firstPage) {
+                    rows = feedbackRepository.findTopRatedReviews(hotelId, limit);
+                } else {
+                    String[] parts = cursor.split(":", 2);
+                    rows = feedbackRepository.findTopRatedReviewsAfter(hotelId, Integer.valueOf(parts[0]),
+                            Long.valueOf(parts[1]), limit);
+                }
+            } else {
+                rows = firstPage ? feedbackRepository.findNewestReviews(hotelId, limit)
+                        : feedbackRepository.findNewestReviewsBefore(hotelId, Long.valueOf(cursor), limit);
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return universalResponse("Invalid cursor: " + cursor, null, HttpStatus.BAD_REQUEST);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            HotelReviewView last = rows.get(pageSize - 1);
+            nextCursor = topRated ? last.rating() + ":" + last.id() : String.valueOf(last.id());
+        }
+
+        HotelReviewPage page = new HotelReviewPage(List.copyOf(rows), nextCursor, summary);
+        if (firstPage && pageSize == DEFAULT_PAGE_SIZE) {
+            cacheIfCurrent(firstPageCache, cacheKey, page, generation);
+        }
+        return universalResponse("Reviews fetched successfully", page, HttpStatus.OK);
+    }
+
+    private HotelRatingSummary loadRatingSummary(Long hotelId, long generation) {
+        HotelRatingSummary cached = summaryCache.get(hotelId);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<HotelRatingStats> existing = ratingStatsRepository.findById(hotelId);
+        HotelRatingStats stats;
+        if (existing.isPresent()) {
+            stats = existing.get();
+        } else {
+            if (!hotelRepository.existsById(hotelId)) {
+                return null;
+            }
+            stats = new HotelRatingStats();
+            stats.setHotelId(hotelId);
+        }
+        HotelRatingSummary summary = new HotelRatingSummary(hotelId, stats.getAverageRating(),
+                stats.getRatingCount(), Collections.unmodifiableMap(stats.getHistogram()));
+        cacheIfCurrent(summaryCache, hotelId, summary, generation);
+        return summary;
+    }
+
+    private <K, V> void cacheIfCurrent(LruCache<K, V> cache, K key, V value, long generation) {
+        cache.put(key, value);
+        if (evictions.get() != generation) {
+            cache.remove(key, value);
+        }
+    }
 
-        double sum = feedbacks.stream().mapToInt(HotelFeedback::getRating).sum();
-        double average = sum / feedbacks.size();
+    public void evictReviewCaches(Long hotelId) {
+        afterCompletion(() -> {
+            evictions.incrementAndGet();
+            summaryCache.remove(hotelId);
+            firstPageCache.remove(hotelId + ":newest");
+            firstPageCache.remove(hotelId + ":rating");
+        });
+    }
 
-        Optional<Hotel> hotelOpt = hotelRepository.findById(hotelId);
-        if (hotelOpt.isPresent()) {
-            hotelOpt.get().setStarRating(average);
-            hotelRepository.save(hotelOpt.get());
+    private void evictAllReviewCaches() {
+        afterCompletion(() -> {
+            evictions.incrementAndGet();
+            summaryCache.clear();
+            firstPageCache.clear();
+        });
+    }
+
+    // Runs after completion so a reader cannot repopulate the caches from rows that are not yet committed.
+    private void afterCompletion(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
         }
     }
 
@@ -92,10 +261,10 @@ public class HotelFeedbackService {
         Optional<HotelFeedback> existingFeedback = feedbackRepository.findById(id);
         if (existingFeedback.isPresent()) {
             HotelFeedback feedback = existingFeedback.get();
-            Long hotelId = feedback.getHotel().getId();
+            ratingStatsRepository.seedFromFeedback(feedback.getHotel().getId());
             feedbackRepository.delete(feedback);
-            // Update hotel rating after deletion
-            updateHotelRating(hotelId);
+            applyRatingChange(feedback.getHotel(), feedback.getRating(), -1);
+            evictReviewCaches(feedback.getHotel().getId());
             return universalResponse("Feedback deleted successfully", null, HttpStatus.OK);
         } else {
             return universalResponse("There is no feedback with id: " + id, null, HttpStatus.NOT_FOUND);
@@ -1,7 +1,12 @@
 package com.stayease.services;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.http.HttpStatus;
@@ -10,16 +15,29 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stayease.MyResponseWrapper;
 import com.stayease.models.Address;
+import com.stayease.dto.BatchEntry;
 import com.stayease.dto.ChangePasswordRequest;
+import com.stayease.dto.HotelView;
+import com.stayease.dto.ImageVariants;
 import com.stayease.models.Hotel;
 import com.stayease.models.HotelManager;
+import com.stayease.enums.PrincipalType;
 import com.stayease.enums.Role;
 import com.stayease.repositories.HotelManagerRepository;
+import com.stayease.repositories.HotelRatingStatsRepository;
 import com.stayease.repositories.HotelRepository;
+import com.stayease.repositories.RoomImageRepository;
 import com.stayease.specifications.HotelSpecification;
+import com.stayease.specifications.SparseFieldset;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.jpa.domain.Specification;
@@ -28,28 +46,57 @@ import org.springframework.data.jpa.domain.Specification;
 @RequiredArgsConstructor
 public class HotelService {
 
+	private static final Map<String, List<String>> HOTEL_FIELDS = new LinkedHashMap<>();
+	static {
+		HOTEL_FIELDS.put("id", List.of("id"));
+		HOTEL_FIELDS.put("hotelName", List.of("hotelName"));
+		HOTEL_FIELDS.put("email", List.of("email"));
+		HOTEL_FIELDS.put("contactNumber", List.of("contactNumber"));
+		HOTEL_FIELDS.put("status", List.of("status"));
+		HOTEL_FIELDS.put("description", List.of("description"));
+		HOTEL_FIELDS.put("hotelImage", List.of("hotelImage"));
+		HOTEL_FIELDS.put("hotelImageCard", List.of("hotelImageCard"));
+		HOTEL_FIELDS.put("hotelImageThumbnail", List.of("hotelImageThumbnail"));
+		HOTEL_FIELDS.put("starRating", List.of("starRating"));
+		HOTEL_FIELDS.put("address", List.of("address.id", "address.streetAddress", "address.city", "address.state",
+				"address.pincode"));
+		HOTEL_FIELDS.put("manager", List.of("manager.id", "manager.firstname", "manager.lastname", "manager.email",
+				"manager.contactNumber"));
+	}
+
 	private final HotelRepository hotelRepository;
 	private final HotelManagerRepository hotelManagerRepository;
-	private final MyResponseWrapper responseWrapper;
 	private final PasswordEncoder passwordEncoder;
 	private final WhatsAppService whatsAppService;
-	private final CloudinaryService cloudinaryService;
+	private final ImageUploadService imageUploadService;
+	private final HotelRatingStatsRepository ratingStatsRepository;
+	private final MyUserDetailsService myUserDetailsService;
+	private final CredentialService credentialService;
+	private final RoomImageRepository roomImageRepository;
+	private final JsonPayloadReader jsonPayloadReader;
+	private final EntityManager entityManager;
+	private final HotelFeedbackService hotelFeedbackService;
 
 	@Transactional
 	public ResponseEntity<?> addHotel(String hotelObjectStringify, MultipartFile hotelImage) throws IOException {
-		ObjectMapper objectMapper = new ObjectMapper();
-		Hotel hotel = objectMapper.readValue(hotelObjectStringify, Hotel.class);
+		Hotel hotel = jsonPayloadReader.read(hotelObjectStringify, Hotel.class);
 		HotelManager hotelManager = hotel.getManager();
+		if (credentialService.isEmailTaken(hotelManager.getEmail())) {
+			return universalResponse("Manager email already registered", null, HttpStatus.CONFLICT);
+		}
 		String encodedPassword = passwordEncoder.encode(hotelManager.getPassword());
 		hotelManager.setPassword(encodedPassword);
 		hotelManager.setRole(Role.HOTEL_MANAGER);
 		HotelManager savedHotelManager = hotelManagerRepository.save(hotelManager);
+		credentialService.register(savedHotelManager.getEmail(), PrincipalType.HOTEL_MANAGER, savedHotelManager.getId());
 		hotel.setManager(savedHotelManager);
 
 		if (hotelImage != null && !hotelImage.isEmpty()) {
-			String imageUrl = cloudinaryService.uploadImage(hotelImage, "stayease/hotels");
-			if (imageUrl != null && !imageUrl.isEmpty()) {
-				hotel.setHotelImage(imageUrl);
+			ImageVariants image = imageUploadService.uploadVariants(hotelImage, "stayease/hotels");
+			if (image != null) {
+				hotel.setHotelImage(image.fullUrl());
+				hotel.setHotelImageCard(image.cardUrl());
+				hotel.setHotelImageThumbnail(image.thumbnailUrl());
 			}
 		}
 
@@ -71,15 +118,18 @@ public class HotelService {
 			return universalResponse("Hotel not found with id: " + hotelId, null, HttpStatus.NOT_FOUND);
 		}
 
-		ObjectMapper objectMapper = new ObjectMapper();
-		objectMapper.configure(com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		Hotel hotel = objectMapper.readValue(hotelObjectStringify, Hotel.class);
+		Hotel hotel = jsonPayloadReader.read(hotelObjectStringify, Hotel.class);
 		Hotel persisted = existingHotel.get();
 
 		if (hotelImage != null && !hotelImage.isEmpty()) {
-			String imageUrl = cloudinaryService.uploadImage(hotelImage, "stayease/hotels");
-			if (imageUrl != null && !imageUrl.isEmpty()) {
-				persisted.setHotelImage(imageUrl);
+			ImageVariants image = imageUploadService.uploadVariants(hotelImage, "stayease/hotels");
+			if (image != null) {
+				if (persisted.getHotelImage() != null) {
+					imageUploadService.release(List.of(persisted.getHotelImage()));
+				}
+				persisted.setHotelImage(image.fullUrl());
+				persisted.setHotelImageCard(image.cardUrl());
+				persisted.setHotelImageThumbnail(image.thumbnailUrl());
 			}
 		}
 
@@ -129,7 +179,7 @@ public class HotelService {
 	}
 
 	public ResponseEntity<?> getHotelById(long hotelId) {
-		Optional<Hotel> existingHotel = hotelRepository.findById(hotelId);
+		Optional<HotelView> existingHotel = hotelRepository.findViewById(hotelId);
 		if (existingHotel.isPresent()) {
 			return universalResponse("Hotel found", existingHotel.get(), HttpStatus.OK);
 		} else {
@@ -137,9 +187,30 @@ public class HotelService {
 		}
 	}
 
+	// One IN query for up to BatchEntry.MAX_IDS hotels, so list pages stop calling /hotels/{id} once per card.
+	public ResponseEntity<?> getHotelsByIds(List<Long> hotelIds) {
+		if (hotelIds == null || hotelIds.isEmpty() || hotelIds.size() > BatchEntry.MAX_IDS) {
+			return universalResponse("Provide between 1 and " + BatchEntry.MAX_IDS + " hotel ids", null, HttpStatus.BAD_REQUEST);
+		}
+		Map<Long, HotelView> hotels = new HashMap<>();
+		for (HotelView hotel : hotelRepository.findViewsByIds(new HashSet<>(hotelIds))) {
+			hotels.put(hotel.id(), hotel);
+		}
+		return universalResponse("Hotels found", BatchEntry.inOrder(hotelIds, hotels), HttpStatus.OK);
+	}
+
 	@Transactional
 	public ResponseEntity<?> getFilteredHotels(String search, String status, String location,
-			String sortBy, String sortDirection) {
+			String sortBy, String sortDirection, String fields) {
+		SparseFieldset fieldset = null;
+		if (fields != null && !fields.isBlank()) {
+			try {
+				fieldset = SparseFieldset.parse(fields, HOTEL_FIELDS);
+			} catch (IllegalArgumentException e) {
+				return universalResponse(e.getMessage(), null, HttpStatus.BAD_REQUEST);
+			}
+		}
+
 		Specification<Hotel> allFilters = null;
 		
 		if (search != null && !search.isEmpty()) {
@@ -160,10 +231,37 @@ public class HotelService {
 			}
 		}
 
-		List<Hotel> filteredHotels = allFilters == null ? hotelRepository.findAll() : hotelRepository.findAll(allFilters);
+		if (fieldset != null) {
+			return universalResponse("Following filtered hotels found", fieldset.fetch(entityManager, Hotel.class, allFilters),
+					HttpStatus.OK);
+		}
+		List<HotelView> filteredHotels = findHotelViews(allFilters);
 		return universalResponse("Following filtered hotels found", filteredHotels, HttpStatus.OK);
 	}
 
+	// Same columns as HotelRepository.findViewById, so listing never touches rooms, bookings or the manager's password.
+	private List<HotelView> findHotelViews(Specification<Hotel> specification) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<HotelView> query = cb.createQuery(HotelView.class);
+		Root<Hotel> root = query.from(Hotel.class);
+		Join<Hotel, Address> address = root.join("address", JoinType.LEFT);
+		Join<Hotel, HotelManager> manager = root.join("manager", JoinType.LEFT);
+		query.select(cb.construct(HotelView.class,
+				root.get("id"), root.get("hotelName"), root.get("email"), root.get("contactNumber"), root.get("status"),
+				root.get("description"), root.get("hotelImage"), root.get("hotelImageCard"), root.get("hotelImageThumbnail"),
+				root.get("starRating"),
+				address.get("id"), address.get("streetAddress"), address.get("city"), address.get("state"), address.get("pincode"),
+				manager.get("id"), manager.get("firstname"), manager.get("lastname"), manager.get("email"),
+				manager.get("contactNumber")));
+		if (specification != null) {
+			Predicate predicate = specification.toPredicate(root, query, cb);
+			if (predicate != null) {
+				query.where(predicate);
+			}
+		}
+		return entityManager.createQuery(query).getResultList();
+	}
+
 	public ResponseEntity<?> getMangaerById(long managerId) {
 		Optional<HotelManager> existingManager = hotelManagerRepository.findById(managerId);
 		if (existingManager.isPresent()) {
@@ -178,6 +276,13 @@ public class HotelService {
 		Optional<HotelManager> existingManager = hotelManagerRepository.findById(managerId);
 		if (existingManager.isPresent()) {
 			HotelManager updateManager = existingManager.get();
+			if (manager.getEmail() != null && !manager.getEmail().equalsIgnoreCase(updateManager.getEmail())) {
+				if (credentialService.isEmailTaken(manager.getEmail(), PrincipalType.HOTEL_MANAGER, managerId)) {
+					return universalResponse("Email already in use.", null, HttpStatus.CONFLICT);
+				}
+				credentialService.updateEmail(PrincipalType.HOTEL_MANAGER, managerId, manager.getEmail());
+			}
+			myUserDetailsService.evictPrincipal(updateManager.getEmail());
 			updateManager.setFirstname(manager.getFirstname());
 			updateManager.setLastname(manager.getLastname());
 			updateManager.setEmail(manager.getEmail());
@@ -200,6 +305,7 @@ public class HotelService {
 			String encodedPassword = passwordEncoder.encode(request.getNewPassword());
 			manager.setPassword(encodedPassword);
 			hotelManagerRepository.save(manager);
+			myUserDetailsService.evictPrincipal(manager.getEmail());
 			return universalResponse("Password changed successfully", null, HttpStatus.OK);
 		} else {
 			return universalResponse("Manager not found with id: " + managerId, null, HttpStatus.NOT_FOUND);
@@ -210,7 +316,18 @@ public class HotelService {
 	public ResponseEntity<?> deleteHotel(long hotelId) {
 		Optional<Hotel> existingHotel = hotelRepository.findById(hotelId);
 		if (existingHotel.isPresent()) {
+			if (existingHotel.get().getManager() != null) {
+				myUserDetailsService.evictPrincipal(existingHotel.get().getManager().getEmail());
+				credentialService.remove(PrincipalType.HOTEL_MANAGER, existingHotel.get().getManager().getId());
+			}
+			List<String> imageUrls = new ArrayList<>(roomImageRepository.findImageUrlsByHotelId(hotelId));
+			imageUrls.add(existingHotel.get().getHotelImage());
+			imageUploadService.release(imageUrls);
 			hotelRepository.delete(existingHotel.get());
+			if (ratingStatsRepository.existsById(hotelId)) {
+				ratingStatsRepository.deleteById(hotelId);
+			}
+			hotelFeedbackService.evictReviewCaches(hotelId);
 			return universalResponse("Hotel deleted successfully", null, HttpStatus.OK);
 		} else {
 			return universalResponse("Hotel not found with id: " + hotelId, null, HttpStatus.NOT_FOUND);
@@ -218,8 +335,6 @@ public class HotelService {
 	}
 
 	private ResponseEntity<?> universalResponse(String message, Object data, HttpStatus httpStatus) {
-		responseWrapper.setMessage(message);
-		responseWrapper.setData(data);
-		return new ResponseEntity<>(responseWrapper, httpStatus);
+		return new ResponseEntity<>(MyResponseWrapper.of(message, data), httpStatus);
 	}
 }
@@ -0,0 +1,311 @@
+package com.stayease.services;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.w3c.dom.Node;
+
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class ImageProcessingService {
+
+	public enum Size {
+		THUMBNAIL, CARD, FULL
+	}
+
+	public record Variant(Size size, byte[] jpeg, int width, int height) {
+	}
+
+	private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+	private static final int EXIF_ORIENTATION_TAG = 0x0112;
+
+	private final int[] widths;
+	private final float jpegQuality;
+	private final int maxSourceDimension;
+	private final ThreadPoolExecutor executor;
+
+	public ImageProcessingService(
+			@Value("${app.images.thumbnail-width:320}") int thumbnailWidth,
+			@Value("${app.images.card-width:800}") int cardWidth,
+			@Value("${app.images.full-width:1920}") int fullWidth,
+			@Value("${app.images.jpeg-quality:0.82}") float jpegQuality,
+			@Value("${app.images.max-source-dimension:20000}") int maxSourceDimension,
+			@Value("${app.images.threads:0}") int threads,
+			@Value("${app.images.queue-capacity:16}") int queueCapacity) {
+		this.widths = new int[] { thumbnailWidth, cardWidth, fullWidth };
+		this.jpegQuality = jpegQuality;
+		this.maxSourceDimension = maxSourceDimension;
+		int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		AtomicInteger threadCount = new AtomicInteger();
+		// Each worker holds at most one decoded image, so the pool size bounds decode memory.
+		// Overflow is rejected rather than run on the caller, which would decode outside that bound.
+		this.executor = new ThreadPoolExecutor(
+				poolSize,
+				poolSize,
+				0L,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				runnable -> {
+					Thread thread = new Thread(runnable, "image-process-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	// Returns the variants smallest first, or an empty list when ImageIO cannot decode the input.
+	public List<Variant> createVariants(Path source) throws IOException {
+		Future<List<Variant>> future;
+		try {
+			future = executor.submit(() -> process(source));
+		} catch (RejectedExecutionException e) {
+			if (executor.isShutdown()) {
+				throw new IOException("Image processor is shutting down", e);
+			}
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Image processing is busy, please try again shortly");
+		}
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while processing image", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+			throw new IOException("Image processing failed: " + e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	private List<Variant> process(Path source) throws IOException {
+		BufferedImage decoded = decode(source);
+		if (decoded == null) {
+			return List.of();
+		}
+		List<Variant> variants = new ArrayList<>(widths.length);
+		BufferedImage current = toRgb(decoded);
+		decoded = null;
+		// Largest first so each smaller variant is scaled from the previous one rather than the original.
+		for (int i = widths.length - 1; i >= 0; i--) {
+			current = scaleToWidth(current, widths[i]);
+			variants.add(0, new Variant(Size.values()[i], encode(current), current.getWidth(), current.getHeight()));
+		}
+		return variants;
+	}
+
+	// Reads straight from the file through ImageIO's small buffered window instead of loading it into the heap.
+	private BufferedImage decode(Path source) throws IOException {
+		try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+			if (input == null) {
+				return null;
+			}
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+			if (!readers.hasNext()) {
+				return null;
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(input, true, false);
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+				if (width > maxSourceDimension || height > maxSourceDimension) {
+					throw new IOException("Image is too large: " + width + "x" + height);
+				}
+				int orientation = exifOrientation(reader);
+				// Orientations 5-8 are stored sideways, so the displayed width is the stored height.
+				int displayWidth = orientation >= 5 ? height : width;
+				// Subsample while decoding so a 50MB photo never materializes at full resolution.
+				ImageReadParam param = reader.getDefaultReadParam();
+				int subsampling = Math.max(1, displayWidth / (widths[widths.length - 1] * 2));
+				param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				return orient(reader.read(0, param), orientation);
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	// Phone cameras store pixels as shot and record the rotation in EXIF; anything unreadable counts as upright.
+	private int exifOrientation(ImageReader reader) {
+		try {
+			IIOMetadata metadata = reader.getImageMetadata(0);
+			if (metadata == null || !List.of(metadata.getMetadataFormatNames()).contains(JPEG_METADATA_FORMAT)) {
+				return 1;
+			}
+			Node root = metadata.getAsTree(JPEG_METADATA_FORMAT);
+			for (Node section = root.getFirstChild(); section != null; section = section.getNextSibling()) {
+				if (!"markerSequence".equals(section.getNodeName())) {
+					continue;
+				}
+				for (Node marker = section.getFirstChild(); marker != null; marker = marker.getNextSibling()) {
+					Node tag = marker.getAttributes() == null ? null : marker.getAttributes().getNamedItem("MarkerTag");
+					if ("unknown".equals(marker.getNodeName()) && tag != null && "225".equals(tag.getNodeValue())
+							&& ((IIOMetadataNode) marker).getUserObject() instanceof byte[] app1) {
+						int orientation = exifOrientation(app1);
+						if (orientation > 0) {
+							return orientation;
+						}
+					}
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			// Fall through and treat the image as upright.
+		}
+		return 1;
+	}
+
+	// Reads tag 0x0112 from IFD0 of an APP1 "Exif" segment; returns 0 when the segment carries no orientation.
+	private static int exifOrientation(byte[] app1) {
+		if (app1.length < 14 || app1[0] != 'E' || app1[1] != 'x' || app1[2] != 'i' || app1[3] != 'f') {
+			return 0;
+		}
+		int tiff = 6;
+		boolean littleEndian = app1[tiff] == 'I';
+		int ifd = tiff + readInt(app1, tiff + 4, littleEndian);
+		if (ifd < tiff || ifd + 2 > app1.length) {
+			return 0;
+		}
+		int entries = readShort(app1, ifd, littleEndian);
+		for (int i = 0; i < entries; i++) {
+			int entry = ifd + 2 + i * 12;
+			if (entry + 12 > app1.length) {
+				return 0;
+			}
+			if (readShort(app1, entry, littleEndian) == EXIF_ORIENTATION_TAG) {
+				int orientation = readShort(app1, entry + 8, littleEndian);
+				return orientation >= 1 && orientation <= 8 ? orientation : 0;
+			}
+		}
+		return 0;
+	}
+
+	private static int readShort(byte[] bytes, int offset, boolean littleEndian) {
+		int first = bytes[offset] & 0xFF;
+		int second = bytes[offset + 1] & 0xFF;
+		return littleEndian ? second << 8 | first : first << 8 | second;
+	}
+
+	private static int readInt(byte[] bytes, int offset, boolean littleEndian) {
+		int high = readShort(bytes, littleEndian ? offset + 2 : offset, littleEndian);
+		int low = readShort(bytes, littleEndian ? offset : offset + 2, littleEndian);
+		return high << 16 | low;
+	}
+
+	// Applies the EXIF orientation once, before scaling, so every variant comes out upright.
+	private BufferedImage orient(BufferedImage image, int orientation) {
+		if (orientation <= 1) {
+			return image;
+		}
+		int w = image.getWidth();
+		int h = image.getHeight();
+		AffineTransform transform = switch (orientation) {
+		case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+		case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+		case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+		case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+		case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+		case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+		default -> new AffineTransform(0, -1, 1, 0, 0, w);
+		};
+		boolean sideways = orientation >= 5;
+		BufferedImage oriented = new BufferedImage(sideways ? h : w, sideways ? w : h, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = oriented.createGraphics();
+		try {
+			graphics.setColor(Color.WHITE);
+			graphics.fillRect(0, 0, oriented.getWidth(), oriented.getHeight());
+			graphics.drawImage(image, transform, null);
+		} finally {
+			graphics.dispose();
+		}
+		return oriented;
+	}
+
+	private BufferedImage toRgb(BufferedImage image) {
+		if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+			return image;
+		}
+		BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = rgb.createGraphics();
+		try {
+			graphics.setColor(Color.WHITE);
+			graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+			graphics.drawImage(image, 0, 0, null);
+		} finally {
+			graphics.dispose();
+		}
+		return rgb;
+	}
+
+	private BufferedImage scaleToWidth(BufferedImage image, int targetWidth) {
+		BufferedImage current = image;
+		// Halve repeatedly before the last step; a single bilinear pass over a large ratio aliases badly.
+		while (current.getWidth() > targetWidth) {
+			int width = Math.max(targetWidth, current.getWidth() / 2);
+			int height = Math.max(1, (int) Math.round((double) current.getHeight() * width / current.getWidth()));
+			BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			Graphics2D graphics = scaled.createGraphics();
+			try {
+				graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+				graphics.drawImage(current, 0, 0, width, height, null);
+			} finally {
+				graphics.dispose();
+			}
+			current = scaled;
+		}
+		return current;
+	}
+
+	private byte[] encode(BufferedImage image) throws IOException {
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+			writer.setOutput(output);
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionQuality(jpegQuality);
+			param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+		return bytes.toByteArray();
+	}
+}
@@ -0,0 +1,235 @@
+package com.stayease.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.stayease.dto.ImageUploadResult;
+import com.stayease.dto.ImageVariants;
+import com.stayease.services.ImageProcessingService.Variant;
+import com.stayease.storage.ImageStore;
+
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class ImageUploadService {
+
+	private final ImageStore imageStore;
+	private final ImageProcessingService imageProcessingService;
+	private final StoredImageService storedImageService;
+	private final ThreadPoolExecutor executor;
+
+	public ImageUploadService(
+			ImageStore imageStore,
+			ImageProcessingService imageProcessingService,
+			StoredImageService storedImageService,
+			@Value("${app.uploads.parallelism:4}") int parallelism,
+			@Value("${app.uploads.queue-capacity:32}") int queueCapacity) {
+		this.imageStore = imageStore;
+		this.imageProcessingService = imageProcessingService;
+		this.storedImageService = storedImageService;
+		AtomicInteger threadCount = new AtomicInteger();
+		// A full queue rejects the request with 503 rather than letting the request thread upload on its own.
+		this.executor = new ThreadPoolExecutor(
+				parallelism,
+				parallelism,
+				0L,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				runnable -> {
+					Thread thread = new Thread(runnable, "image-upload-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	// Uploads every non-empty file in parallel and reports the outcome of each one in input order.
+	public List<ImageUploadResult> uploadAll(List<MultipartFile> files, String folder) {
+		List<CompletableFuture<ImageUploadResult>> uploads = new ArrayList<>();
+		if (files == null) {
+			return List.of();
+		}
+		for (MultipartFile file : files) {
+			if (file == null || file.isEmpty()) {
+				continue;
+			}
+			String fileName = file.getOriginalFilename();
+			try {
+				uploads.add(CompletableFuture.supplyAsync(() -> upload(file, fileName, folder), executor));
+			} catch (RejectedExecutionException e) {
+				releaseSubmitted(uploads);
+				throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Image uploads are busy, please try again shortly");
+			}
+		}
+		List<ImageUploadResult> results = new ArrayList<>(uploads.size());
+		for (CompletableFuture<ImageUploadResult> upload : uploads) {
+			try {
+				results.add(upload.join());
+			} catch (CompletionException e) {
+				results.add(new ImageUploadResult(null, null, e.getCause().getMessage()));
+			}
+		}
+		return results;
+	}
+
+	// Resizes once into thumbnail, card and full-size JPEGs and uploads each; files ImageIO cannot decode are stored as-is.
+	// The upload is moved to a temp file first so neither decoding nor the fallback upload reads it into the heap.
+	// Content already stored under the same SHA-256 is referenced again instead of being processed and uploaded.
+	public ImageVariants uploadVariants(MultipartFile file, String folder) throws IOException {
+		if (file == null || file.isEmpty()) {
+			return null;
+		}
+		Path source = Files.createTempFile("stayease-upload-", ".tmp");
+		try {
+			file.transferTo(source.toFile());
+			String contentHash = contentHash(source);
+			Optional<ImageVariants> existing = storedImageService.acquire(contentHash);
+			if (existing.isPresent()) {
+				return existing.get();
+			}
+			ImageVariants uploaded = store(source, folder);
+			ImageVariants stored = storedImageService.register(contentHash, uploaded);
+			if (!stored.equals(uploaded)) {
+				deleteUrlsAsync(urlsOnlyIn(uploaded, stored));
+			}
+			return stored;
+		} finally {
+			Files.deleteIfExists(source);
+		}
+	}
+
+	// The images already queued for a rejected batch still finish, so their references are dropped again.
+	private void releaseSubmitted(List<CompletableFuture<ImageUploadResult>> uploads) {
+		List<ImageVariants> stored = new ArrayList<>();
+		for (CompletableFuture<ImageUploadResult> upload : uploads) {
+			ImageUploadResult result = upload.join();
+			if (result.succeeded()) {
+				stored.add(result.variants());
+			}
+		}
+		releaseAll(stored);
+	}
+
+	// Drops one reference per image; blobs are deleted by the collector once nothing refers to them.
+	public void releaseAll(List<ImageVariants> images) {
+		List<String> urls = new ArrayList<>(images.size());
+		for (ImageVariants image : images) {
+			if (image != null) {
+				urls.add(image.fullUrl());
+			}
+		}
+		release(urls);
+	}
+
+	public void release(List<String> imageUrls) {
+		try {
+			storedImageService.release(imageUrls);
+		} catch (Exception e) {
+			System.err.println("Failed to release images " + imageUrls + ": " + e.getMessage());
+		}
+	}
+
+	private ImageVariants store(Path source, String folder) throws IOException {
+		List<Variant> variants = imageProcessingService.createVariants(source);
+		if (variants.isEmpty()) {
+			return ImageVariants.single(requireUrl(imageStore.store(source.toFile(), folder)));
+		}
+		List<String> urls = new ArrayList<>(variants.size());
+		try {
+			for (Variant variant : variants) {
+				urls.add(requireUrl(imageStore.store(variant.jpeg(), folder)));
+			}
+		} catch (IOException | RuntimeException e) {
+			deleteUrlsAsync(urls);
+			throw e;
+		}
+		return new ImageVariants(urls.get(0), urls.get(1), urls.get(2));
+	}
+
+	// A content-addressed store hands back the same URLs for a duplicate, and those must not be deleted.
+	private Set<String> urlsOnlyIn(ImageVariants uploaded, ImageVariants stored) {
+		Set<String> urls = new LinkedHashSet<>(List.of(uploaded.thumbnailUrl(), uploaded.cardUrl(), uploaded.fullUrl()));
+		urls.removeAll(List.of(stored.thumbnailUrl(), stored.cardUrl(), stored.fullUrl()));
+		return urls;
+	}
+
+	private String contentHash(Path source) throws IOException {
+		MessageDigest sha256;
+		try {
+			sha256 = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+		byte[] buffer = new byte[64 * 1024];
+		try (InputStream input = Files.newInputStream(source)) {
+			int read;
+			while ((read = input.read(buffer)) > 0) {
+				sha256.update(buffer, 0, read);
+			}
+		}
+		return HexFormat.of().formatHex(sha256.digest());
+	}
+
+	private void deleteUrlsAsync(Collection<String> imageUrls) {
+		if (imageUrls.isEmpty()) {
+			return;
+		}
+		List<String> urls = List.copyOf(imageUrls);
+		try {
+			CompletableFuture.runAsync(() -> {
+				try {
+					storedImageService.deleteUnreferenced(urls);
+				} catch (Exception e) {
+					System.err.println("Failed to delete orphaned images " + urls + ": " + e.getMessage());
+				}
+			}, executor);
+		} catch (RejectedExecutionException e) {
+			System.err.println("Skipped deleting orphaned images " + urls + ": upload pool is saturated");
+		}
+	}
+
+	private String requireUrl(String url) throws IOException {
+		if (url == null || url.isEmpty()) {
+			throw new IOException("Storage returned no URL");
+		}
+		return url;
+	}
+
+	private ImageUploadResult upload(MultipartFile file, String fileName, String folder) {
+		try {
+			return new ImageUploadResult(fileName, uploadVariants(file, folder), null);
+		} catch (Exception e) {
+			System.err.println("Image upload failed for " + fileName + ": " + e.getMessage());
+			return new ImageUploadResult(fileName, null, e.getMessage());
+		}
+	}
+}
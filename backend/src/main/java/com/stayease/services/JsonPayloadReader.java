@@ -0,0 +1,27 @@
+package com.stayease.services;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+// Parses the JSON parts of multipart requests with Spring's mapper, so they get the same modules and settings as request bodies.
+// ObjectReaders are immutable and cache their root deserializer, so one per type is shared by every request.
+@Component
+public class JsonPayloadReader {
+
+	private final ObjectMapper objectMapper;
+	private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+	public JsonPayloadReader(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+	}
+
+	public <T> T read(String json, Class<T> type) throws IOException {
+		return readers.computeIfAbsent(type, objectMapper::readerFor).readValue(json);
+	}
+}
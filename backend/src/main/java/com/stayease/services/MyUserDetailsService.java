@@ -1,13 +1,19 @@
 package com.stayease.services;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.stayease.cache.LruCache;
 import com.stayease.models.Admin;
 import com.stayease.models.HotelManager;
 import com.stayease.enums.Role;
@@ -16,6 +22,7 @@ import com.stayease.repositories.AdminRepository;
 import com.stayease.repositories.HotelManagerRepository;
 import com.stayease.repositories.UserRepository;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -26,6 +33,25 @@ public class MyUserDetailsService implements UserDetailsService {
 	private final AdminRepository adminRepository;
 	private final HotelManagerRepository hotelManagerRepository;
 
+	@Value("${app.security.principal-cache.ttl-seconds:300}")
+	private long principalCacheTtlSeconds;
+
+	@Value("${app.security.principal-cache.max-entries:10000}")
+	private int principalCacheMaxEntries;
+
+	private LruCache<String, CachedPrincipal> principalCache;
+
+	private record CachedPrincipal(UserDetails userDetails, long expiresAt) {
+		boolean isExpired(long now) {
+			return now >= expiresAt;
+		}
+	}
+
+	@PostConstruct
+	void init() {
+		principalCache = new LruCache<>(principalCacheMaxEntries);
+	}
+
 	@Override
 	public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
 		User user = userRepository.findByEmail(email)
@@ -34,12 +60,55 @@ public class MyUserDetailsService implements UserDetailsService {
 	}
 
 	public UserDetails loadUserById(Long userId) throws UsernameNotFoundException {
-		User user = userRepository.findById(userId)
-				.orElseThrow(() -> new UsernameNotFoundException("User not found with id :" + userId));
-		return buildUserDetails(user);
+		return cached("id:" + userId, () -> {
+			User user = userRepository.findById(userId)
+					.orElseThrow(() -> new UsernameNotFoundException("User not found with id :" + userId));
+			return buildUserDetails(user);
+		});
 	}
 
 	public UserDetails loadByRoleAndEmail(String role, String email) throws UsernameNotFoundException {
+		return cached(role.toUpperCase() + ":" + email.toLowerCase(), () -> lookupByRoleAndEmail(role, email));
+	}
+
+	public void evictPrincipal(String email) {
+		if (email == null) {
+			return;
+		}
+		List<String> keys = principalKeys(email);
+		keys.forEach(principalCache::remove);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					keys.forEach(principalCache::remove);
+				}
+			});
+		}
+	}
+
+	// Every key an email can be cached under; the id key is resolved now, before the caller changes the email.
+	private List<String> principalKeys(String email) {
+		List<String> keys = new ArrayList<>();
+		for (Role role : Role.values()) {
+			keys.add(role.name() + ":" + email.toLowerCase());
+		}
+		userRepository.findByEmail(email).ifPresent(user -> keys.add("id:" + user.getId()));
+		return keys;
+	}
+
+	private UserDetails cached(String key, Supplier<UserDetails> loader) {
+		long now = System.currentTimeMillis();
+		CachedPrincipal entry = principalCache.get(key);
+		if (entry != null && !entry.isExpired(now)) {
+			return entry.userDetails();
+		}
+		UserDetails userDetails = loader.get();
+		principalCache.put(key, new CachedPrincipal(userDetails, now + principalCacheTtlSeconds * 1000));
+		return userDetails;
+	}
+
+	private UserDetails lookupByRoleAndEmail(String role, String email) {
 		if (Role.ADMIN.name().equalsIgnoreCase(role)) {
 			Admin admin = adminRepository.findAdminByEmail(email)
 					.orElseThrow(() -> new UsernameNotFoundException("Admin not found :" + email));
@@ -53,7 +122,7 @@ public class MyUserDetailsService implements UserDetailsService {
 		return loadUserByUsername(email);
 	}
 
-	private UserDetails buildUserDetails(User user) {
+	public UserDetails buildUserDetails(User user) {
 		String role = "USER";
 		if (user.getAppUser() != null && user.getAppUser().getRole() != null) {
 			role = user.getAppUser().getRole().name();
@@ -70,7 +139,7 @@ public class MyUserDetailsService implements UserDetailsService {
 		);
 	}
 
-	private UserDetails buildAdminDetails(Admin admin) {
+	public UserDetails buildAdminDetails(Admin admin) {
 		List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(admin.getRole().name()));
 		return new org.springframework.security.core.userdetails.User(
 				admin.getEmail(),
@@ -79,7 +148,7 @@ public class MyUserDetailsService implements UserDetailsService {
 		);
 	}
 
-	private UserDetails buildManagerDetails(HotelManager manager) {
+	public UserDetails buildManagerDetails(HotelManager manager) {
 		List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(manager.getRole().name()));
 		return new org.springframework.security.core.userdetails.User(
 				manager.getEmail(),
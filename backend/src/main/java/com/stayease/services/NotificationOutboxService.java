@@ -0,0 +1,195 @@
+package com.stayease.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stayease.enums.NotificationType;
+import com.stayease.enums.OutboxStatus;
+import com.stayease.models.NotificationOutbox;
+import com.stayease.repositories.NotificationOutboxRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class NotificationOutboxService {
+
+	private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+	};
+
+	private final NotificationOutboxRepository outboxRepository;
+	private final EmailService emailService;
+	private final WhatsAppService whatsAppService;
+	private final ObjectMapper objectMapper;
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${app.notifications.workers:4}")
+	private int workers;
+
+	@Value("${app.notifications.batch-size:50}")
+	private int batchSize;
+
+	@Value("${app.notifications.max-attempts:8}")
+	private int maxAttempts;
+
+	@Value("${app.notifications.base-backoff-seconds:30}")
+	private long baseBackoffSeconds;
+
+	@Value("${app.notifications.max-backoff-seconds:3600}")
+	private long maxBackoffSeconds;
+
+	@Value("${app.notifications.claim-timeout-seconds:300}")
+	private long claimTimeoutSeconds;
+
+	@Value("${app.notifications.sent-retention-days:7}")
+	private long sentRetentionDays;
+
+	private ThreadPoolExecutor executor;
+
+	@PostConstruct
+	void init() {
+		AtomicInteger threadCount = new AtomicInteger();
+		executor = new ThreadPoolExecutor(
+				workers,
+				workers,
+				0L,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(batchSize),
+				runnable -> {
+					Thread thread = new Thread(runnable, "notification-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdown();
+	}
+
+	// Must run inside the caller's transaction so the notification commits or rolls back with it.
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void enqueue(NotificationType type, String dedupeKey, Map<String, Object> payload) {
+		try {
+			outboxRepository.enqueue(dedupeKey, type.name(), objectMapper.writeValueAsString(payload), Instant.now());
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not serialize notification payload for " + dedupeKey, e);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${app.notifications.poll-interval-ms:2000}")
+	public void dispatchDue() {
+		int capacity = Math.min(batchSize, executor.getQueue().remainingCapacity());
+		if (capacity == 0) {
+			return;
+		}
+		List<NotificationOutbox> claimed = transactionTemplate.execute(status -> {
+			Instant now = Instant.now();
+			List<NotificationOutbox> due = outboxRepository.lockDue(now, capacity);
+			for (NotificationOutbox notification : due) {
+				notification.setStatus(OutboxStatus.IN_PROGRESS);
+				notification.setNextAttemptAt(now.plusSeconds(claimTimeoutSeconds));
+			}
+			return outboxRepository.saveAll(due);
+		});
+		if (claimed == null) {
+			return;
+		}
+		for (NotificationOutbox notification : claimed) {
+			executor.execute(() -> deliver(notification));
+		}
+	}
+
+	@Scheduled(cron = "${app.notifications.purge-cron:0 15 4 * * *}")
+	public void purgeSent() {
+		Instant before = Instant.now().minus(Duration.ofDays(sentRetentionDays));
+		int removed;
+		do {
+			removed = transactionTemplate.execute(status -> outboxRepository.purgeSent(before, 1000));
+		} while (removed == 1000);
+	}
+
+	private void deliver(NotificationOutbox notification) {
+		int attempt = notification.getAttempts() + 1;
+		notification.setAttempts(attempt);
+		try {
+			send(notification.getType(), objectMapper.readValue(notification.getPayload(), PAYLOAD_TYPE));
+			notification.setStatus(OutboxStatus.SENT);
+			notification.setSentAt(Instant.now());
+			notification.setLastError(null);
+		} catch (Exception e) {
+			String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+			notification.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+			if (attempt >= maxAttempts) {
+				notification.setStatus(OutboxStatus.DEAD);
+				System.err.println("Notification " + notification.getDedupeKey() + " dead-lettered after " + attempt + " attempts: " + error);
+			} else {
+				notification.setStatus(OutboxStatus.PENDING);
+				notification.setNextAttemptAt(Instant.now().plusMillis(backoffMillis(attempt)));
+				System.err.println("Notification " + notification.getDedupeKey() + " failed (attempt " + attempt + "): " + error);
+			}
+		}
+		outboxRepository.save(notification);
+	}
+
+	private long backoffMillis(int attempt) {
+		long exponential = baseBackoffSeconds * 1000L << Math.min(attempt - 1, 20);
+		long capped = Math.min(exponential, maxBackoffSeconds * 1000L);
+		return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+	}
+
+	private void send(NotificationType type, Map<String, Object> payload) {
+		switch (type) {
+		case BOOKING_CONFIRMATION_EMAIL:
+			emailService.sendBookingConfirmationEmail(
+					text(payload, "toEmail"),
+					text(payload, "guestName"),
+					text(payload, "hotelName"),
+					text(payload, "roomNumber"),
+					text(payload, "roomType"),
+					text(payload, "checkInDate"),
+					text(payload, "checkOutDate"),
+					text(payload, "transactionId"),
+					((Number) payload.get("totalAmount")).doubleValue(),
+					((Number) payload.get("totalGuests")).intValue());
+			break;
+		case BOOKING_CANCELLATION_EMAIL:
+			emailService.sendBookingCancellationEmail(
+					text(payload, "toEmail"),
+					text(payload, "guestName"),
+					text(payload, "hotelName"),
+					text(payload, "transactionId"),
+					text(payload, "checkInDate"),
+					text(payload, "checkOutDate"),
+					((Number) payload.get("totalAmount")).doubleValue());
+			break;
+		case BOOKING_CONFIRMATION_WHATSAPP:
+			whatsAppService.deliverMessage(text(payload, "phone"), text(payload, "message"));
+			break;
+		}
+	}
+
+	private String text(Map<String, Object> payload, String key) {
+		Object value = payload.get(key);
+		return value == null ? null : value.toString();
+	}
+}
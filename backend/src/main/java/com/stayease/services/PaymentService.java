@@ -20,7 +20,6 @@ import lombok.RequiredArgsConstructor;
 public class PaymentService {
 
 	private final BookingRepository bookingRepository;
-	private final MyResponseWrapper responseWrapper;
 
 	public ResponseEntity<?> createOrder(Long bookingId, Double amount, String currency) {
 		try {
@@ -177,9 +176,7 @@ public class PaymentService {
 	}
 
 	private ResponseEntity<?> universalResponse(String message, Object data, HttpStatus httpStatus) {
-		responseWrapper.setMessage(message);
-		responseWrapper.setData(data);
-		return new ResponseEntity<>(responseWrapper, httpStatus);
+		return new ResponseEntity<>(MyResponseWrapper.of(message, data), httpStatus);
 	}
 }
 
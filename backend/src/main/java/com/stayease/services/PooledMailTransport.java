@@ -0,0 +1,247 @@
+package com.stayease.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.stayease.ratelimit.RateLimitPolicy;
+import com.stayease.ratelimit.RateLimitStore;
+import com.stayease.resilience.DependencyGuard;
+import com.stayease.resilience.DependencyGuards;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+@Component
+public class PooledMailTransport {
+
+	private final JavaMailSenderImpl mailSender;
+	private final RateLimitStore rateLimitStore;
+	private final RateLimitPolicy throttle;
+	private final DependencyGuard guard;
+	private final int maxMessagesPerConnection;
+	private final long idleTimeoutMillis;
+	private final long acquireTimeoutMillis;
+
+	private final Semaphore permits;
+	private final Semaphore bulkPermits;
+	private final LinkedBlockingDeque<Connection> idle = new LinkedBlockingDeque<>();
+
+	public PooledMailTransport(
+			JavaMailSenderImpl mailSender,
+			RateLimitStore rateLimitStore,
+			DependencyGuards dependencyGuards,
+			@Value("${app.mail.pool.size:2}") int poolSize,
+			@Value("${app.mail.pool.reserved-for-transactional:1}") int reservedForTransactional,
+			@Value("${app.mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+			@Value("${app.mail.pool.idle-timeout-ms:30000}") long idleTimeoutMillis,
+			@Value("${app.mail.max-messages-per-second:5}") long maxMessagesPerSecond,
+			@Value("${app.mail.pool.acquire-timeout-ms:5000}") long acquireTimeoutMillis) {
+		this.mailSender = mailSender;
+		this.rateLimitStore = rateLimitStore;
+		this.guard = dependencyGuards.get(DependencyGuards.SMTP);
+		this.throttle = maxMessagesPerSecond > 0 ? new RateLimitPolicy("smtp", maxMessagesPerSecond, Duration.ofSeconds(1)) : null;
+		this.maxMessagesPerConnection = maxMessagesPerConnection;
+		this.idleTimeoutMillis = idleTimeoutMillis;
+		this.acquireTimeoutMillis = acquireTimeoutMillis;
+		this.permits = new Semaphore(poolSize, true);
+		this.bulkPermits = new Semaphore(Math.max(1, poolSize - reservedForTransactional), true);
+	}
+
+	public void send(MimeMessage message) {
+		sendAll(List.of(message));
+	}
+
+	public void sendAll(List<MimeMessage> messages) {
+		List<MessagingException> failures = trySendAll(messages);
+		if (!failures.isEmpty()) {
+			MailSendException exception = new MailSendException(
+					failures.size() + " of " + messages.size() + " messages failed: " + failures.get(0).getMessage(), failures.get(0));
+			failures.stream().skip(1).forEach(exception::addSuppressed);
+			throw exception;
+		}
+	}
+
+	// Campaign batches never hold more than the pool size minus the reserved connections, so OTP and booking mail
+	// always has one to use; with a pool of one there is nothing to reserve and bulk mail simply shares it.
+	public List<MessagingException> trySendBulk(List<MimeMessage> messages) {
+		try {
+			bulkPermits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+		}
+		try {
+			return send(messages, true);
+		} finally {
+			bulkPermits.release();
+		}
+	}
+
+	// Sends every message it can over one pooled connection and returns the per-message failures.
+	public List<MessagingException> trySendAll(List<MimeMessage> messages) {
+		return send(messages, false);
+	}
+
+	// Request threads (OTP, password reset) give up after the acquire timeout with a 503; campaign workers may wait.
+	private List<MessagingException> send(List<MimeMessage> messages, boolean bulk) {
+		List<MessagingException> failures = new ArrayList<>();
+		if (messages.isEmpty()) {
+			return failures;
+		}
+		try {
+			if (bulk) {
+				permits.acquire();
+			} else if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Email service is busy, please try again shortly");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+		}
+
+		if (!guard.tryAcquirePermission()) {
+			permits.release();
+			MessagingException unavailable = new MessagingException("SMTP circuit is open, message not sent");
+			messages.forEach(message -> failures.add(unavailable));
+			return failures;
+		}
+
+		long startedAt = System.nanoTime();
+		boolean serverFailure = false;
+		Connection connection = idle.pollFirst();
+		try {
+			for (MimeMessage message : messages) {
+				throttle();
+				try {
+					connection = sendOne(connection, message);
+				} catch (SendFailedException e) {
+					// Rejected recipients are the message's fault; the server and the connection are fine.
+					failures.add(e);
+				} catch (MessagingException e) {
+					failures.add(e);
+					serverFailure = true;
+					connection = close(connection);
+				}
+			}
+		} finally {
+			if (connection != null) {
+				connection.lastUsed = System.currentTimeMillis();
+				idle.offerFirst(connection);
+			}
+			permits.release();
+			if (serverFailure) {
+				guard.recordFailure(System.nanoTime() - startedAt);
+			} else {
+				guard.recordSuccess(System.nanoTime() - startedAt);
+			}
+		}
+		return failures;
+	}
+
+	@Scheduled(fixedDelayString = "${app.mail.pool.idle-check-ms:10000}")
+	public void closeIdleConnections() {
+		long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+		for (Connection connection : idle) {
+			if (connection.lastUsed < cutoff && idle.remove(connection)) {
+				close(connection);
+			}
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		Connection connection;
+		while ((connection = idle.pollFirst()) != null) {
+			close(connection);
+		}
+	}
+
+	private Connection sendOne(Connection connection, MimeMessage message) throws MessagingException {
+		if (message.getSentDate() == null) {
+			message.setSentDate(new Date());
+		}
+		message.saveChanges();
+
+		if (connection != null && (connection.sent >= maxMessagesPerConnection || !connection.transport.isConnected())) {
+			connection = close(connection);
+		}
+		if (connection == null) {
+			connection = open();
+		}
+		try {
+			connection.transport.sendMessage(message, message.getAllRecipients());
+		} catch (SendFailedException e) {
+			throw e;
+		} catch (MessagingException e) {
+			// The server may have dropped an idle connection; retry once on a fresh one.
+			close(connection);
+			connection = open();
+			try {
+				connection.transport.sendMessage(message, message.getAllRecipients());
+			} catch (MessagingException retryFailure) {
+				close(connection);
+				throw retryFailure;
+			}
+		}
+		connection.sent++;
+		return connection;
+	}
+
+	private Connection open() throws MessagingException {
+		String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+		Transport transport = mailSender.getSession().getTransport(protocol);
+		transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+		return new Connection(transport);
+	}
+
+	private Connection close(Connection connection) {
+		if (connection != null) {
+			try {
+				connection.transport.close();
+			} catch (MessagingException ignored) {
+			}
+		}
+		return null;
+	}
+
+	private void throttle() {
+		if (throttle == null || rateLimitStore == null) {
+			return;
+		}
+		long waitMillis;
+		while ((waitMillis = rateLimitStore.tryAcquire("smtp:send", throttle)) > 0) {
+			try {
+				Thread.sleep(waitMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MailSendException("Interrupted while throttling SMTP sends", e);
+			}
+		}
+	}
+
+	private static class Connection {
+		private final Transport transport;
+		private int sent;
+		private long lastUsed = System.currentTimeMillis();
+
+		Connection(Transport transport) {
+			this.transport = transport;
+		}
+	}
+}
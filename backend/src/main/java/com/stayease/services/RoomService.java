@@ -1,87 +1,121 @@
 package com.stayease.services;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Set;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import com.stayease.MyResponseWrapper;
-import com.stayease.models.Booking;
-import com.stayease.enums.BookingStatus;
+import com.stayease.dto.BatchEntry;
+import com.stayease.dto.ImageUploadResult;
+import com.stayease.dto.ImageVariants;
+import com.stayease.dto.RoomImageView;
+import com.stayease.dto.RoomView;
 import com.stayease.models.Hotel;
 import com.stayease.models.Room;
 import com.stayease.models.RoomImage;
 import com.stayease.enums.RoomStatus;
-import com.stayease.repositories.BookingRepository;
 import com.stayease.repositories.HotelRepository;
 import com.stayease.repositories.RoomRepository;
 import com.stayease.specifications.RoomSpecification;
+import com.stayease.specifications.SparseFieldset;
 import org.springframework.data.jpa.domain.Specification;
-import org.hibernate.Hibernate;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class RoomService {
+
+	// amenities and images are collections, so they are loaded by room id afterwards rather than selected as columns.
+	private static final Map<String, List<String>> ROOM_FIELDS = new LinkedHashMap<>();
+	static {
+		ROOM_FIELDS.put("id", List.of("id"));
+		ROOM_FIELDS.put("hotelId", List.of("hotel.id"));
+		ROOM_FIELDS.put("roomNumber", List.of("roomNumber"));
+		ROOM_FIELDS.put("roomType", List.of("roomType"));
+		ROOM_FIELDS.put("price", List.of("price"));
+		ROOM_FIELDS.put("status", List.of("status"));
+		ROOM_FIELDS.put("capacity", List.of("capacity"));
+		ROOM_FIELDS.put("bedType", List.of("bedType"));
+		ROOM_FIELDS.put("viewType", List.of("viewType"));
+		ROOM_FIELDS.put("description", List.of("description"));
+		ROOM_FIELDS.put("amenities", List.of());
+		ROOM_FIELDS.put("images", List.of());
+	}
+
 	private final RoomRepository roomRepository;
 	private final HotelRepository hotelRepository;
-	private final BookingRepository bookingRepository;
-	private final MyResponseWrapper responseWrapper;
-	private final CloudinaryService cloudinaryService;
+	private final ImageUploadService imageUploadService;
+	private final TransactionTemplate transactionTemplate;
+	private final JdbcTemplate jdbcTemplate;
+	private final EntityManager entityManager;
+	private final JsonPayloadReader jsonPayloadReader;
+	private final RoomViewLoader roomViewLoader;
 	
 	
-	@Transactional
+	// Images are uploaded outside any transaction so a slow upload never holds a connection.
+	// The cheap checks run first in a short read-only transaction, so a request that will fail never uploads;
+	// they are repeated in the write transaction because another request may add the room in between.
 	public ResponseEntity<?> addRoom(long hotelId, String roomObjectStringify, List<MultipartFile> roomImages) throws IOException {
+		Room room;
 		try {
-			Optional<Hotel> existingHotel = hotelRepository.findById(hotelId);
-			if (!existingHotel.isPresent()) {
-				return universalResponse("Hotel Not Found with id:" + hotelId, null, HttpStatus.NOT_FOUND);
-			}
-
-			ObjectMapper objectMapper = new ObjectMapper();
-			objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-			Room room = objectMapper.readValue(roomObjectStringify, Room.class);
-			Hotel hotel = existingHotel.get();
+			room = jsonPayloadReader.read(roomObjectStringify, Room.class);
+		} catch (Exception e) {
+			return universalResponse("Error adding room: " + e.getMessage(), null, HttpStatus.BAD_REQUEST);
+		}
 
-			if (room.getRoomNumber() != null && roomRepository.existsByHotelIdAndRoomNumber(hotelId, room.getRoomNumber())) {
-				return universalResponse("Room number '" + room.getRoomNumber() + "' already exists for this hotel", null, HttpStatus.CONFLICT);
-			}
+		TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		readOnly.setReadOnly(true);
+		ResponseEntity<?> rejected = readOnly.execute(status -> checkNewRoom(hotelId, room));
+		if (rejected != null) {
+			return rejected;
+		}
 
-			room.setHotel(hotel);
-			if (room.getStatus() == null) {
-				room.setStatus(RoomStatus.AVAILABLE);
-			}
+		List<ImageUploadResult> uploads = imageUploadService.uploadAll(roomImages, "stayease/rooms");
+		List<ImageVariants> images = uploadedImages(uploads);
+		try {
+			ResponseEntity<?> response = transactionTemplate.execute(status -> {
+				ResponseEntity<?> conflict = checkNewRoom(hotelId, room);
+				if (conflict != null) {
+					return conflict;
+				}
 
-			if (roomImages != null && !roomImages.isEmpty()) {
+				room.setHotel(hotelRepository.getReferenceById(hotelId));
+				if (room.getStatus() == null) {
+					room.setStatus(RoomStatus.AVAILABLE);
+				}
 				if (room.getImages() == null) {
 					room.setImages(new java.util.ArrayList<>());
 				}
-				for (MultipartFile roomImage : roomImages) {
-					if (roomImage != null && !roomImage.isEmpty()) {
-						try {
-							String imageUrl = cloudinaryService.uploadImage(roomImage, "stayease/rooms");
-							if (imageUrl != null && !imageUrl.isEmpty()) {
-								RoomImage roomImageEntity = new RoomImage();
-								roomImageEntity.setImageUrl(imageUrl);
-								roomImageEntity.setRoom(room);
-								room.getImages().add(roomImageEntity);
-							}
-						} catch (Exception e) {
-						}
-					}
-				}
+				Room savedRoom = roomRepository.save(room);
+				attachImages(savedRoom, images);
+				savedRoom.setImageUploadErrors(failedUploads(uploads));
+				return universalResponse("Room added successfully!", savedRoom, HttpStatus.OK);
+			});
+			if (!response.getStatusCode().is2xxSuccessful()) {
+				imageUploadService.releaseAll(images);
 			}
-
-			Room savedRoom = roomRepository.save(room);
-			return universalResponse("Room added successfully!", savedRoom, HttpStatus.OK);
+			return response;
 		} catch (Exception e) {
+			imageUploadService.releaseAll(images);
 			String errorMessage = "Error adding room: " + e.getMessage();
 			if (e.getCause() != null) {
 				errorMessage += " - Cause: " + e.getCause().getMessage();
@@ -90,33 +124,45 @@ public class RoomService {
 		}
 	}
 
-	
+	private ResponseEntity<?> checkNewRoom(long hotelId, Room room) {
+		if (!hotelRepository.existsById(hotelId)) {
+			return universalResponse("Hotel Not Found with id:" + hotelId, null, HttpStatus.NOT_FOUND);
+		}
+		if (room.getRoomNumber() != null && roomRepository.existsByHotelIdAndRoomNumber(hotelId, room.getRoomNumber())) {
+			return universalResponse("Room number '" + room.getRoomNumber() + "' already exists for this hotel", null, HttpStatus.CONFLICT);
+		}
+		return null;
+	}
 
 	@Transactional
 	public ResponseEntity<?> getAllRoomsByHotelId(long hotelId) {
-		Optional<Hotel> existingHotel = hotelRepository.findById(hotelId);
-		if (!existingHotel.isPresent()) {
+		if (!hotelRepository.existsById(hotelId)) {
 			return universalResponse("Hotel Not Found with id:" + hotelId, null, HttpStatus.NOT_FOUND);
 		}
-		List<Room> rooms = roomRepository.findByHotelIdWithImages(hotelId);
-		if (rooms == null || rooms.isEmpty()) {
-			return universalResponse("No rooms found for this hotel", new java.util.ArrayList<>(), HttpStatus.OK);
-		}
-		for (Room room : rooms) {
-			Hibernate.initialize(room.getImages());
-			Hibernate.initialize(room.getAmenities());
-			syncRoomStatus(room);
+		roomRepository.syncStatusesByHotelId(hotelId, Instant.now());
+		List<RoomView> rooms = roomViewLoader.withCollections(roomRepository.findViewsByHotelId(hotelId));
+		if (rooms.isEmpty()) {
+			return universalResponse("No rooms found for this hotel", rooms, HttpStatus.OK);
 		}
 		return universalResponse("Rooms found", rooms, HttpStatus.OK);
 	}
 
+	// Statuses are synced before filtering so a status filter sees the same values the response reports.
 	@Transactional
 	public ResponseEntity<?> getFilteredRooms(long hotelId, String search, String status, String roomType, Double minPrice,
-			Double maxPrice, String sortBy, String sortDirection) {
-		Optional<Hotel> existingHotel = hotelRepository.findById(hotelId);
-		if (!existingHotel.isPresent()) {
+			Double maxPrice, String sortBy, String sortDirection, String fields) {
+		SparseFieldset fieldset = null;
+		if (fields != null && !fields.isBlank()) {
+			try {
+				fieldset = SparseFieldset.parse(fields, ROOM_FIELDS);
+			} catch (IllegalArgumentException e) {
+				return universalResponse(e.getMessage(), null, HttpStatus.BAD_REQUEST);
+			}
+		}
+		if (!hotelRepository.existsById(hotelId)) {
 			return universalResponse("Hotel Not Found with id:" + hotelId, null, HttpStatus.NOT_FOUND);
 		}
+		roomRepository.syncStatusesByHotelId(hotelId, Instant.now());
 
 		Specification<Room> allFilters = null;
 		
@@ -148,67 +194,72 @@ public class RoomService {
 			allFilters = allFilters.and(sortSpec);
 		}
 
-		List<Room> filteredRooms = roomRepository.findAll(allFilters);
-		
-		for (Room room : filteredRooms) {
-			Hibernate.initialize(room.getImages());
-			Hibernate.initialize(room.getAmenities());
-			syncRoomStatus(room);
+		if (fieldset != null) {
+			return universalResponse("Following filtered rooms found", findRoomFields(fieldset, allFilters), HttpStatus.OK);
 		}
+		List<RoomView> filteredRooms = roomViewLoader.withCollections(findRoomViews(allFilters));
 		return universalResponse("Following filtered rooms found", filteredRooms, HttpStatus.OK);
 	}
 
 	@Transactional
 	public ResponseEntity<?> getRoomByRoomId(long roomId) {
-		Optional<Room> existingRoom = roomRepository.findById(roomId);
+		roomRepository.syncStatusById(roomId, Instant.now());
+		Optional<RoomView> existingRoom = roomRepository.findViewById(roomId);
 		if (existingRoom.isPresent()) {
-			Room room = existingRoom.get();
-			Hibernate.initialize(room.getImages());
-			Hibernate.initialize(room.getAmenities());
-			syncRoomStatus(room);
-			return universalResponse("Room found", room, HttpStatus.FOUND);
+			return universalResponse("Room found", roomViewLoader.withCollections(existingRoom.get()), HttpStatus.FOUND);
 		} else {
 			return universalResponse("Room not found with id:" + roomId, null, HttpStatus.NOT_FOUND);
 		}
 	}
-	
-	private void syncRoomStatus(Room room) {
-		if (room.getStatus() == RoomStatus.MAINTENANCE) {
-			return;
+
+	// Statuses are synced and rooms, amenities and images read with one statement each, whatever the number of ids.
+	@Transactional
+	public ResponseEntity<?> getRoomsByIds(List<Long> roomIds) {
+		if (roomIds == null || roomIds.isEmpty() || roomIds.size() > BatchEntry.MAX_IDS) {
+			return universalResponse("Provide between 1 and " + BatchEntry.MAX_IDS + " room ids", null, HttpStatus.BAD_REQUEST);
 		}
-		
-		List<Booking> bookings = bookingRepository.findByRoomId(room.getId());
-		if (bookings == null || bookings.isEmpty()) {
-			if (room.getStatus() != RoomStatus.AVAILABLE) {
-				room.setStatus(RoomStatus.AVAILABLE);
-				roomRepository.save(room);
-			}
-			return;
+		Set<Long> distinctIds = new HashSet<>(roomIds);
+		roomRepository.syncStatusesByIds(distinctIds, Instant.now());
+		Map<Long, RoomView> rooms = new HashMap<>();
+		for (RoomView room : roomViewLoader.withCollections(roomRepository.findViewsByIds(distinctIds))) {
+			rooms.put(room.id(), room);
 		}
-		
-		boolean hasActiveBooking = false;
-		for (Booking booking : bookings) {
-			BookingStatus status = booking.getBookingStatus();
-			if (status == BookingStatus.PENDING || 
-			    status == BookingStatus.CONFIRMED || 
-			    status == BookingStatus.CHECKED_IN || 
-			    status == BookingStatus.CHECKED_OUT) {
-				hasActiveBooking = true;
-				break;
-			}
+		return universalResponse("Rooms found", BatchEntry.inOrder(roomIds, rooms), HttpStatus.OK);
+	}
+
+	private List<RoomView> findRoomViews(Specification<Room> specification) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<RoomView> query = cb.createQuery(RoomView.class);
+		Root<Room> root = query.from(Room.class);
+		query.select(cb.construct(RoomView.class, root.get("id"), root.get("hotel").get("id"), root.get("roomNumber"),
+				root.get("roomType"), root.get("price"), root.get("status"), root.get("capacity"), root.get("bedType"),
+				root.get("viewType"), root.get("description")));
+		Predicate predicate = specification.toPredicate(root, query, cb);
+		if (predicate != null) {
+			query.where(predicate);
 		}
-		
-		if (hasActiveBooking) {
-			if (room.getStatus() != RoomStatus.BOOKED) {
-				room.setStatus(RoomStatus.BOOKED);
-				roomRepository.save(room);
+		return entityManager.createQuery(query).getResultList();
+	}
+
+	private List<Map<String, Object>> findRoomFields(SparseFieldset fieldset, Specification<Room> specification) {
+		List<Map<String, Object>> rows = fieldset.fetch(entityManager, Room.class, specification);
+		boolean amenities = fieldset.includes("amenities");
+		boolean images = fieldset.includes("images");
+		if (rows.isEmpty() || (!amenities && !images)) {
+			return rows;
+		}
+		List<Long> roomIds = rows.stream().map(row -> (Long) row.get("id")).toList();
+		Map<Long, List<String>> amenitiesById = amenities ? roomViewLoader.amenitiesFor(roomIds) : Map.of();
+		Map<Long, List<RoomImageView>> imagesById = images ? roomViewLoader.imagesFor(roomIds) : Map.of();
+		for (Map<String, Object> row : rows) {
+			if (amenities) {
+				row.put("amenities", amenitiesById.getOrDefault(row.get("id"), List.of()));
 			}
-		} else {
-			if (room.getStatus() != RoomStatus.AVAILABLE) {
-				room.setStatus(RoomStatus.AVAILABLE);
-				roomRepository.save(room);
+			if (images) {
+				row.put("images", imagesById.getOrDefault(row.get("id"), List.of()));
 			}
 		}
+		return rows;
 	}
 	
 
@@ -216,66 +267,79 @@ public class RoomService {
 	public ResponseEntity<?> deteleRoomById(long roomId) {
 		Optional<Room> existingRoom = roomRepository.findById(roomId);
 		if (existingRoom.isPresent()) {
+			imageUploadService.release(existingRoom.get().getImages().stream().map(RoomImage::getImageUrl).toList());
 			roomRepository.delete(existingRoom.get());
 			return universalResponse("Room deleted successfully", null, HttpStatus.OK);
 		}
 		return universalResponse("Room Not Found with id:" + roomId, null, HttpStatus.NOT_FOUND);
 	}
 	
-	@Transactional
 	public ResponseEntity<?> updateRoomById(long roomId, String roomObjectStringify, List<MultipartFile> roomImages) throws IOException {
-		Optional<Room> existingRoom = roomRepository.findById(roomId);
-		if (existingRoom.isEmpty()) {
-			return universalResponse("Room not found with id: " + roomId, null, HttpStatus.NOT_FOUND);
-		}
-
-		ObjectMapper objectMapper = new ObjectMapper();
-		objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		Room room = objectMapper.readValue(roomObjectStringify, Room.class);
-		Room persisted = existingRoom.get();
+		Room room = jsonPayloadReader.read(roomObjectStringify, Room.class);
 
+		List<ImageUploadResult> uploads = imageUploadService.uploadAll(roomImages, "stayease/rooms");
+		List<ImageVariants> images = uploadedImages(uploads);
+		ResponseEntity<?> response;
+		try {
+			response = transactionTemplate.execute(status -> {
+				Optional<Room> existingRoom = roomRepository.findById(roomId);
+				if (existingRoom.isEmpty()) {
+					return universalResponse("Room not found with id: " + roomId, null, HttpStatus.NOT_FOUND);
+				}
+				Room persisted = existingRoom.get();
 
-		if (roomImages != null && !roomImages.isEmpty()) {
-			if (persisted.getImages() == null) {
-				persisted.setImages(new java.util.ArrayList<>());
-			}
-				for (MultipartFile roomImage : roomImages) {
-					if (roomImage != null && !roomImage.isEmpty()) {
-						try {
-							String imageUrl = cloudinaryService.uploadImage(roomImage, "stayease/rooms");
-							if (imageUrl != null && !imageUrl.isEmpty()) {
-								RoomImage roomImageEntity = new RoomImage();
-								roomImageEntity.setImageUrl(imageUrl);
-								roomImageEntity.setRoom(persisted);
-								persisted.getImages().add(roomImageEntity);
-							}
-						} catch (Exception e) {
-						}
-					}
+				persisted.setRoomNumber(room.getRoomNumber());
+				persisted.setRoomType(room.getRoomType());
+				if (room.getPrice() > 0) {
+					persisted.setPrice(room.getPrice());
 				}
-		}
+				if (room.getStatus() != null) {
+					persisted.setStatus(room.getStatus());
+				}
+				persisted.setCapacity(room.getCapacity());
+				persisted.setBedType(room.getBedType());
+				persisted.setViewType(room.getViewType());
+				persisted.setDescription(room.getDescription());
+				persisted.setAmenities(room.getAmenities());
 
-		persisted.setRoomNumber(room.getRoomNumber());
-		persisted.setRoomType(room.getRoomType());
-		if (room.getPrice() > 0) {
-			persisted.setPrice(room.getPrice());
+				Room savedRoom = roomRepository.save(persisted);
+				attachImages(savedRoom, images);
+				savedRoom.setImageUploadErrors(failedUploads(uploads));
+				return universalResponse("Room updated successfully!", savedRoom, HttpStatus.OK);
+			});
+		} catch (RuntimeException e) {
+			imageUploadService.releaseAll(images);
+			throw e;
 		}
-		if (room.getStatus() != null) {
-			persisted.setStatus(room.getStatus());
+		if (!response.getStatusCode().is2xxSuccessful()) {
+			imageUploadService.releaseAll(images);
 		}
-		persisted.setCapacity(room.getCapacity());
-		persisted.setBedType(room.getBedType());
-		persisted.setViewType(room.getViewType());
-		persisted.setDescription(room.getDescription());
-		persisted.setAmenities(room.getAmenities());
+		return response;
+	}
+
+	// One JDBC batch for all new rows; RoomImage uses IDENTITY ids, which disables Hibernate's insert batching.
+	private void attachImages(Room room, List<ImageVariants> images) {
+		if (images.isEmpty()) {
+			return;
+		}
+		entityManager.flush();
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO room_image (image_url, card_url, thumbnail_url, room_id) VALUES (?, ?, ?, ?)",
+				images.stream()
+						.map(image -> new Object[] { image.fullUrl(), image.cardUrl(), image.thumbnailUrl(), room.getId() })
+						.toList());
+		entityManager.refresh(room);
+	}
+
+	private List<ImageVariants> uploadedImages(List<ImageUploadResult> uploads) {
+		return uploads.stream().filter(ImageUploadResult::succeeded).map(ImageUploadResult::variants).toList();
+	}
 
-		Room savedRoom = roomRepository.save(persisted);
-		return universalResponse("Room updated successfully!", savedRoom, HttpStatus.OK);
+	private List<ImageUploadResult> failedUploads(List<ImageUploadResult> uploads) {
+		return uploads.stream().filter(upload -> !upload.succeeded()).toList();
 	}
 
 	private ResponseEntity<?> universalResponse(String message, Object data, HttpStatus httpStatus) {
-		responseWrapper.setMessage(message);
-		responseWrapper.setData(data);
-		return new ResponseEntity<>(responseWrapper, httpStatus);
+		return new ResponseEntity<>(MyResponseWrapper.of(message, data), httpStatus);
 	}
 }
@@ -0,0 +1,65 @@
+package com.stayease.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.stayease.dto.RoomImageView;
+import com.stayease.dto.RoomView;
+import com.stayease.repositories.RoomImageRepository;
+import com.stayease.repositories.RoomRepository;
+
+import lombok.RequiredArgsConstructor;
+
+// Fills in images and amenities for a page of projected rooms with two queries instead of two per room.
+@Component
+@RequiredArgsConstructor
+public class RoomViewLoader {
+
+	private final RoomRepository roomRepository;
+	private final RoomImageRepository roomImageRepository;
+
+	public List<RoomView> withCollections(List<RoomView> rooms) {
+		if (rooms.isEmpty()) {
+			return rooms;
+		}
+		List<Long> roomIds = rooms.stream().map(RoomView::id).distinct().toList();
+		Map<Long, List<String>> amenities = amenitiesFor(roomIds);
+		Map<Long, List<RoomImageView>> images = imagesFor(roomIds);
+
+		List<RoomView> loaded = new ArrayList<>(rooms.size());
+		for (RoomView room : rooms) {
+			loaded.add(room.withCollections(amenities.getOrDefault(room.id(), List.of()), images.getOrDefault(room.id(), List.of())));
+		}
+		return loaded;
+	}
+
+	public RoomView withCollections(RoomView room) {
+		return withCollections(List.of(room)).get(0);
+	}
+
+	public Map<Long, List<String>> amenitiesFor(List<Long> roomIds) {
+		Map<Long, List<String>> amenities = new HashMap<>();
+		if (roomIds.isEmpty()) {
+			return amenities;
+		}
+		for (Object[] row : roomRepository.findAmenitiesByRoomIds(roomIds)) {
+			amenities.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+		}
+		return amenities;
+	}
+
+	public Map<Long, List<RoomImageView>> imagesFor(List<Long> roomIds) {
+		Map<Long, List<RoomImageView>> images = new HashMap<>();
+		if (roomIds.isEmpty()) {
+			return images;
+		}
+		for (RoomImageView image : roomImageRepository.findViewsByRoomIds(roomIds)) {
+			images.computeIfAbsent(image.roomId(), id -> new ArrayList<>()).add(image);
+		}
+		return images;
+	}
+}
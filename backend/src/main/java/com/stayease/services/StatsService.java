@@ -22,15 +22,12 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class StatsService {
 
-    private final MyResponseWrapper responseWrapper;
     private final HotelRepository hotelRepository;
     private final RoomRepository roomRepository;
     private final StayEaseFeedbackRepository stayEaseFeedbackRepository;
 
     private ResponseEntity<?> universalResponse(String message, Object data, HttpStatus httpStatus) {
-        responseWrapper.setMessage(message);
-        responseWrapper.setData(data);
-        return new ResponseEntity<>(responseWrapper, httpStatus);
+        return new ResponseEntity<>(MyResponseWrapper.of(message, data), httpStatus);
     }
 
     public ResponseEntity<?> getStats() {
@@ -21,14 +21,11 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class StayEaseFeedbackService {
 
-    private final MyResponseWrapper responseWrapper;
     private final StayEaseFeedbackRepository stayEaseFeedbackRepository;
     private final AppUserRepository appUserRepository;
 
     private ResponseEntity<?> universalResponse(String message, Object data, HttpStatus httpStatus) {
-        responseWrapper.setMessage(message);
-        responseWrapper.setData(data);
-        return new ResponseEntity<>(responseWrapper, httpStatus);
+        return new ResponseEntity<>(MyResponseWrapper.of(message, data), httpStatus);
     }
 
     @Transactional
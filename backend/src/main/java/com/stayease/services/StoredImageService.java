@@ -0,0 +1,140 @@
+package com.stayease.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.stayease.dto.ImageVariants;
+import com.stayease.models.StoredImage;
+import com.stayease.repositories.StoredImageRepository;
+import com.stayease.storage.ImageStore;
+
+// Reference counts uploads by content hash so identical photos are stored once and deleted once nothing uses them.
+@Service
+public class StoredImageService {
+
+	private final StoredImageRepository storedImageRepository;
+	private final ImageStore imageStore;
+	private final TransactionTemplate transactionTemplate;
+	private final TransactionTemplate newTransaction;
+	private final int batchSize;
+	private final Duration gracePeriod;
+
+	public StoredImageService(
+			StoredImageRepository storedImageRepository,
+			ImageStore imageStore,
+			PlatformTransactionManager transactionManager,
+			@Value("${app.images.gc.batch-size:100}") int batchSize,
+			@Value("${app.images.gc.grace-minutes:60}") long graceMinutes) {
+		this.storedImageRepository = storedImageRepository;
+		this.imageStore = imageStore;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.newTransaction = new TransactionTemplate(transactionManager);
+		this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.batchSize = batchSize;
+		this.gracePeriod = Duration.ofMinutes(graceMinutes);
+	}
+
+	// Joins the caller's transaction when there is one, as for hotel and profile pictures, so the reference rolls back
+	// with the row that would have held it. Room photos are acquired on upload workers with no transaction; RoomService
+	// releases those references itself when the room is not saved.
+	public Optional<ImageVariants> acquire(String contentHash) {
+		return transactionTemplate.execute(status -> {
+			if (storedImageRepository.acquire(contentHash, Instant.now()) == 0) {
+				return Optional.<ImageVariants>empty();
+			}
+			return storedImageRepository.findByContentHash(contentHash).map(StoredImageService::toVariants);
+		});
+	}
+
+	// Records a fresh upload and references it; if another request stored the same content first, its URLs win.
+	public ImageVariants register(String contentHash, ImageVariants uploaded) {
+		newTransaction.executeWithoutResult(status -> storedImageRepository.register(contentHash,
+				uploaded.thumbnailUrl(), uploaded.cardUrl(), uploaded.fullUrl(), Instant.now()));
+		return acquire(contentHash).orElseThrow(
+				() -> new IllegalStateException("Stored image " + contentHash + " was collected before it could be referenced"));
+	}
+
+	// Accepts any full-size or card URL; URLs uploaded before deduplication have no row and are left alone.
+	public void release(Collection<String> urls) {
+		Map<String, Integer> counts = new LinkedHashMap<>();
+		for (String url : urls) {
+			if (url != null && !url.isEmpty()) {
+				counts.merge(url, 1, Integer::sum);
+			}
+		}
+		if (counts.isEmpty()) {
+			return;
+		}
+		transactionTemplate.executeWithoutResult(status -> {
+			Instant now = Instant.now();
+			counts.forEach((url, count) -> storedImageRepository.release(url, count, now));
+		});
+	}
+
+	@Scheduled(fixedDelayString = "${app.images.gc.interval-ms:600000}")
+	public void collectUnreferenced() {
+		List<StoredImage> collected;
+		do {
+			Instant before = Instant.now().minus(gracePeriod);
+			collected = newTransaction.execute(status -> {
+				List<StoredImage> unreferenced = storedImageRepository.lockUnreferenced(before, batchSize);
+				if (unreferenced.isEmpty()) {
+					return unreferenced;
+				}
+				storedImageRepository.deleteAllInBatch(unreferenced);
+				Set<String> urls = new LinkedHashSet<>();
+				for (StoredImage image : unreferenced) {
+					urls.addAll(List.of(image.getThumbnailUrl(), image.getCardUrl(), image.getFullUrl()));
+				}
+				// Blobs go while the batch is still locked, and only those no surviving row points at.
+				for (String url : urls) {
+					if (storedImageRepository.countReferences(url) == 0) {
+						deleteBlob(url, before);
+					}
+				}
+				return unreferenced;
+			});
+		} while (collected.size() == batchSize);
+	}
+
+	// For uploads that never got a row of their own, e.g. the loser of a concurrent register or a partial variant set.
+	public void deleteUnreferenced(Collection<String> urls) {
+		transactionTemplate.executeWithoutResult(status -> {
+			for (String url : new LinkedHashSet<>(urls)) {
+				if (storedImageRepository.countReferences(url) == 0) {
+					try {
+						imageStore.delete(url);
+					} catch (Exception e) {
+						System.err.println("Failed to delete orphaned image " + url + ": " + e.getMessage());
+					}
+				}
+			}
+		});
+	}
+
+	private void deleteBlob(String url, Instant cutoff) {
+		try {
+			imageStore.deleteIfUnusedSince(url, cutoff);
+		} catch (Exception e) {
+			System.err.println("Failed to delete unreferenced image " + url + ": " + e.getMessage());
+		}
+	}
+
+	private static ImageVariants toVariants(StoredImage image) {
+		return new ImageVariants(image.getThumbnailUrl(), image.getCardUrl(), image.getFullUrl());
+	}
+}
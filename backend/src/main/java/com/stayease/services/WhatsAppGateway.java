@@ -0,0 +1,233 @@
+package com.stayease.services;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stayease.dto.WhatsAppMessage;
+import com.stayease.resilience.DependencyGuard;
+import com.stayease.resilience.DependencyGuards;
+
+import jakarta.annotation.PreDestroy;
+
+@Component
+public class WhatsAppGateway {
+
+	private final ObjectMapper objectMapper;
+	private final DependencyGuard guard;
+	private final URI sendMessageUri;
+	private final URI sendMessagesUri;
+	private final Duration requestTimeout;
+	private final int batchSize;
+	private final long lingerMillis;
+
+	private final Semaphore permits;
+	private final BlockingQueue<Pending> pending;
+	private final ExecutorService httpExecutor;
+	private final HttpClient httpClient;
+	private final Thread dispatcher;
+
+	private volatile boolean bulkSupported = true;
+
+	public WhatsAppGateway(
+			ObjectMapper objectMapper,
+			DependencyGuards dependencyGuards,
+			@Value("${whatsapp.server.url:http://localhost:5000}") String serverUrl,
+			@Value("${app.whatsapp.connect-timeout-ms:3000}") long connectTimeoutMillis,
+			@Value("${app.whatsapp.request-timeout-ms:15000}") long requestTimeoutMillis,
+			@Value("${app.whatsapp.max-concurrent-requests:4}") int maxConcurrentRequests,
+			@Value("${app.whatsapp.max-pending:1000}") int maxPending,
+			@Value("${app.whatsapp.batch.size:20}") int batchSize,
+			@Value("${app.whatsapp.batch.linger-ms:100}") long lingerMillis) {
+		this.objectMapper = objectMapper;
+		this.guard = dependencyGuards.get(DependencyGuards.WHATSAPP);
+		String baseUrl = serverUrl.endsWith("/") ? serverUrl.substring(0, serverUrl.length() - 1) : serverUrl;
+		this.sendMessageUri = URI.create(baseUrl + "/send-message");
+		this.sendMessagesUri = URI.create(baseUrl + "/send-messages");
+		this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+		this.batchSize = Math.max(1, batchSize);
+		this.lingerMillis = lingerMillis;
+		this.permits = new Semaphore(maxConcurrentRequests);
+		this.pending = new LinkedBlockingQueue<>(maxPending);
+
+		AtomicInteger threadCount = new AtomicInteger();
+		this.httpExecutor = Executors.newFixedThreadPool(Math.max(2, maxConcurrentRequests), runnable -> {
+			Thread thread = new Thread(runnable, "whatsapp-http-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		// HTTP/1.1 keeps connections alive in the client's pool; the semaphore caps how many are in use.
+		this.httpClient = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+				.executor(httpExecutor)
+				.build();
+
+		this.dispatcher = new Thread(this::dispatchLoop, "whatsapp-dispatcher");
+		this.dispatcher.setDaemon(true);
+		this.dispatcher.start();
+	}
+
+	@PreDestroy
+	void shutdown() {
+		dispatcher.interrupt();
+		httpExecutor.shutdown();
+		Pending message;
+		while ((message = pending.poll()) != null) {
+			message.result.completeExceptionally(new IllegalStateException("WhatsApp gateway is shutting down"));
+		}
+	}
+
+	// Never blocks the caller: the message is queued and coalesced into a bulk request by the dispatcher.
+	public CompletableFuture<Void> send(String phoneNumber, String message) {
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		if (phoneNumber == null || phoneNumber.isEmpty()) {
+			result.completeExceptionally(new IllegalArgumentException("Phone number is required"));
+		} else if (!pending.offer(new Pending(new WhatsAppMessage(phoneNumber, message), result))) {
+			result.completeExceptionally(new IllegalStateException("WhatsApp send queue is full"));
+		}
+		return result;
+	}
+
+	public List<CompletableFuture<Void>> sendAll(List<WhatsAppMessage> messages) {
+		List<CompletableFuture<Void>> results = new ArrayList<>(messages.size());
+		for (WhatsAppMessage message : messages) {
+			results.add(send(message.phone(), message.message()));
+		}
+		return results;
+	}
+
+	private void dispatchLoop() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				List<Pending> batch = new ArrayList<>(batchSize);
+				batch.add(pending.take());
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+				while (batch.size() < batchSize) {
+					Pending next = pending.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				if (batch.size() > 1 && bulkSupported) {
+					permits.acquire();
+					sendBatch(batch).whenComplete((ignored, error) -> permits.release());
+				} else {
+					for (Pending message : batch) {
+						permits.acquire();
+						sendSingle(message).whenComplete((ignored, error) -> permits.release());
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// The returned future always completes normally; the outcome is reported through the message's own future.
+	private CompletableFuture<Void> sendSingle(Pending message) {
+		return post(sendMessageUri, Map.of("phone", message.message.phone(), "message", message.message.message()))
+				.handle((response, error) -> {
+					if (error != null) {
+						message.result.completeExceptionally(error);
+					} else if (response.statusCode() / 100 != 2) {
+						message.result.completeExceptionally(new IllegalStateException(
+								"WhatsApp send-message returned " + response.statusCode()));
+					} else {
+						message.result.complete(null);
+					}
+					return null;
+				});
+	}
+
+	private CompletableFuture<Void> sendBatch(List<Pending> batch) {
+		List<WhatsAppMessage> messages = batch.stream().map(Pending::message).toList();
+		return post(sendMessagesUri, Map.of("messages", messages))
+				.handle((response, error) -> {
+					if (error != null) {
+						batch.forEach(message -> message.result.completeExceptionally(error));
+					} else if (response.statusCode() == 404) {
+						// Older gateways only expose /send-message; remember that and resend one by one.
+						bulkSupported = false;
+						return sendSequentially(batch);
+					} else if (response.statusCode() / 100 != 2) {
+						IllegalStateException failure = new IllegalStateException("WhatsApp send-messages returned " + response.statusCode());
+						batch.forEach(message -> message.result.completeExceptionally(failure));
+					} else {
+						completeBatch(batch, response.body());
+					}
+					return CompletableFuture.<Void>completedFuture(null);
+				})
+				.thenCompose(next -> next);
+	}
+
+	private CompletableFuture<Void> sendSequentially(List<Pending> batch) {
+		CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+		for (Pending message : batch) {
+			chain = chain.thenCompose(ignored -> sendSingle(message));
+		}
+		return chain;
+	}
+
+	private void completeBatch(List<Pending> batch, String body) {
+		try {
+			JsonNode results = objectMapper.readTree(body).path("results");
+			for (int i = 0; i < batch.size(); i++) {
+				JsonNode result = results.path(i);
+				if (result.path("success").asBoolean(false)) {
+					batch.get(i).result.complete(null);
+				} else {
+					String reason = result.path("msg").asText("no result returned");
+					batch.get(i).result.completeExceptionally(new IllegalStateException("WhatsApp send failed: " + reason));
+				}
+			}
+		} catch (Exception e) {
+			batch.forEach(message -> message.result.completeExceptionally(e));
+		}
+	}
+
+	private CompletableFuture<HttpResponse<String>> post(URI uri, Object body) {
+		try {
+			HttpRequest request = HttpRequest.newBuilder(uri)
+					.timeout(requestTimeout)
+					.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+					.build();
+			// 5xx means the gateway itself is degraded, so it has to count against the circuit breaker.
+			return guard.callAsync(() -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+					.thenApply(response -> {
+						if (response.statusCode() >= 500) {
+							throw new ResponseStatusException(HttpStatusCode.valueOf(response.statusCode()),
+									"WhatsApp gateway returned " + response.statusCode());
+						}
+						return response;
+					}));
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	private record Pending(WhatsAppMessage message, CompletableFuture<Void> result) {
+	}
+}
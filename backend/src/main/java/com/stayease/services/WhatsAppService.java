@@ -1,15 +1,9 @@
 package com.stayease.services;
 
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.CompletionException;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import com.stayease.models.AppUser;
 import com.stayease.models.Booking;
@@ -22,20 +16,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class WhatsAppService {
 
-	private final RestTemplate restTemplate;
-
-	@Value("${whatsapp.server.url:http://localhost:5000}")
-	private String whatsappServerUrl;
-
-	public void sendBookingConfirmation(Booking booking, AppUser user, Hotel hotel, Room room) {
-		try {
-			String phoneNumber = formatPhoneNumber(user.getContactNumber());
-			String message = createBookingMessage(booking, user, hotel, room);
-			sendMessage(phoneNumber, message);
-		} catch (Exception e) {
-			System.err.println("Failed to send WhatsApp message: " + e.getMessage());
-		}
-	}
+	private final WhatsAppGateway whatsAppGateway;
 
 	public void sendHotelWelcome(Hotel hotel) {
 		try {
@@ -48,24 +29,34 @@ public class WhatsAppService {
 	}
 
 
-	private void sendMessage(String phoneNumber, String message) {
-		try {
-			HttpHeaders headers = new HttpHeaders();
-			headers.setContentType(MediaType.APPLICATION_JSON);
+	public String bookingConfirmationPhone(AppUser user) {
+		return formatPhoneNumber(user.getContactNumber());
+	}
 
-			Map<String, String> requestBody = new HashMap<>();
-			requestBody.put("phone", phoneNumber);
-			requestBody.put("message", message);
+	public String bookingConfirmationMessage(Booking booking, AppUser user, Hotel hotel, Room room) {
+		return createBookingMessage(booking, user, hotel, room);
+	}
 
-			HttpEntity<Map<String, String>> request = new HttpEntity<>(requestBody, headers);
-			String url = whatsappServerUrl + "/send-message";
-			var response = restTemplate.postForEntity(url, request, Map.class);
-			System.out.println("WhatsApp send-message status: " + response.getStatusCode());
-		} catch (Exception e) {
-			System.err.println("Error sending WhatsApp message: " + e.getMessage());
+	// Called from the outbox workers, so waiting here never holds a request thread.
+	public void deliverMessage(String phoneNumber, String message) {
+		try {
+			whatsAppGateway.send(phoneNumber, message).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException("WhatsApp send failed: " + e.getCause().getMessage(), e.getCause());
 		}
 	}
 
+	private void sendMessage(String phoneNumber, String message) {
+		whatsAppGateway.send(phoneNumber, message).whenComplete((ignored, error) -> {
+			if (error != null) {
+				System.err.println("Error sending WhatsApp message: " + error.getMessage());
+			}
+		});
+	}
+
 	private String formatPhoneNumber(String contactNumber) {
 		String cleaned = contactNumber == null ? "" : contactNumber.replaceAll("[^0-9]", "");
 		if (cleaned.isEmpty()) return cleaned;
@@ -1,20 +1,28 @@
 package com.stayease.services;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.stayease.MyResponseWrapper;
-import com.stayease.models.AppUser;
-import com.stayease.models.Room;
-import com.stayease.models.WishList;
-import com.stayease.repositories.AppUserRepository;
+import com.stayease.cache.LruCache;
+import com.stayease.dto.RoomView;
+import com.stayease.dto.WishListView;
 import com.stayease.repositories.RoomRepository;
 import com.stayease.repositories.WishListRepository;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -22,48 +30,106 @@ import lombok.RequiredArgsConstructor;
 public class WishListService {
 
 	private final WishListRepository wishListRepository;
-	private final AppUserRepository appUserRepository;
 	private final RoomRepository roomRepository;
-	private final MyResponseWrapper responseWrapper;
+	private final RoomViewLoader roomViewLoader;
 
+	@Value("${app.wishlist.cached-users:10000}")
+	private int cachedUsers;
+
+	// Sorted room ids per user, evicted after every committed add or remove. A load that overlaps an eviction is not
+	// cached, since it may have read the rows from before that commit.
+	private LruCache<Long, long[]> roomIdsByUser;
+	private final AtomicLong evictions = new AtomicLong();
+
+	@PostConstruct
+	void init() {
+		roomIdsByUser = new LruCache<>(cachedUsers);
+	}
+
+	// Adding a room twice is a no-op that returns the existing item; the insert itself checks the user and room exist.
+	@Transactional
 	public ResponseEntity<?> addToWishList(Long userId, Long roomId) {
-		Optional<AppUser> user = appUserRepository.findById(userId);
-		Optional<Room> room = roomRepository.findById(roomId);
-		if (user.isPresent() && room.isPresent()) {
-			AppUser existingUser = user.get();
-			Room existingRoom = room.get();
-			WishList wishList = new WishList();
-			wishList.setUser(existingUser);
-			wishList.setRoom(existingRoom);
-			wishListRepository.save(wishList);
-			return universalResponse("Room added to wishlist successfully!", wishList, HttpStatus.OK);
-		} else {
+		if (!isWishlisted(userId, roomId)) {
+			wishListRepository.insertIgnore(userId, roomId);
+			evictAfterCommit(userId);
+		}
+		Optional<WishListView> view = wishListRepository.findViewByUserIdAndRoomId(userId, roomId);
+		if (view.isEmpty()) {
 			return universalResponse("User or Room not found!", null, HttpStatus.NOT_FOUND);
 		}
+		return universalResponse("Room added to wishlist successfully!", withRoomCollections(view.get()), HttpStatus.OK);
 	}
 
+	@Transactional
 	public ResponseEntity<?> getUserWishlist(long userId) {
-		List<WishList> wishlist = wishListRepository.findByUser_Id(userId);
+		roomRepository.syncStatusesByWishListUserId(userId, Instant.now());
+		List<WishListView> wishlist = wishListRepository.findViewsByUserId(userId);
 		if (wishlist.isEmpty()) {
 			return universalResponse("No wishlist items found for this user.", wishlist, HttpStatus.NOT_FOUND);
 		}
-		return universalResponse("Following wishlist items found for this user", wishlist, HttpStatus.OK);
+		List<RoomView> rooms = roomViewLoader.withCollections(wishlist.stream().map(WishListView::room).toList());
+		List<WishListView> items = new ArrayList<>(wishlist.size());
+		for (int i = 0; i < wishlist.size(); i++) {
+			items.add(wishlist.get(i).withRoom(rooms.get(i)));
+		}
+		return universalResponse("Following wishlist items found for this user", items, HttpStatus.OK);
+	}
+
+	public ResponseEntity<?> getWishlistRoomIds(long userId) {
+		return universalResponse("Following wishlisted room ids found for this user", roomIds(userId), HttpStatus.OK);
 	}
 	
+	@Transactional
 	public ResponseEntity<?> removeFromWishlist(long wishListId) {
-       boolean wishlist = wishListRepository.existsById(wishListId);
-       if(wishlist) {
-    	   wishListRepository.deleteById(wishListId);
-			return universalResponse("Room removed from wishlist!", wishlist, HttpStatus.OK);
-
-       } else{
+		Optional<Long> userId = wishListRepository.findUserIdById(wishListId);
+		if (userId.isEmpty()) {
 			return universalResponse("Wishlist item not found!", null, HttpStatus.NOT_FOUND);
-       }
-    }
+		}
+		wishListRepository.deleteById(wishListId);
+		evictAfterCommit(userId.get());
+		return universalResponse("Room removed from wishlist!", true, HttpStatus.OK);
+	}
+
+	public boolean isWishlisted(long userId, long roomId) {
+		return Arrays.binarySearch(roomIds(userId), roomId) >= 0;
+	}
+
+	private long[] roomIds(long userId) {
+		long[] cached = roomIdsByUser.get(userId);
+		if (cached != null) {
+			return cached;
+		}
+		long generation = evictions.get();
+		long[] loaded = wishListRepository.findRoomIdsByUserId(userId).stream().mapToLong(Long::longValue).sorted().toArray();
+		roomIdsByUser.put(userId, loaded);
+		if (evictions.get() != generation) {
+			roomIdsByUser.remove(userId, loaded);
+		}
+		return loaded;
+	}
+
+	private void evictAfterCommit(long userId) {
+		Runnable eviction = () -> {
+			evictions.incrementAndGet();
+			roomIdsByUser.remove(userId);
+		};
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					eviction.run();
+				}
+			});
+		} else {
+			eviction.run();
+		}
+	}
+
+	private WishListView withRoomCollections(WishListView item) {
+		return item.withRoom(roomViewLoader.withCollections(item.room()));
+	}
 
 	private ResponseEntity<?> universalResponse(String message, Object data, HttpStatus httpStatus) {
-		responseWrapper.setMessage(message);
-		responseWrapper.setData(data);
-		return new ResponseEntity<>(responseWrapper, httpStatus);
+		return new ResponseEntity<>(MyResponseWrapper.of(message, data), httpStatus);
 	}
 }
@@ -0,0 +1,122 @@
+package com.stayease.specifications;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+// Selects only the requested columns for a ?fields= list request; rows come back as ordered maps so only those keys are written.
+// Each field maps to one attribute path ("price") or, for nested objects, to several ("address.city", "address.state").
+public class SparseFieldset {
+
+	private final Set<String> fields;
+	private final Map<String, List<String>> columns;
+
+	private SparseFieldset(Set<String> fields, Map<String, List<String>> columns) {
+		this.fields = fields;
+		this.columns = columns;
+	}
+
+	// The id is always selected so clients can link rows and callers can load collections for them.
+	public static SparseFieldset parse(String fields, Map<String, List<String>> allowed) {
+		Set<String> requested = new LinkedHashSet<>();
+		requested.add("id");
+		for (String field : fields.split(",")) {
+			String name = field.trim();
+			if (name.isEmpty()) {
+				continue;
+			}
+			if (!allowed.containsKey(name)) {
+				throw new IllegalArgumentException("Unknown field '" + name + "'. Allowed fields: " + String.join(", ", allowed.keySet()));
+			}
+			requested.add(name);
+		}
+		Map<String, List<String>> columns = new LinkedHashMap<>();
+		for (String name : requested) {
+			if (!allowed.get(name).isEmpty()) {
+				columns.put(name, allowed.get(name));
+			}
+		}
+		return new SparseFieldset(requested, columns);
+	}
+
+	public boolean includes(String field) {
+		return fields.contains(field);
+	}
+
+	public <T> List<Map<String, Object>> fetch(EntityManager entityManager, Class<T> type, Specification<T> specification) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<T> root = query.from(type);
+		Map<String, Join<?, ?>> joins = new HashMap<>();
+		List<Selection<?>> selections = new ArrayList<>();
+		for (List<String> paths : columns.values()) {
+			for (String path : paths) {
+				selections.add(path(root, joins, path).alias(path));
+			}
+		}
+		query.multiselect(selections);
+		if (specification != null) {
+			Predicate predicate = specification.toPredicate(root, query, cb);
+			if (predicate != null) {
+				query.where(predicate);
+			}
+		}
+
+		List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+		List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+		for (Tuple tuple : tuples) {
+			rows.add(toRow(tuple));
+		}
+		return rows;
+	}
+
+	private Map<String, Object> toRow(Tuple tuple) {
+		Map<String, Object> row = new LinkedHashMap<>();
+		for (Map.Entry<String, List<String>> column : columns.entrySet()) {
+			List<String> paths = column.getValue();
+			if (paths.size() == 1 && paths.get(0).indexOf('.') < 0) {
+				row.put(column.getKey(), tuple.get(paths.get(0)));
+				continue;
+			}
+			Map<String, Object> nested = new LinkedHashMap<>();
+			boolean present = false;
+			for (String path : paths) {
+				Object value = tuple.get(path);
+				nested.put(path.substring(path.lastIndexOf('.') + 1), value);
+				present |= value != null;
+			}
+			row.put(column.getKey(), present ? nested : null);
+		}
+		return row;
+	}
+
+	// Nested paths reuse one left join per association, so a missing address or manager yields nulls rather than dropping the row.
+	private Path<?> path(Root<?> root, Map<String, Join<?, ?>> joins, String path) {
+		String[] segments = path.split("\\.");
+		From<?, ?> from = root;
+		for (int i = 0; i < segments.length - 1; i++) {
+			From<?, ?> parent = from;
+			String segment = segments[i];
+			from = joins.computeIfAbsent(segment, name -> parent.join(name, JoinType.LEFT));
+		}
+		return from.get(segments[segments.length - 1]);
+	}
+}
@@ -0,0 +1,34 @@
+package com.stayease.storage;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.stayease.services.CloudinaryService;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.images.store", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryImageStore implements ImageStore {
+
+	private final CloudinaryService cloudinaryService;
+
+	@Override
+	public String store(File file, String folder) throws IOException {
+		return cloudinaryService.uploadFile(file, folder);
+	}
+
+	@Override
+	public String store(byte[] bytes, String folder) throws IOException {
+		return cloudinaryService.uploadBytes(bytes, folder);
+	}
+
+	@Override
+	public void delete(String url) throws IOException {
+		cloudinaryService.deleteImage(url);
+	}
+}
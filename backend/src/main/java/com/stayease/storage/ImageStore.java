@@ -0,0 +1,20 @@
+package com.stayease.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+
+public interface ImageStore {
+
+	// Both store methods return the public URL of the stored image.
+	String store(File file, String folder) throws IOException;
+
+	String store(byte[] bytes, String folder) throws IOException;
+
+	void delete(String url) throws IOException;
+
+	// Stores that hand the same URL to identical content skip blobs stored or reused after the cutoff.
+	default void deleteIfUnusedSince(String url, Instant cutoff) throws IOException {
+		delete(url);
+	}
+}
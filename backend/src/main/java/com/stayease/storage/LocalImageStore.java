@@ -0,0 +1,161 @@
+package com.stayease.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Content-addressed blobs under <root>/ab/cd/<sha256>.<ext>, served by UploadController.
+@Component
+@ConditionalOnProperty(name = "app.images.store", havingValue = "local")
+public class LocalImageStore implements ImageStore {
+
+	private static final Pattern KEY = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.(jpg|png|gif|webp|bin)");
+
+	private final Path root;
+	private final String baseUrl;
+
+	public LocalImageStore(
+			@Value("${app.images.local.root:uploads}") String root,
+			@Value("${app.images.local.base-url:http://localhost:8081/uploads}") String baseUrl) throws IOException {
+		this.root = Path.of(root).toAbsolutePath().normalize();
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+		Files.createDirectories(this.root.resolve("tmp"));
+	}
+
+	@Override
+	public String store(File file, String folder) throws IOException {
+		try (InputStream input = Files.newInputStream(file.toPath())) {
+			return store(input);
+		}
+	}
+
+	@Override
+	public String store(byte[] bytes, String folder) throws IOException {
+		try (InputStream input = new ByteArrayInputStream(bytes)) {
+			return store(input);
+		}
+	}
+
+	@Override
+	public void delete(String url) throws IOException {
+		Optional<Path> path = pathForUrl(url);
+		if (path.isPresent()) {
+			Files.deleteIfExists(path.get());
+		}
+	}
+
+	// A reused blob's modification time is refreshed by store, so a row registered after the collector picked its batch keeps it.
+	@Override
+	public void deleteIfUnusedSince(String url, Instant cutoff) throws IOException {
+		Optional<Path> path = pathForUrl(url);
+		if (path.isEmpty()) {
+			return;
+		}
+		try {
+			if (Files.getLastModifiedTime(path.get()).toInstant().isBefore(cutoff)) {
+				Files.deleteIfExists(path.get());
+			}
+		} catch (NoSuchFileException e) {
+			// Already gone.
+		}
+	}
+
+	public Optional<Path> resolve(String key) {
+		if (key == null || !KEY.matcher(key).matches()) {
+			return Optional.empty();
+		}
+		return Optional.of(root.resolve(key));
+	}
+
+	private Optional<Path> pathForUrl(String url) {
+		if (url == null || !url.startsWith(baseUrl + "/")) {
+			return Optional.empty();
+		}
+		return resolve(url.substring(baseUrl.length() + 1));
+	}
+
+	// Hashes while copying into a temp file, then renames into place; an identical blob is simply reused.
+	private String store(InputStream input) throws IOException {
+		Path temp = Files.createTempFile(root.resolve("tmp"), "upload-", ".tmp");
+		try {
+			MessageDigest sha256 = sha256();
+			byte[] head = new byte[12];
+			int headLength;
+			try (OutputStream output = new DigestOutputStream(Files.newOutputStream(temp), sha256)) {
+				headLength = input.readNBytes(head, 0, head.length);
+				output.write(head, 0, headLength);
+				input.transferTo(output);
+			}
+			String hash = HexFormat.of().formatHex(sha256.digest());
+			String key = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + "." + extension(head, headLength);
+			Path target = root.resolve(key);
+			if (!touch(target)) {
+				Files.createDirectories(target.getParent());
+				try {
+					Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+				} catch (FileAlreadyExistsException e) {
+					// Another request stored the same content first.
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+			return baseUrl + "/" + key;
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private static boolean touch(Path target) throws IOException {
+		try {
+			Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+			return true;
+		} catch (NoSuchFileException e) {
+			return false;
+		}
+	}
+
+	private static String extension(byte[] head, int length) {
+		if (length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+			return "jpg";
+		}
+		if (length >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+			return "png";
+		}
+		if (length >= 6 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8') {
+			return "gif";
+		}
+		if (length >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+				&& head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+			return "webp";
+		}
+		return "bin";
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package com.stayease.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LruCacheTest {
+
+	@Test
+	void evictsOnlyTheLeastRecentlyUsedEntryWhenFull() {
+		LruCache<String, Integer> cache = new LruCache<>(2);
+		cache.put("a", 1);
+		cache.put("b", 2);
+		cache.get("a");
+
+		cache.put("c", 3);
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals(3, cache.get("c"));
+	}
+
+	@Test
+	void conditionalRemoveLeavesANewerValueInPlace() {
+		LruCache<String, Integer> cache = new LruCache<>(4);
+		cache.put("a", 1);
+		cache.put("a", 2);
+
+		assertFalse(cache.remove("a", 1));
+		assertTrue(cache.remove("a", 2));
+		assertNull(cache.get("a"));
+	}
+}
@@ -0,0 +1,94 @@
+package com.stayease.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+class BoundedPasswordEncoderTest {
+
+	@Test
+	void encodesAndMatchesThroughThePool() {
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, 5000);
+		try {
+			String hash = encoder.encode("s3cret");
+
+			assertTrue(encoder.matches("s3cret", hash));
+			assertFalse(encoder.matches("wrong", hash));
+			assertEquals(3L, encoder.getMetrics().get("completed"));
+		} finally {
+			encoder.destroy();
+		}
+	}
+
+	@Test
+	void rejectsWhenTheQueueIsFullAndSkipsTimedOutQueuedWork() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger started = new AtomicInteger();
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking(release, started), 1, 1, 200);
+		ExecutorService callers = Executors.newFixedThreadPool(2);
+		try {
+			callers.submit(() -> encoder.encode("running"));
+			waitFor(() -> started.get() == 1);
+			callers.submit(() -> encoder.encode("queued"));
+			waitFor(() -> ((Integer) encoder.getMetrics().get("queueDepth")) == 1);
+
+			ResponseStatusException busy = assertThrows(ResponseStatusException.class, () -> encoder.encode("rejected"));
+			assertEquals(HttpStatus.SERVICE_UNAVAILABLE, busy.getStatusCode());
+			waitFor(() -> ((Long) encoder.getMetrics().get("timedOut")) == 2);
+
+			release.countDown();
+			waitFor(() -> ((Long) encoder.getMetrics().get("completed")) == 1);
+			Thread.sleep(50);
+			assertEquals(1, started.get(), "the timed-out queued hash must not run");
+			assertEquals(1L, encoder.getMetrics().get("rejected"));
+		} finally {
+			release.countDown();
+			callers.shutdownNow();
+			encoder.destroy();
+		}
+	}
+
+	private PasswordEncoder blocking(CountDownLatch release, AtomicInteger started) {
+		return new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				// Like a BCrypt round, ignores interrupts until the work is done.
+				started.incrementAndGet();
+				while (true) {
+					try {
+						release.await();
+						return "hash";
+					} catch (InterruptedException ignored) {
+					}
+				}
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				return false;
+			}
+		};
+	}
+
+	private void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "condition not reached in time");
+			Thread.sleep(5);
+		}
+	}
+}
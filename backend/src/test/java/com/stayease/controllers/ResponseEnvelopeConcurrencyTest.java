@@ -0,0 +1,105 @@
+package com.stayease.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stayease.dto.HotelView;
+import com.stayease.models.Admin;
+import com.stayease.repositories.AdminRepository;
+import com.stayease.repositories.HotelRepository;
+import com.stayease.services.AdminService;
+import com.stayease.services.HotelService;
+
+@ExtendWith(MockitoExtension.class)
+class ResponseEnvelopeConcurrencyTest {
+
+	private static final int THREADS = 8;
+	private static final int REQUESTS_PER_THREAD = 250;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Mock
+	private HotelRepository hotelRepository;
+
+	@Mock
+	private AdminRepository adminRepository;
+
+	@InjectMocks
+	private HotelService hotelService;
+
+	@InjectMocks
+	private AdminService adminService;
+
+	@Test
+	void parallelRequestsNeverSeeEachOthersEnvelope() throws Exception {
+		when(hotelRepository.findViewById(anyLong())).thenAnswer(invocation -> {
+			long id = invocation.getArgument(0);
+			return Optional.of(new HotelView(id, "Hotel " + id, null, null, "ACTIVE", null, null, null, null, 4.0, null, null));
+		});
+		when(adminRepository.findById(anyLong())).thenAnswer(invocation -> {
+			Admin admin = new Admin();
+			admin.setId(invocation.getArgument(0));
+			admin.setEmail("admin" + admin.getId() + "@stayease.test");
+			return Optional.of(admin);
+		});
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(
+				new HotelController(hotelService),
+				new AdminController(adminService))
+				.build();
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int thread = t;
+				workers.add(executor.submit(() -> {
+					for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+						long id = thread * 10_000L + i;
+						if (i % 2 == 0) {
+							JsonNode body = get(mockMvc, "/api/hotels/" + id);
+							assertEquals("Hotel found", body.get("message").asText());
+							assertEquals(id, body.get("data").get("id").asLong());
+							assertEquals("Hotel " + id, body.get("data").get("hotelName").asText());
+						} else {
+							JsonNode body = get(mockMvc, "/api/admin/" + id);
+							assertEquals("Admin found", body.get("message").asText());
+							assertEquals(id, body.get("data").get("id").asLong());
+							assertEquals("admin" + id + "@stayease.test", body.get("data").get("email").asText());
+						}
+					}
+					return null;
+				}));
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private JsonNode get(MockMvc mockMvc, String path) throws Exception {
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(path)).andReturn();
+		return objectMapper.readTree(result.getResponse().getContentAsString());
+	}
+}
@@ -0,0 +1,27 @@
+package com.stayease.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class BatchEntryTest {
+
+	@Test
+	void keepsRequestOrderAndMarksMisses() {
+		List<BatchEntry<String>> entries = BatchEntry.inOrder(List.of(3L, 9L, 1L, 3L), Map.of(1L, "one", 3L, "three"));
+
+		assertEquals(List.of(3L, 9L, 1L, 3L), entries.stream().map(BatchEntry::id).toList());
+		assertTrue(entries.get(0).found());
+		assertEquals("three", entries.get(0).item());
+		assertFalse(entries.get(1).found());
+		assertNull(entries.get(1).item());
+		assertEquals("one", entries.get(2).item());
+		assertEquals("three", entries.get(3).item());
+	}
+}
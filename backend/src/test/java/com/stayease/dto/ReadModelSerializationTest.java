@@ -0,0 +1,69 @@
+package com.stayease.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stayease.enums.RoomStatus;
+import com.stayease.models.Admin;
+import com.stayease.models.HotelManager;
+import com.stayease.models.User;
+
+class ReadModelSerializationTest {
+
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	@Test
+	void passwordsAreAcceptedOnInputButNeverSerialized() throws Exception {
+		HotelManager manager = objectMapper.readValue("{\"email\":\"m@stayease.test\",\"password\":\"secret\"}", HotelManager.class);
+		assertEquals("secret", manager.getPassword());
+
+		for (Object principal : List.of(manager, admin(), user())) {
+			JsonNode json = objectMapper.valueToTree(principal);
+			assertFalse(json.has("password"), principal.getClass().getSimpleName() + " leaked its password hash");
+		}
+	}
+
+	@Test
+	void hotelViewNestsOnlyTheJoinedRowsThatExist() {
+		HotelView withManager = new HotelView(1L, "Sea View", null, null, "ACTIVE", null, null, null, null, 4.5,
+				10L, "1 Beach Road", "Goa", "Goa", "403001", 20L, "Asha", "Rao", "asha@stayease.test", "9876543210");
+		assertEquals("Goa", withManager.address().city());
+		assertEquals("Asha", withManager.manager().firstname());
+
+		HotelView withoutManager = new HotelView(2L, "Hill Top", null, null, "ACTIVE", null, null, null, null, null,
+				null, null, null, null, null, null, null, null, null, null);
+		assertNull(withoutManager.address());
+		assertNull(withoutManager.manager());
+	}
+
+	@Test
+	void roomViewHidesTheImageBackReference() {
+		RoomView room = new RoomView(5L, 1L, "101", "Deluxe", 4500.0, RoomStatus.AVAILABLE, 2, "King", "Sea", null)
+				.withCollections(List.of("WiFi"), List.of(new RoomImageView(5L, 7L, "full.jpg", "card.jpg", "thumb.jpg")));
+
+		JsonNode json = objectMapper.valueToTree(room);
+		assertEquals(1L, json.get("hotelId").asLong());
+		assertEquals("card.jpg", json.get("images").get(0).get("cardUrl").asText());
+		assertFalse(json.get("images").get(0).has("roomId"));
+	}
+
+	private Admin admin() {
+		Admin admin = new Admin();
+		admin.setPassword("$2a$10$hash");
+		return admin;
+	}
+
+	private User user() {
+		User user = new User();
+		user.setPassword("$2a$10$hash");
+		return user;
+	}
+}
@@ -0,0 +1,147 @@
+package com.stayease.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.stayease.cache.LruCache;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+class JWTTokenGeneratorTest {
+
+	private static final String SECRET = "stayease-test-secret-that-is-long-enough-for-hs256-signing";
+
+	private final JWTTokenGenerator generator = new JWTTokenGenerator();
+	private final MutableClock clock = new MutableClock();
+	private final UserDetails guest = User.withUsername("guest@stayease.test").password("x").roles("USER").build();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(generator, "SECRET", SECRET);
+		ReflectionTestUtils.setField(generator, "verifiedCacheSize", 2);
+		ReflectionTestUtils.setField(generator, "clock", clock);
+		generator.init();
+	}
+
+	@Test
+	void verifiesSignatureAndReadsClaims() {
+		String token = generator.generateToken(guest, "USER", 42L);
+
+		JwtClaims claims = generator.parseToken(token);
+		assertEquals("guest@stayease.test", claims.email());
+		assertEquals("USER", claims.role());
+		assertEquals(42L, claims.userId());
+		assertTrue(generator.validateToken(token, guest));
+		assertTrue(generator.validateToken(token, 42L));
+		assertFalse(generator.validateToken(token, 43L));
+
+		String[] parts = token.split("\\.");
+		String tampered = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+		assertThrows(JwtException.class, () -> generator.parseToken(tampered));
+
+		SecretKey otherKey = Keys.hmacShaKeyFor("another-secret-that-is-also-long-enough-for-hs256".getBytes(StandardCharsets.UTF_8));
+		String forged = Jwts.builder().claim("email", "guest@stayease.test").claim("role", "ADMIN")
+				.expiration(new Date(System.currentTimeMillis() + 60_000)).signWith(otherKey).compact();
+		assertThrows(JwtException.class, () -> generator.parseToken(forged));
+	}
+
+	@Test
+	void cachedClaimsStopVerifyingOnceTheTokenExpires() {
+		SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+		String expired = Jwts.builder().claim("email", "guest@stayease.test")
+				.expiration(new Date(clock.millis() - 1000)).signWith(key).compact();
+		assertThrows(ExpiredJwtException.class, () -> generator.parseToken(expired));
+
+		String shortLived = generator.generateToken(guest, "USER", 42L);
+		JwtClaims claims = generator.parseToken(shortLived);
+		assertTrue(generator.validateToken(claims, 42L));
+
+		clock.advance(Duration.ofHours(24).plusSeconds(1));
+		assertFalse(generator.validateToken(claims, 42L));
+		assertThrows(ExpiredJwtException.class, () -> generator.parseToken(shortLived));
+	}
+
+	@Test
+	void fullCacheDropsTheLeastRecentlyUsedTokenInsteadOfClearing() {
+		String first = generator.generateToken(guest, "USER", 1L);
+		String second = generator.generateToken(guest, "USER", 2L);
+		String third = generator.generateToken(guest, "USER", 3L);
+
+		generator.parseToken(first);
+		generator.parseToken(second);
+		generator.parseToken(first);
+		generator.parseToken(third);
+
+		LruCache<String, JwtClaims> cache = verifiedTokens();
+		assertEquals(2, cache.size());
+		assertNotNull(cache.get(digest(first)));
+		assertNull(cache.get(digest(second)));
+		assertNotNull(cache.get(digest(third)));
+	}
+
+	@Test
+	void repeatedParsesAreServedFromTheVerifiedCache() {
+		String token = generator.generateToken(guest, "USER", 42L);
+
+		JwtClaims first = generator.parseToken(token);
+		assertSame(first, generator.parseToken(token));
+		assertEquals(1, verifiedTokens().size());
+	}
+
+	@SuppressWarnings("unchecked")
+	private LruCache<String, JwtClaims> verifiedTokens() {
+		return (LruCache<String, JwtClaims>) ReflectionTestUtils.getField(generator, "verifiedTokens");
+	}
+
+	private String digest(String token) {
+		return ReflectionTestUtils.invokeMethod(generator, "digest", token);
+	}
+
+	private static class MutableClock extends Clock {
+
+		private Instant now = Instant.now();
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.stayease.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class EmailTemplateTest {
+
+	private static final Map<String, String> FRAGMENTS = Map.of(
+			"footer", "<p>The {{appName}} Team</p>");
+
+	@Test
+	void foldsConstantsAndFragmentsIntoLiterals() {
+		EmailTemplate template = EmailTemplate.compile("confirmation",
+				"<h2>{{appName}}</h2><p>{{guestName}} / {{transactionId}}</p>{{>footer}}",
+				FRAGMENTS, Map.of("appName", "StayEase"));
+
+		assertEquals(2, template.getVariableNames().size());
+		assertEquals("<h2>StayEase</h2><p>Asha / TXN-42</p><p>The StayEase Team</p>",
+				template.render(Map.of("guestName", "Asha", "transactionId", "TXN-42")));
+	}
+
+	@Test
+	void escapesVariablesUnlessRaw() {
+		EmailTemplate template = EmailTemplate.compile("guest", "{{subject}}|{{{bodyHtml}}}", FRAGMENTS, Map.of());
+
+		assertEquals("&lt;b&gt;Hi &amp; bye&lt;/b&gt;|line<br>next",
+				template.render(Map.of("subject", "<b>Hi & bye</b>", "bodyHtml", "line<br>next")));
+	}
+
+	@Test
+	void rejectsMissingVariables() {
+		EmailTemplate template = EmailTemplate.compile("otp", "OTP: {{otp}}", FRAGMENTS, Map.of());
+
+		assertThrows(IllegalArgumentException.class, () -> template.render(Map.of()));
+		Map<String, Object> model = new HashMap<>();
+		model.put("otp", null);
+		assertEquals("OTP: ", template.render(model));
+	}
+
+	@Test
+	void rendersLongTemplatesTheSameWayEveryTime() {
+		EmailTemplate template = EmailTemplate.compile("confirmation",
+				"<div>".repeat(40) + "{{guestName}}" + "<p>static</p>".repeat(40) + "{{hotelName}} {{totalAmount}}{{>footer}}",
+				FRAGMENTS, Map.of("appName", "StayEase"));
+		Map<String, Object> model = Map.of("guestName", "Asha Rao", "hotelName", "Sea View", "totalAmount", "4999.00");
+
+		String expected = "<div>".repeat(40) + "Asha Rao" + "<p>static</p>".repeat(40) + "Sea View 4999.00<p>The StayEase Team</p>";
+		assertEquals(expected, template.render(model));
+		assertEquals(expected, template.render(model));
+	}
+}
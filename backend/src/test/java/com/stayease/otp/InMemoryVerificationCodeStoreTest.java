@@ -0,0 +1,72 @@
+package com.stayease.otp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class InMemoryVerificationCodeStoreTest {
+
+	private final InMemoryVerificationCodeStore store = new InMemoryVerificationCodeStore();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(store, "maxAttempts", 2);
+		ReflectionTestUtils.setField(store, "maxEntries", 100);
+	}
+
+	@Test
+	void onlyWrongCodesCountAsAttempts() {
+		store.save("Guest@StayEase.test", "123456", Duration.ofMinutes(5));
+
+		for (int i = 0; i < 5; i++) {
+			assertEquals(VerificationResult.VALID, store.verify("guest@stayease.test", "123456", false));
+		}
+		assertEquals(VerificationResult.INVALID, store.verify("guest@stayease.test", "000000", false));
+		assertEquals(VerificationResult.INVALID, store.verify("guest@stayease.test", "111111", false));
+		assertEquals(VerificationResult.TOO_MANY_ATTEMPTS, store.verify("guest@stayease.test", "123456", true));
+		assertEquals(VerificationResult.INVALID, store.verify("guest@stayease.test", "123456", true));
+	}
+
+	@Test
+	void consumingAValidCodeDeletesIt() {
+		store.save("guest@stayease.test", "123456", Duration.ofMinutes(5));
+
+		assertEquals(VerificationResult.VALID, store.verify("guest@stayease.test", "123456", true));
+		assertEquals(VerificationResult.INVALID, store.verify("guest@stayease.test", "123456", true));
+	}
+
+	@Test
+	void expiredCodesAreRejectedAndPurged() throws InterruptedException {
+		store.save("guest@stayease.test", "123456", Duration.ofMillis(1));
+		store.save("other@stayease.test", "654321", Duration.ofMillis(1));
+		Thread.sleep(10);
+
+		assertEquals(VerificationResult.EXPIRED, store.verify("guest@stayease.test", "123456", true));
+		store.purgeExpired();
+		assertEquals(0, expiries().size());
+		assertEquals(VerificationResult.INVALID, store.verify("other@stayease.test", "654321", true));
+	}
+
+	@Test
+	void resendingACodeReplacesItsExpiryEntry() {
+		for (int i = 0; i < 50; i++) {
+			store.save("guest@stayease.test", String.format("%06d", i), Duration.ofMinutes(5));
+		}
+
+		assertEquals(1, expiries().size());
+		assertEquals(VerificationResult.VALID, store.verify("guest@stayease.test", "000049", true));
+
+		store.save("guest@stayease.test", "123456", Duration.ofMinutes(5));
+		store.remove("guest@stayease.test");
+		assertEquals(0, expiries().size());
+	}
+
+	private Collection<?> expiries() {
+		return (Collection<?>) ReflectionTestUtils.getField(store, "expiries");
+	}
+}
@@ -0,0 +1,65 @@
+package com.stayease.otp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class JdbcVerificationCodeStoreTest {
+
+	private static final String INCREMENT = "UPDATE verification_code SET attempts = attempts + 1 WHERE email = ?";
+	private static final String DELETE = "DELETE FROM verification_code WHERE email = ?";
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	private final JdbcVerificationCodeStore store = new JdbcVerificationCodeStore(jdbcTemplate, transactionTemplate);
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() throws Exception {
+		ReflectionTestUtils.setField(store, "maxAttempts", 5);
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				((TransactionCallback<VerificationResult>) invocation.getArgument(0)).doInTransaction(null));
+		ResultSet row = mock(ResultSet.class);
+		when(row.getString("code")).thenReturn("123456");
+		when(row.getTimestamp("expires_at")).thenReturn(Timestamp.from(Instant.now().plusSeconds(300)));
+		when(row.getInt("attempts")).thenReturn(0);
+		when(jdbcTemplate.query(startsWith("SELECT"), any(RowMapper.class), eq("guest@stayease.test")))
+				.thenAnswer(invocation -> List.of(((RowMapper<?>) invocation.getArgument(1)).mapRow(row, 0)));
+	}
+
+	@Test
+	void successfulCheckWithoutConsumingLeavesTheAttemptCountAlone() {
+		assertEquals(VerificationResult.VALID, store.verify("Guest@StayEase.test", "123456", false));
+
+		verify(jdbcTemplate, never()).update(eq(INCREMENT), anyString());
+		verify(jdbcTemplate, never()).update(eq(DELETE), anyString());
+	}
+
+	@Test
+	void wrongCodeCountsAnAttemptAndConsumingDeletes() {
+		assertEquals(VerificationResult.INVALID, store.verify("guest@stayease.test", "000000", true));
+		verify(jdbcTemplate).update(INCREMENT, "guest@stayease.test");
+
+		assertEquals(VerificationResult.VALID, store.verify("guest@stayease.test", "123456", true));
+		verify(jdbcTemplate).update(DELETE, "guest@stayease.test");
+	}
+}
@@ -0,0 +1,55 @@
+package com.stayease.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class InMemoryRateLimitStoreTest {
+
+	private final InMemoryRateLimitStore store = new InMemoryRateLimitStore();
+	private final RateLimitPolicy login = new RateLimitPolicy("login", 3, Duration.ofMinutes(1));
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(store, "maxKeys", 2);
+	}
+
+	@Test
+	void allowsTheBurstThenReportsTheWait() {
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, store.tryAcquire("login:ip:1", login));
+		}
+		long wait = store.tryAcquire("login:ip:1", login);
+
+		assertTrue(wait > 0 && wait <= 20_000, "wait was " + wait + " ms");
+		assertEquals(0, store.tryAcquire("login:ip:2", login));
+	}
+
+	@Test
+	void rejectsNewKeysWhileFullInsteadOfDisablingLimits() {
+		store.tryAcquire("login:account:a", login);
+		store.tryAcquire("login:account:b", login);
+
+		assertTrue(store.tryAcquire("login:account:c", login) > 0);
+		assertEquals(2, store.size());
+	}
+
+	@Test
+	void idleBucketsAreEvicted() {
+		RateLimitPolicy fast = new RateLimitPolicy("fast", 1000, Duration.ofMillis(1));
+		store.tryAcquire("fast:ip:1", fast);
+		store.tryAcquire("fast:ip:2", fast);
+
+		long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+		while (store.size() > 0 && System.nanoTime() < deadline) {
+			store.evictIdleBuckets();
+		}
+		assertEquals(0, store.size());
+		assertEquals(0, store.tryAcquire("fast:ip:3", fast));
+	}
+}
@@ -0,0 +1,55 @@
+package com.stayease.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class JdbcRateLimitStoreTest {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	private final JdbcRateLimitStore store = new JdbcRateLimitStore(jdbcTemplate, transactionTemplate);
+	private final RateLimitPolicy otp = new RateLimitPolicy("otp", 2, Duration.ofSeconds(10));
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				((TransactionCallback<Long>) invocation.getArgument(0)).doInTransaction(null));
+	}
+
+	@Test
+	void advancesTheStoredArrivalTimeWhenAllowed() {
+		when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("otp:ip:1"))).thenReturn(0L);
+
+		assertEquals(0, store.tryAcquire("otp:ip:1", otp));
+		verify(jdbcTemplate).update(eq("UPDATE rate_limit_bucket SET tat = ? WHERE bucket_key = ?"), anyLong(), eq("otp:ip:1"));
+	}
+
+	@Test
+	void rejectsWithoutWritingOnceTheToleranceIsUsed() {
+		long farAhead = System.currentTimeMillis() + 10_000;
+		when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("otp:ip:1"))).thenReturn(farAhead);
+
+		long wait = store.tryAcquire("otp:ip:1", otp);
+
+		assertTrue(wait > 0 && wait <= 5_000, "wait was " + wait + " ms");
+		verify(jdbcTemplate, never()).update(eq("UPDATE rate_limit_bucket SET tat = ? WHERE bucket_key = ?"), anyLong(),
+				eq("otp:ip:1"));
+	}
+}
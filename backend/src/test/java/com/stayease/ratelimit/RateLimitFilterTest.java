@@ -0,0 +1,148 @@
+package com.stayease.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+
+class RateLimitFilterTest {
+
+	private final InMemoryRateLimitStore store = new InMemoryRateLimitStore();
+	private final RateLimitFilter filter;
+
+	RateLimitFilterTest() {
+		ReflectionTestUtils.setField(store, "maxKeys", 1000);
+		RateLimitPolicy perIp = new RateLimitPolicy("login-ip", 3, Duration.ofMinutes(1));
+		RateLimitPolicy perAccount = new RateLimitPolicy("login-account", 2, Duration.ofMinutes(1));
+		filter = new RateLimitFilter(store, new ObjectMapper(),
+				List.of(RateLimitRule.byBodyField(HttpMethod.POST, "/api/auth/login", perIp, perAccount, "email")));
+	}
+
+	@Test
+	void limitsEachClientAddressSeparately() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			assertEquals(200, login("10.0.0.1", "user" + i + "@example.com").getStatus());
+		}
+		MockHttpServletResponse limited = login("10.0.0.1", "other@example.com");
+
+		assertEquals(429, limited.getStatus());
+		assertEquals("application/json", limited.getContentType());
+		assertEquals(200, login("10.0.0.2", "other@example.com").getStatus());
+	}
+
+	@Test
+	void limitsAnAccountAcrossAddressesAndIgnoresCase() throws Exception {
+		assertEquals(200, login("10.0.0.1", "Guest@Example.com").getStatus());
+		assertEquals(200, login("10.0.0.2", "guest@example.com").getStatus());
+		MockHttpServletResponse limited = login("10.0.0.3", "guest@example.com ");
+
+		assertEquals(429, limited.getStatus());
+		assertEquals("30", limited.getHeader("Retry-After"));
+	}
+
+	@Test
+	void forwardsTheBufferedBodyAndSkipsUnmatchedPaths() throws Exception {
+		MockHttpServletRequest request = request("10.0.0.1", "/api/auth/login", "guest@example.com");
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+		String body = new String(((HttpServletRequest) chain.getRequest()).getInputStream().readAllBytes(),
+				StandardCharsets.UTF_8);
+		assertEquals("{\"email\":\"guest@example.com\"}", body);
+
+		MockFilterChain other = new MockFilterChain();
+		filter.doFilter(request("10.0.0.1", "/api/hotels", "guest@example.com"), new MockHttpServletResponse(), other);
+		assertNotNull(other.getRequest());
+		assertEquals(2, store.size());
+	}
+
+	@Test
+	void countsChunkedBodiesAndRejectsOversizedOnes() throws Exception {
+		for (int i = 0; i < 2; i++) {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			filter.doFilter(chunked(request("10.0.0." + i, "/api/auth/login", "guest@example.com")), response,
+					new MockFilterChain());
+			assertEquals(200, response.getStatus());
+		}
+		MockHttpServletResponse limited = new MockHttpServletResponse();
+		filter.doFilter(chunked(request("10.0.0.9", "/api/auth/login", "guest@example.com")), limited, new MockFilterChain());
+		assertEquals(429, limited.getStatus());
+
+		MockHttpServletResponse tooLarge = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(chunked(request("10.0.0.8", "/api/auth/login", "x".repeat(20 * 1024))), tooLarge, chain);
+		assertEquals(413, tooLarge.getStatus());
+		assertNull(chain.getRequest());
+	}
+
+	@Test
+	void bufferedBodyNotifiesAReadListenerStraightAway() throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request("10.0.0.1", "/api/auth/login", "guest@example.com"), new MockHttpServletResponse(), chain);
+
+		List<String> events = new ArrayList<>();
+		ServletInputStream input = ((HttpServletRequest) chain.getRequest()).getInputStream();
+		input.setReadListener(new ReadListener() {
+			@Override
+			public void onDataAvailable() {
+				events.add("available:" + input.isReady());
+			}
+
+			@Override
+			public void onAllDataRead() {
+				events.add("done");
+			}
+
+			@Override
+			public void onError(Throwable error) {
+				events.add("error");
+			}
+		});
+		assertEquals(List.of("available:true", "done"), events);
+	}
+
+	// A chunked upload carries no Content-Length header.
+	private MockHttpServletRequest chunked(MockHttpServletRequest request) {
+		MockHttpServletRequest chunked = new MockHttpServletRequest("POST", request.getRequestURI()) {
+			@Override
+			public long getContentLengthLong() {
+				return -1;
+			}
+		};
+		chunked.setRemoteAddr(request.getRemoteAddr());
+		chunked.setContentType(request.getContentType());
+		chunked.setContent(request.getContentAsByteArray());
+		return chunked;
+	}
+
+	private MockHttpServletResponse login(String address, String email) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request(address, "/api/auth/login", email), response, new MockFilterChain());
+		return response;
+	}
+
+	private MockHttpServletRequest request(String address, String path, String email) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+		request.setRemoteAddr(address);
+		request.setContentType("application/json");
+		request.setContent(("{\"email\":\"" + email + "\"}").getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+}
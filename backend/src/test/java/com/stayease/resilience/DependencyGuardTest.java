@@ -0,0 +1,131 @@
+package com.stayease.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class DependencyGuardTest {
+
+	private DependencyGuard guard;
+
+	@AfterEach
+	void shutdown() {
+		guard.shutdown();
+	}
+
+	@Test
+	void opensAfterConsecutiveFailuresAndClosesAfterSuccessfulProbe() throws Exception {
+		guard = new DependencyGuard("test", 2, 0, 1000, 3, 50);
+
+		for (int i = 0; i < 3; i++) {
+			assertThrows(IOException.class, () -> guard.call(() -> {
+				throw new IOException("down");
+			}));
+		}
+		assertEquals(DependencyGuard.State.OPEN, guard.getState());
+
+		ResponseStatusException shortCircuited = assertThrows(ResponseStatusException.class, () -> guard.call(() -> "ok"));
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shortCircuited.getStatusCode());
+
+		Thread.sleep(60);
+		assertEquals("ok", guard.call(() -> "ok"));
+		assertEquals(DependencyGuard.State.CLOSED, guard.getState());
+		assertEquals(1L, guard.getMetrics().get("shortCircuited"));
+	}
+
+	@Test
+	void failedProbeReopensTheCircuit() throws Exception {
+		guard = new DependencyGuard("test", 1, 0, 1000, 1, 50);
+
+		assertThrows(IOException.class, () -> guard.call(() -> {
+			throw new IOException("down");
+		}));
+		Thread.sleep(60);
+		assertThrows(IOException.class, () -> guard.call(() -> {
+			throw new IOException("still down");
+		}));
+
+		assertEquals(DependencyGuard.State.OPEN, guard.getState());
+		assertThrows(ResponseStatusException.class, () -> guard.call(() -> "ok"));
+	}
+
+	@Test
+	void rejectedRequestsDoNotTripTheBreaker() throws Exception {
+		guard = new DependencyGuard("test", 1, 0, 1000, 2, 1000);
+
+		for (int i = 0; i < 3; i++) {
+			assertThrows(IllegalArgumentException.class, () -> guard.call(() -> {
+				throw new IllegalArgumentException("bad request");
+			}));
+			assertThrows(ResponseStatusException.class, () -> guard.call(() -> {
+				throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+			}));
+		}
+		assertEquals(DependencyGuard.State.CLOSED, guard.getState());
+		assertEquals(0L, guard.getMetrics().get("failures"));
+
+		for (int i = 0; i < 2; i++) {
+			assertThrows(ResponseStatusException.class, () -> guard.call(() -> {
+				throw new ResponseStatusException(HttpStatus.BAD_GATEWAY);
+			}));
+		}
+		assertEquals(DependencyGuard.State.OPEN, guard.getState());
+	}
+
+	@Test
+	void asyncFailuresAreClassifiedTheSameWay() {
+		guard = new DependencyGuard("test", 2, 0, 1000, 1, 1000);
+
+		guard.callAsync(() -> CompletableFuture.failedFuture(new IllegalStateException("invalid phone"))).exceptionally(e -> null).join();
+		assertEquals(DependencyGuard.State.CLOSED, guard.getState());
+
+		guard.callAsync(() -> CompletableFuture.failedFuture(new IOException("connection reset"))).exceptionally(e -> null).join();
+		assertEquals(DependencyGuard.State.OPEN, guard.getState());
+	}
+
+	@Test
+	void slowCallsTimeOut() {
+		guard = new DependencyGuard("test", 1, 0, 50, 5, 1000);
+
+		assertThrows(ResponseStatusException.class, () -> guard.call(() -> {
+			Thread.sleep(5000);
+			return "late";
+		}));
+		assertEquals(1L, guard.getMetrics().get("timedOut"));
+		assertEquals(1L, guard.getMetrics().get("failures"));
+	}
+
+	@Test
+	void fullBulkheadRejectsInsteadOfQueueing() throws Exception {
+		guard = new DependencyGuard("test", 1, 0, 1000, 5, 1000);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread blocker = new Thread(() -> {
+			try {
+				guard.call(() -> {
+					started.countDown();
+					release.await(5, TimeUnit.SECONDS);
+					return null;
+				});
+			} catch (Exception ignored) {
+			}
+		});
+		blocker.start();
+		started.await(1, TimeUnit.SECONDS);
+
+		assertThrows(ResponseStatusException.class, () -> guard.call(() -> "ok"));
+		assertEquals(1L, guard.getMetrics().get("rejected"));
+		assertEquals(DependencyGuard.State.CLOSED, guard.getState());
+		release.countDown();
+		blocker.join();
+	}
+}
@@ -0,0 +1,82 @@
+package com.stayease.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.stayease.enums.PrincipalType;
+import com.stayease.models.Credential;
+import com.stayease.repositories.CredentialRepository;
+
+class CredentialServiceTest {
+
+	private final CredentialRepository credentialRepository = mock(CredentialRepository.class);
+	private final CredentialService service = new CredentialService(credentialRepository);
+
+	@Test
+	void resolvesAnEmailToItsPrincipalWithASingleLookup() {
+		Credential credential = new Credential(1L, "manager@stayease.test", PrincipalType.HOTEL_MANAGER, 9L);
+		when(credentialRepository.findByEmail("manager@stayease.test")).thenReturn(Optional.of(credential));
+
+		assertEquals(Optional.of(credential), service.resolve("  manager@stayease.test "));
+		assertTrue(service.resolve(" ").isEmpty());
+		assertTrue(service.resolve(null).isEmpty());
+	}
+
+	@Test
+	void registeringATakenEmailIsAConflictAcrossPrincipalTypes() {
+		when(credentialRepository.existsByEmail("taken@stayease.test")).thenReturn(true);
+
+		ResponseStatusException conflict = assertThrows(ResponseStatusException.class,
+				() -> service.register("taken@stayease.test", PrincipalType.ADMIN, 3L));
+		assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode());
+		verify(credentialRepository, never()).save(any());
+	}
+
+	@Test
+	void principalsMayKeepTheirOwnEmailButNotTakeAnothers() {
+		Credential own = new Credential(1L, "guest@stayease.test", PrincipalType.USER, 5L);
+		when(credentialRepository.findByEmail("guest@stayease.test")).thenReturn(Optional.of(own));
+		when(credentialRepository.findByPrincipalTypeAndPrincipalId(PrincipalType.USER, 5L)).thenReturn(Optional.of(own));
+
+		assertFalse(service.isEmailTaken("guest@stayease.test", PrincipalType.USER, 5L));
+		assertTrue(service.isEmailTaken("guest@stayease.test", PrincipalType.USER, 6L));
+		assertTrue(service.isEmailTaken("guest@stayease.test", PrincipalType.ADMIN, 5L));
+
+		service.updateEmail(PrincipalType.USER, 5L, "guest@stayease.test");
+		verify(credentialRepository).save(own);
+		assertThrows(ResponseStatusException.class, () -> service.updateEmail(PrincipalType.ADMIN, 5L, "guest@stayease.test"));
+	}
+
+	@Test
+	void backfillIndexesMissingPrincipalsInOneStatement() {
+		when(credentialRepository.backfillMissing()).thenReturn(2);
+		when(credentialRepository.findUnindexedEmails()).thenReturn(List.of());
+
+		service.backfillCredentials();
+
+		verify(credentialRepository).backfillMissing();
+		verify(credentialRepository, never()).findAll();
+	}
+
+	@Test
+	void backfillFailsStartupWhenAnEmailBelongsToTwoPrincipals() {
+		when(credentialRepository.findUnindexedEmails()).thenReturn(List.of("Shared@StayEase.test"));
+
+		IllegalStateException conflict = assertThrows(IllegalStateException.class, service::backfillCredentials);
+		assertTrue(conflict.getMessage().contains("Shared@StayEase.test"));
+	}
+}
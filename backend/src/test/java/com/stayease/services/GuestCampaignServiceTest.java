@@ -0,0 +1,112 @@
+package com.stayease.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.stayease.MyResponseWrapper;
+import com.stayease.dto.GuestCampaignRequest;
+import com.stayease.dto.GuestRecipient;
+import com.stayease.enums.CampaignStatus;
+import com.stayease.models.GuestCampaign;
+import com.stayease.repositories.GuestCampaignRepository;
+import com.stayease.repositories.HotelRepository;
+
+import jakarta.mail.internet.MimeMessage;
+
+class GuestCampaignServiceTest {
+
+	private final GuestCampaignRepository campaignRepository = mock(GuestCampaignRepository.class);
+	private final HotelRepository hotelRepository = mock(HotelRepository.class);
+	private final EmailService emailService = mock(EmailService.class);
+	private List<GuestRecipient> recipients = List.of();
+
+	private final GuestCampaignService service = new GuestCampaignService(campaignRepository, hotelRepository, emailService, null) {
+		@Override
+		List<GuestRecipient> findRecipients(GuestCampaignRequest request) {
+			return recipients;
+		}
+	};
+
+	@BeforeEach
+	void setUp() throws Exception {
+		ReflectionTestUtils.setField(service, "parallelism", 1);
+		ReflectionTestUtils.setField(service, "batchSize", 2);
+		ReflectionTestUtils.setField(service, "maxQueuedBatches", 2);
+		service.init();
+		when(hotelRepository.existsById(1L)).thenReturn(true);
+		when(campaignRepository.save(any(GuestCampaign.class))).thenAnswer(invocation -> {
+			GuestCampaign campaign = invocation.getArgument(0);
+			campaign.setId(10L);
+			return campaign;
+		});
+		when(emailService.buildGuestMessage(anyString(), anyString(), anyString())).thenReturn(mock(MimeMessage.class));
+		when(emailService.trySendBulk(anyList())).thenReturn(List.of());
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void queuesThenSendsEveryBatchAndCompletes() {
+		recipients = guests(3);
+
+		ResponseEntity<?> response = service.startCampaign(request());
+
+		assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+		ArgumentCaptor<GuestCampaign> saved = ArgumentCaptor.forClass(GuestCampaign.class);
+		verify(campaignRepository).save(saved.capture());
+		assertEquals(CampaignStatus.QUEUED, saved.getValue().getStatus());
+		verify(campaignRepository, timeout(5000)).finish(eq(10L), eq(CampaignStatus.COMPLETED), any());
+		verify(campaignRepository, timeout(5000).times(2)).markSending(10L);
+		verify(campaignRepository).recordProgress(10L, 2, 0, null);
+		verify(campaignRepository).recordProgress(10L, 1, 0, null);
+	}
+
+	@Test
+	void rejectsACampaignLargerThanTheQueueWithItsOwnMessage() {
+		recipients = guests(5);
+
+		ResponseEntity<?> response = service.startCampaign(request());
+
+		assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+		String message = ((MyResponseWrapper) response.getBody()).message();
+		assertTrue(message.contains("at most 4"), message);
+		verify(campaignRepository, never()).save(any());
+	}
+
+	private GuestCampaignRequest request() {
+		GuestCampaignRequest request = new GuestCampaignRequest();
+		request.setHotelId(1L);
+		request.setSubject("Summer offer");
+		request.setBody("Stay two nights, get one free.");
+		return request;
+	}
+
+	private List<GuestRecipient> guests(int count) {
+		return IntStream.range(0, count)
+				.mapToObj(i -> new GuestRecipient("guest" + i + "@example.com", "Guest", String.valueOf(i)))
+				.toList();
+	}
+}
@@ -0,0 +1,167 @@
+package com.stayease.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.stayease.MyResponseWrapper;
+import com.stayease.dto.HotelReviewPage;
+import com.stayease.dto.HotelReviewView;
+import com.stayease.models.AppUser;
+import com.stayease.models.Hotel;
+import com.stayease.models.HotelFeedback;
+import com.stayease.models.HotelRatingStats;
+import com.stayease.repositories.AppUserRepository;
+import com.stayease.repositories.HotelFeedbackRepository;
+import com.stayease.repositories.HotelRatingStatsRepository;
+import com.stayease.repositories.HotelRepository;
+
+class HotelFeedbackServiceTest {
+
+	private final HotelFeedbackRepository feedbackRepository = mock(HotelFeedbackRepository.class);
+	private final HotelRepository hotelRepository = mock(HotelRepository.class);
+	private final AppUserRepository appUserRepository = mock(AppUserRepository.class);
+	private final HotelRatingStatsRepository ratingStatsRepository = mock(HotelRatingStatsRepository.class);
+	private final HotelFeedbackService service = new HotelFeedbackService(feedbackRepository, hotelRepository,
+			appUserRepository, ratingStatsRepository);
+
+	@Test
+	void seedsTheStatsRowBeforeWritingFeedbackAndThenAppliesTheDelta() {
+		Hotel hotel = hotel(7L, null);
+		when(appUserRepository.findById(3L)).thenReturn(Optional.of(new AppUser()));
+		when(hotelRepository.findById(7L)).thenReturn(Optional.of(hotel));
+		when(ratingStatsRepository.findById(7L)).thenReturn(Optional.of(stats(7L, 4, 1)));
+
+		assertEquals(HttpStatus.OK, service.submitFeedback(3L, 7L, 4, "Great stay").getStatusCode());
+
+		InOrder order = inOrder(ratingStatsRepository, feedbackRepository);
+		order.verify(ratingStatsRepository).seedFromFeedback(7L);
+		order.verify(feedbackRepository).save(any(HotelFeedback.class));
+		order.verify(ratingStatsRepository).applyRating(7L, 4, 1);
+		assertEquals(4.0, hotel.getStarRating());
+	}
+
+	@Test
+	void deletingTheLastReviewClearsTheStarRating() {
+		Hotel hotel = hotel(7L, 5.0);
+		HotelFeedback feedback = new HotelFeedback();
+		feedback.setId(11L);
+		feedback.setHotel(hotel);
+		feedback.setRating(5);
+		when(feedbackRepository.findById(11L)).thenReturn(Optional.of(feedback));
+		when(ratingStatsRepository.findById(7L)).thenReturn(Optional.of(stats(7L, 0, 0)));
+
+		assertEquals(HttpStatus.OK, service.deleteFeedback(11L).getStatusCode());
+
+		InOrder order = inOrder(ratingStatsRepository, feedbackRepository);
+		order.verify(ratingStatsRepository).seedFromFeedback(7L);
+		order.verify(feedbackRepository).delete(feedback);
+		order.verify(ratingStatsRepository).applyRating(7L, 5, -1);
+		assertNull(hotel.getStarRating());
+	}
+
+	@Test
+	void newestFeedHandsOutTheLastIdAsTheKeysetCursor() {
+		when(ratingStatsRepository.findById(7L)).thenReturn(Optional.of(stats(7L, 0, 0)));
+		when(feedbackRepository.findNewestReviews(eq(7L), any(Limit.class))).thenReturn(reviews(11, 5));
+
+		HotelReviewPage first = page(service.getHotelReviews(7L, null, null, 10));
+		assertEquals(10, first.items().size());
+		assertEquals("91", first.nextCursor());
+
+		when(feedbackRepository.findNewestReviewsBefore(eq(7L), eq(91L), any(Limit.class))).thenReturn(reviews(3, 5));
+		HotelReviewPage second = page(service.getHotelReviews(7L, "newest", "91", 10));
+		assertEquals(3, second.items().size());
+		assertNull(second.nextCursor());
+	}
+
+	@Test
+	void topRatedFeedCursorCarriesRatingAndIdAndRejectsGarbage() {
+		when(ratingStatsRepository.findById(7L)).thenReturn(Optional.of(stats(7L, 0, 0)));
+		when(feedbackRepository.findTopRatedReviews(eq(7L), any(Limit.class))).thenReturn(reviews(3, 4));
+
+		HotelReviewPage first = page(service.getHotelReviews(7L, "rating", null, 2));
+		assertEquals("4:99", first.nextCursor());
+
+		service.getHotelReviews(7L, "rating", "4:99", 2);
+		verify(feedbackRepository).findTopRatedReviewsAfter(eq(7L), eq(4), eq(99L), any(Limit.class));
+
+		assertEquals(HttpStatus.BAD_REQUEST, service.getHotelReviews(7L, "rating", "99", 2).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, service.getHotelReviews(7L, "newest", "abc", 2).getStatusCode());
+	}
+
+	@Test
+	void firstPageIsServedFromCacheUntilEvicted() {
+		when(ratingStatsRepository.findById(7L)).thenReturn(Optional.of(stats(7L, 0, 0)));
+		when(feedbackRepository.findNewestReviews(eq(7L), any(Limit.class))).thenReturn(reviews(2, 5));
+
+		service.getHotelReviews(7L, null, null, null);
+		service.getHotelReviews(7L, null, null, null);
+		verify(feedbackRepository, times(1)).findNewestReviews(eq(7L), any(Limit.class));
+
+		service.evictReviewCaches(7L);
+		service.getHotelReviews(7L, null, null, null);
+		verify(feedbackRepository, times(2)).findNewestReviews(eq(7L), any(Limit.class));
+	}
+
+	@Test
+	void readerThatLoadedBeforeAnEvictionDoesNotCacheItsStaleCopy() {
+		when(ratingStatsRepository.findById(7L)).thenReturn(Optional.of(stats(7L, 0, 0)));
+		when(feedbackRepository.findNewestReviews(eq(7L), any(Limit.class))).thenAnswer(invocation -> {
+			// A review commits and evicts while this reader still holds the old rows.
+			service.evictReviewCaches(7L);
+			return reviews(2, 5);
+		});
+
+		service.getHotelReviews(7L, null, null, null);
+		service.getHotelReviews(7L, null, null, null);
+
+		verify(feedbackRepository, times(2)).findNewestReviews(eq(7L), any(Limit.class));
+	}
+
+	private static HotelReviewPage page(ResponseEntity<?> response) {
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		return (HotelReviewPage) ((MyResponseWrapper) response.getBody()).data();
+	}
+
+	// Ids count down from 100, matching the feed's id DESC order.
+	private static List<HotelReviewView> reviews(int count, int rating) {
+		List<HotelReviewView> rows = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			rows.add(new HotelReviewView(100L - i, "Guest", null, rating, "Nice", LocalDate.now()));
+		}
+		return rows;
+	}
+
+	private static Hotel hotel(Long id, Double starRating) {
+		Hotel hotel = new Hotel();
+		hotel.setId(id);
+		hotel.setStarRating(starRating);
+		return hotel;
+	}
+
+	private static HotelRatingStats stats(Long hotelId, long sum, long count) {
+		HotelRatingStats stats = new HotelRatingStats();
+		stats.setHotelId(hotelId);
+		stats.setRatingSum(sum);
+		stats.setRatingCount(count);
+		return stats;
+	}
+}
@@ -0,0 +1,164 @@
+package com.stayease.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.stayease.services.ImageProcessingService.Size;
+import com.stayease.services.ImageProcessingService.Variant;
+
+class ImageProcessingServiceTest {
+
+	private final ImageProcessingService service = new ImageProcessingService(320, 800, 1920, 0.82f, 10000, 2, 4);
+
+	@AfterEach
+	void shutdown() {
+		service.shutdown();
+	}
+
+	@Test
+	void createsSmallerJpegVariantsFromOneDecode() throws IOException {
+		Path source = png(4000, 3000);
+		long sourceBytes = Files.size(source);
+
+		List<Variant> variants = service.createVariants(source);
+
+		assertEquals(List.of(Size.THUMBNAIL, Size.CARD, Size.FULL), variants.stream().map(Variant::size).toList());
+		int[] expectedWidths = { 320, 800, 1920 };
+		for (int i = 0; i < variants.size(); i++) {
+			Variant variant = variants.get(i);
+			BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(variant.jpeg()));
+			assertEquals(expectedWidths[i], decoded.getWidth());
+			assertEquals(expectedWidths[i] * 3 / 4, decoded.getHeight());
+			assertTrue(variant.jpeg().length < sourceBytes,
+					variant.size() + " is " + variant.jpeg().length + " bytes from a " + sourceBytes + " byte PNG");
+		}
+	}
+
+	@Test
+	void appliesExifOrientationBeforeScaling() throws IOException {
+		// Stored 1200x600 with the red half on the left; orientation 6 means "rotate 90 degrees clockwise to display".
+		List<Variant> variants = service.createVariants(jpegWithOrientation(1200, 600, 6));
+
+		Variant full = variants.get(2);
+		assertEquals(600, full.width());
+		assertEquals(1200, full.height());
+		assertEquals(320, variants.get(0).width(), "thumbnail is scaled from the upright image");
+		assertEquals(640, variants.get(0).height());
+		BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(full.jpeg()));
+		Color top = new Color(decoded.getRGB(300, 100));
+		Color bottom = new Color(decoded.getRGB(300, 1100));
+		assertTrue(top.getRed() > 200 && top.getBlue() < 60, "top is " + top);
+		assertTrue(bottom.getBlue() > 200 && bottom.getRed() < 60, "bottom is " + bottom);
+	}
+
+	@Test
+	void rejectsWith503WhenEveryWorkerAndQueueSlotIsTaken() throws Exception {
+		ImageProcessingService busy = new ImageProcessingService(320, 800, 1920, 0.82f, 10000, 1, 1);
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(busy, "executor");
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			executor.execute(() -> awaitQuietly(release));
+			executor.execute(() -> awaitQuietly(release));
+
+			ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+					() -> busy.createVariants(png(100, 100)));
+			assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+		} finally {
+			release.countDown();
+			busy.shutdown();
+		}
+	}
+
+	@Test
+	void neverUpscalesSmallImages() throws IOException {
+		List<Variant> variants = service.createVariants(png(500, 250));
+
+		assertEquals(320, variants.get(0).width());
+		assertEquals(500, variants.get(1).width());
+		assertEquals(500, variants.get(2).width());
+	}
+
+	@Test
+	void returnsNoVariantsForUndecodableInputAndRejectsHugeDimensions() throws IOException {
+		Path garbage = Files.createTempFile("stayease-test-garbage-", ".bin");
+		garbage.toFile().deleteOnExit();
+		Files.write(garbage, new byte[] { 1, 2, 3 });
+		assertTrue(service.createVariants(garbage).isEmpty());
+		assertThrows(IOException.class, () -> service.createVariants(png(12000, 10)));
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// Writes a JPEG whose left half is red and right half blue, then splices in an APP1 segment
+	// holding a big-endian TIFF header with a single IFD0 entry: Orientation (0x0112, SHORT).
+	private Path jpegWithOrientation(int width, int height, int orientation) throws IOException {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(Color.RED);
+		graphics.fillRect(0, 0, width / 2, height);
+		graphics.setColor(Color.BLUE);
+		graphics.fillRect(width / 2, 0, width - width / 2, height);
+		graphics.dispose();
+		ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+		ImageIO.write(image, "jpeg", jpeg);
+		byte[] bytes = jpeg.toByteArray();
+
+		byte[] exif = {
+				'E', 'x', 'i', 'f', 0, 0,
+				'M', 'M', 0, 42, 0, 0, 0, 8,
+				0, 1,
+				0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+				0, 0, 0, 0 };
+		int app0End = 4 + (((bytes[4] & 0xFF) << 8) | (bytes[5] & 0xFF));
+		ByteArrayOutputStream spliced = new ByteArrayOutputStream();
+		spliced.write(bytes, 0, app0End);
+		spliced.write(new byte[] { (byte) 0xFF, (byte) 0xE1, 0, (byte) (exif.length + 2) });
+		spliced.write(exif);
+		spliced.write(bytes, app0End, bytes.length - app0End);
+
+		Path file = Files.createTempFile("stayease-test-image-", ".jpg");
+		file.toFile().deleteOnExit();
+		Files.write(file, spliced.toByteArray());
+		return file;
+	}
+
+	private Path png(int width, int height) throws IOException {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setPaint(new GradientPaint(0, 0, Color.ORANGE, width, height, Color.BLUE));
+		graphics.fillRect(0, 0, width, height);
+		graphics.dispose();
+		Path file = Files.createTempFile("stayease-test-image-", ".png");
+		file.toFile().deleteOnExit();
+		ImageIO.write(image, "png", file.toFile());
+		return file;
+	}
+}
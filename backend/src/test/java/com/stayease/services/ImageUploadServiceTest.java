@@ -0,0 +1,315 @@
+package com.stayease.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.stayease.dto.ImageUploadResult;
+import com.stayease.dto.ImageVariants;
+import com.stayease.storage.ImageStore;
+
+class ImageUploadServiceTest {
+
+	private static final int IMAGES = 10;
+	private static final long UPLOAD_LATENCY_MILLIS = 60;
+	private static final int LARGE_UPLOAD_BYTES = 32 * 1024 * 1024;
+
+	private final ImageProcessingService processor = new ImageProcessingService(320, 800, 1920, 0.82f, 20000, 2, 16);
+
+	@AfterEach
+	void shutdown() {
+		processor.shutdown();
+	}
+
+	@Test
+	void uploadsRunInParallelUpToThePoolSizeAndReportEachFailure() {
+		StubStorage sequential = new StubStorage(UPLOAD_LATENCY_MILLIS);
+		upload(new ImageUploadService(sequential, processor, new InMemoryStoredImages(), 1, IMAGES), new ArrayList<>());
+		assertEquals(1, sequential.maxInFlight.get());
+
+		StubStorage storage = new StubStorage(UPLOAD_LATENCY_MILLIS);
+		List<ImageUploadResult> results = new ArrayList<>();
+		upload(new ImageUploadService(storage, processor, new InMemoryStoredImages(), 4, IMAGES), results);
+		assertEquals(4, storage.maxInFlight.get());
+
+		assertEquals(IMAGES, results.size());
+		assertEquals("photo-0.jpg", results.get(0).fileName());
+		assertEquals("https://stub.local/stayease/rooms/photo-0", results.get(0).variants().fullUrl());
+		ImageUploadResult failed = results.get(3);
+		assertFalse(failed.succeeded());
+		assertEquals("photo-3.jpg", failed.fileName());
+		assertEquals("stub storage rejected photo-3", failed.error());
+		assertEquals(IMAGES - 1, results.stream().filter(ImageUploadResult::succeeded).count());
+	}
+
+	@Test
+	void saturatedPoolRejectsTheBatchAndReleasesWhatWasQueued() {
+		StubStorage storage = new StubStorage(UPLOAD_LATENCY_MILLIS);
+		InMemoryStoredImages storedImages = new InMemoryStoredImages();
+		ImageUploadService service = new ImageUploadService(storage, processor, storedImages, 1, 1);
+		try {
+			ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+					() -> service.uploadAll(files(), "stayease/rooms"));
+
+			assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+			assertEquals(1, storage.maxInFlight.get());
+			assertEquals(2, storage.uploads.get());
+			assertEquals(0, storedImages.refCount("https://stub.local/stayease/rooms/photo-0"));
+			assertEquals(0, storedImages.refCount("https://stub.local/stayease/rooms/photo-1"));
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	void largeUploadsStreamFromDiskWithoutHeapCopies() throws IOException {
+		StubStorage storage = new StubStorage(0);
+		ImageUploadService service = new ImageUploadService(storage, processor, new InMemoryStoredImages(), 2, 4);
+		Path upload = Files.createTempFile("stayease-test-upload-", ".bin");
+		try {
+			byte[] chunk = new byte[64 * 1024];
+			new Random(42).nextBytes(chunk);
+			try (OutputStream out = Files.newOutputStream(upload)) {
+				for (int written = 0; written < LARGE_UPLOAD_BYTES; written += chunk.length) {
+					out.write(chunk);
+				}
+			}
+			service.uploadVariants(new DiskMultipartFile(upload), "stayease/rooms");
+
+			long before = allocatedBytes();
+			ImageVariants stored = service.uploadVariants(new DiskMultipartFile(upload), "stayease/rooms");
+			long allocated = allocatedBytes() - before;
+
+			assertEquals(LARGE_UPLOAD_BYTES, storage.lastUploadBytes);
+			assertTrue(stored.fullUrl().startsWith("https://stub.local/"));
+			assertTrue(allocated < LARGE_UPLOAD_BYTES / 8, "upload allocated " + allocated + " bytes");
+		} finally {
+			service.shutdown();
+			Files.deleteIfExists(upload);
+		}
+	}
+
+	@Test
+	void duplicateContentReusesTheStoredImageWithoutUploading() throws IOException {
+		StubStorage storage = new StubStorage(0);
+		InMemoryStoredImages storedImages = new InMemoryStoredImages();
+		ImageUploadService service = new ImageUploadService(storage, processor, storedImages, 2, 4);
+		try {
+			ImageVariants first = service.uploadVariants(new MockMultipartFile("images", "a.jpg", "image/jpeg",
+					"photo-7".getBytes(StandardCharsets.UTF_8)), "stayease/rooms");
+			ImageVariants second = service.uploadVariants(new MockMultipartFile("images", "copy-of-a.jpg", "image/jpeg",
+					"photo-7".getBytes(StandardCharsets.UTF_8)), "stayease/rooms");
+
+			assertEquals(first, second);
+			assertEquals(1, storage.uploads.get());
+			assertEquals(2, storedImages.refCount(first.fullUrl()));
+
+			service.release(List.of(first.fullUrl()));
+			assertEquals(1, storedImages.refCount(first.fullUrl()));
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	private void upload(ImageUploadService service, List<ImageUploadResult> results) {
+		try {
+			results.addAll(service.uploadAll(files(), "stayease/rooms"));
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	private List<MultipartFile> files() {
+		List<MultipartFile> files = new ArrayList<>();
+		for (int i = 0; i < IMAGES; i++) {
+			files.add(new MockMultipartFile("images", "photo-" + i + ".jpg", "image/jpeg",
+					("photo-" + i).getBytes(StandardCharsets.UTF_8)));
+		}
+		return files;
+	}
+
+	// Sums allocation over every live thread, since decoding and uploading happen on pool threads.
+	private long allocatedBytes() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long total = 0;
+		for (long threadId : threads.getAllThreadIds()) {
+			total += Math.max(0, threads.getThreadAllocatedBytes(threadId));
+		}
+		return total;
+	}
+
+	// Stands in for Cloudinary: reads the file the way an HTTP client streams a request body.
+	private static class StubStorage implements ImageStore {
+
+		private final long latencyMillis;
+		private final AtomicInteger uploads = new AtomicInteger();
+		private final AtomicInteger inFlight = new AtomicInteger();
+		private final AtomicInteger maxInFlight = new AtomicInteger();
+		private volatile long lastUploadBytes;
+
+		StubStorage(long latencyMillis) {
+			this.latencyMillis = latencyMillis;
+		}
+
+		@Override
+		public String store(byte[] bytes, String folder) throws IOException {
+			return "https://stub.local/" + folder + "/variant-" + bytes.length;
+		}
+
+		@Override
+		public void delete(String url) {
+		}
+
+		@Override
+		public String store(File file, String folder) throws IOException {
+			byte[] buffer = new byte[8192];
+			long total = 0;
+			StringBuilder head = new StringBuilder();
+			try (InputStream in = Files.newInputStream(file.toPath())) {
+				int read;
+				while ((read = in.read(buffer)) > 0) {
+					if (total == 0) {
+						head.append(new String(buffer, 0, Math.min(read, 16), StandardCharsets.UTF_8));
+					}
+					total += read;
+				}
+			}
+			lastUploadBytes = total;
+			uploads.incrementAndGet();
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(latencyMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			} finally {
+				inFlight.decrementAndGet();
+			}
+			String name = head.toString().startsWith("photo-") ? head.toString() : "upload-" + total;
+			if (name.equals("photo-3")) {
+				throw new IOException("stub storage rejected photo-3");
+			}
+			return "https://stub.local/" + folder + "/" + name;
+		}
+	}
+
+	// Keeps the stored_image reference counts in memory.
+	private static class InMemoryStoredImages extends StoredImageService {
+
+		private final Map<String, ImageVariants> images = new ConcurrentHashMap<>();
+		private final Map<String, Integer> refCounts = new ConcurrentHashMap<>();
+
+		InMemoryStoredImages() {
+			super(null, null, null, 100, 60);
+		}
+
+		@Override
+		public Optional<ImageVariants> acquire(String contentHash) {
+			ImageVariants image = images.get(contentHash);
+			if (image != null) {
+				refCounts.merge(image.fullUrl(), 1, Integer::sum);
+			}
+			return Optional.ofNullable(image);
+		}
+
+		@Override
+		public ImageVariants register(String contentHash, ImageVariants uploaded) {
+			images.putIfAbsent(contentHash, uploaded);
+			return acquire(contentHash).orElseThrow();
+		}
+
+		@Override
+		public void release(Collection<String> urls) {
+			for (String url : urls) {
+				refCounts.computeIfPresent(url, (key, count) -> Math.max(count - 1, 0));
+			}
+		}
+
+		@Override
+		public void deleteUnreferenced(Collection<String> urls) {
+		}
+
+		int refCount(String url) {
+			return refCounts.getOrDefault(url, 0);
+		}
+	}
+
+	// Behaves like Tomcat's disk-backed part: getBytes() would read the whole file, transferTo copies it on disk.
+	private static class DiskMultipartFile implements MultipartFile {
+
+		private final Path path;
+
+		DiskMultipartFile(Path path) {
+			this.path = path;
+		}
+
+		@Override
+		public String getName() {
+			return "images";
+		}
+
+		@Override
+		public String getOriginalFilename() {
+			return path.getFileName().toString();
+		}
+
+		@Override
+		public String getContentType() {
+			return "application/octet-stream";
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return getSize() == 0;
+		}
+
+		@Override
+		public long getSize() {
+			try {
+				return Files.size(path);
+			} catch (IOException e) {
+				return 0;
+			}
+		}
+
+		@Override
+		public byte[] getBytes() throws IOException {
+			return Files.readAllBytes(path);
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return Files.newInputStream(path);
+		}
+
+		@Override
+		public void transferTo(File dest) throws IOException {
+			Files.copy(path, dest.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+}
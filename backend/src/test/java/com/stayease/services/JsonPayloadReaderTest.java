@@ -0,0 +1,80 @@
+package com.stayease.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stayease.enums.BookingStatus;
+import com.stayease.enums.RoomStatus;
+import com.stayease.models.Booking;
+import com.stayease.models.Hotel;
+import com.stayease.models.Room;
+
+class JsonPayloadReaderTest {
+
+	private static final int LIST_SIZE = 200;
+	private static final String ROOM_JSON = "{\"roomNumber\":\"101\",\"roomType\":\"Deluxe\",\"price\":4500.0,"
+			+ "\"status\":\"AVAILABLE\",\"capacity\":2,\"bedType\":\"King\",\"viewType\":\"Sea\","
+			+ "\"amenities\":[\"WiFi\",\"AC\"],\"createdAt\":\"2025-01-01T10:00:00Z\",\"clientOnly\":true}";
+
+	// Same defaults Spring Boot applies to its own mapper.
+	private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+	@Test
+	void sharedReaderParsesMultipartJsonWithOneReaderPerType() throws Exception {
+		JsonPayloadReader reader = new JsonPayloadReader(objectMapper);
+		Room parsed = reader.read(ROOM_JSON, Room.class);
+		assertEquals("101", parsed.getRoomNumber());
+		assertEquals(RoomStatus.AVAILABLE, parsed.getStatus());
+		assertEquals(Instant.parse("2025-01-01T10:00:00Z"), parsed.getCreatedAt());
+
+		reader.read(ROOM_JSON, Room.class);
+		reader.read("{\"hotelName\":\"Sea View\"}", Hotel.class);
+		Map<?, ?> readers = (Map<?, ?>) ReflectionTestUtils.getField(reader, "readers");
+		assertEquals(2, readers.size());
+	}
+
+	@Test
+	void serializesListPayloadsWithTheSharedMapper() throws Exception {
+		List<Hotel> hotels = new ArrayList<>();
+		List<Room> rooms = new ArrayList<>();
+		List<Booking> bookings = new ArrayList<>();
+		for (int i = 0; i < LIST_SIZE; i++) {
+			Hotel hotel = new Hotel();
+			hotel.setId((long) i);
+			hotel.setHotelName("Hotel " + i);
+			hotel.setEmail("hotel" + i + "@stayease.test");
+			hotel.setDescription("Sea-facing property number " + i);
+			hotel.setStarRating(4.5);
+			hotel.setCreatedAt(Instant.now());
+			hotels.add(hotel);
+
+			Room room = objectMapper.readValue(ROOM_JSON, Room.class);
+			room.setId((long) i);
+			rooms.add(room);
+
+			Booking booking = new Booking();
+			booking.setId((long) i);
+			booking.setBookingStatus(BookingStatus.CONFIRMED);
+			booking.setCheckInDate(LocalDate.of(2025, 1, 1).plusDays(i));
+			booking.setCheckOutDate(LocalDate.of(2025, 1, 3).plusDays(i));
+			booking.setTotalGuests(2);
+			booking.setTotalAmount(9000.0);
+			bookings.add(booking);
+		}
+
+		for (List<?> payload : List.of(hotels, rooms, bookings)) {
+			byte[] json = objectMapper.writeValueAsBytes(payload);
+			assertEquals(LIST_SIZE, objectMapper.readTree(json).size());
+		}
+	}
+}
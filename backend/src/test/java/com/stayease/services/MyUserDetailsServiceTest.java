@@ -0,0 +1,113 @@
+package com.stayease.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.stayease.enums.Role;
+import com.stayease.models.Admin;
+import com.stayease.models.AppUser;
+import com.stayease.models.User;
+import com.stayease.repositories.AdminRepository;
+import com.stayease.repositories.HotelManagerRepository;
+import com.stayease.repositories.UserRepository;
+
+class MyUserDetailsServiceTest {
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final AdminRepository adminRepository = mock(AdminRepository.class);
+	private final MyUserDetailsService service = new MyUserDetailsService(userRepository, adminRepository,
+			mock(HotelManagerRepository.class));
+
+	@Test
+	void servesCachedPrincipalsUntilTheTtlRunsOut() {
+		User user = user(5L, "guest@stayease.test", "hash-1", Role.USER);
+		when(userRepository.findById(5L)).thenReturn(Optional.of(user));
+
+		start(300, 100);
+		service.loadUserById(5L);
+		service.loadUserById(5L);
+		verify(userRepository, times(1)).findById(5L);
+
+		start(0, 100);
+		service.loadUserById(5L);
+		service.loadUserById(5L);
+		verify(userRepository, times(3)).findById(5L);
+	}
+
+	@Test
+	void roleChangeEvictsThePrincipalCachedById() {
+		User user = user(5L, "guest@stayease.test", "hash-1", Role.USER);
+		when(userRepository.findById(5L)).thenReturn(Optional.of(user));
+		when(userRepository.findByEmail("guest@stayease.test")).thenReturn(Optional.of(user));
+		start(300, 100);
+		assertEquals("USER", authority(service.loadUserById(5L)));
+
+		user.getAppUser().setRole(Role.ADMIN);
+		assertEquals("USER", authority(service.loadUserById(5L)), "still cached before eviction");
+		service.evictPrincipal("guest@stayease.test");
+
+		assertEquals("ADMIN", authority(service.loadUserById(5L)));
+	}
+
+	@Test
+	void passwordChangeEvictsThePrincipalCachedByRoleAndEmail() {
+		Admin admin = new Admin();
+		admin.setEmail("admin@stayease.test");
+		admin.setPassword("hash-1");
+		admin.setRole(Role.ADMIN);
+		when(adminRepository.findAdminByEmail("Admin@StayEase.test")).thenReturn(Optional.of(admin));
+		start(300, 100);
+		assertEquals("hash-1", service.loadByRoleAndEmail("admin", "Admin@StayEase.test").getPassword());
+
+		admin.setPassword("hash-2");
+		service.evictPrincipal("admin@stayease.test");
+
+		assertEquals("hash-2", service.loadByRoleAndEmail("admin", "Admin@StayEase.test").getPassword());
+	}
+
+	@Test
+	void fullCacheKeepsRecentlyUsedPrincipals() {
+		for (long id = 1; id <= 3; id++) {
+			when(userRepository.findById(id)).thenReturn(Optional.of(user(id, "guest" + id + "@stayease.test", "hash", Role.USER)));
+		}
+		start(300, 2);
+
+		service.loadUserById(1L);
+		service.loadUserById(2L);
+		service.loadUserById(1L);
+		service.loadUserById(3L);
+		service.loadUserById(1L);
+
+		verify(userRepository, times(1)).findById(1L);
+	}
+
+	private void start(long ttlSeconds, int maxEntries) {
+		ReflectionTestUtils.setField(service, "principalCacheTtlSeconds", ttlSeconds);
+		ReflectionTestUtils.setField(service, "principalCacheMaxEntries", maxEntries);
+		service.init();
+	}
+
+	private static String authority(UserDetails details) {
+		return details.getAuthorities().iterator().next().getAuthority();
+	}
+
+	private static User user(Long id, String email, String password, Role role) {
+		AppUser appUser = new AppUser();
+		appUser.setRole(role);
+		User user = new User();
+		user.setId(id);
+		user.setEmail(email);
+		user.setPassword(password);
+		user.setAppUser(appUser);
+		return user;
+	}
+}
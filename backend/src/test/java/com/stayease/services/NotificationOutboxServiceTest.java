@@ -0,0 +1,114 @@
+package com.stayease.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stayease.enums.NotificationType;
+import com.stayease.enums.OutboxStatus;
+import com.stayease.models.NotificationOutbox;
+import com.stayease.repositories.NotificationOutboxRepository;
+
+class NotificationOutboxServiceTest {
+
+	private final NotificationOutboxRepository outboxRepository = mock(NotificationOutboxRepository.class);
+	private final WhatsAppService whatsAppService = mock(WhatsAppService.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	private final NotificationOutboxService service = new NotificationOutboxService(outboxRepository,
+			mock(EmailService.class), whatsAppService, new ObjectMapper(), transactionTemplate);
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		ReflectionTestUtils.setField(service, "workers", 1);
+		ReflectionTestUtils.setField(service, "batchSize", 10);
+		ReflectionTestUtils.setField(service, "maxAttempts", 3);
+		ReflectionTestUtils.setField(service, "baseBackoffSeconds", 30L);
+		ReflectionTestUtils.setField(service, "maxBackoffSeconds", 3600L);
+		ReflectionTestUtils.setField(service, "claimTimeoutSeconds", 300L);
+		service.init();
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+		when(outboxRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void dispatchesDueNotificationsAndMarksThemSent() {
+		NotificationOutbox notification = whatsApp(0);
+		when(outboxRepository.lockDue(any(), anyInt())).thenReturn(List.of(notification));
+
+		service.dispatchDue();
+
+		verify(outboxRepository, timeout(2_000)).save(notification);
+		verify(whatsAppService).deliverMessage("+919876543210", "Booking confirmed");
+		assertEquals(OutboxStatus.SENT, notification.getStatus());
+		assertEquals(1, notification.getAttempts());
+		assertNull(notification.getLastError());
+	}
+
+	@Test
+	void failedAttemptsBackOffExponentiallyWithJitter() {
+		NotificationOutbox notification = whatsApp(1);
+		when(outboxRepository.lockDue(any(), anyInt())).thenReturn(List.of(notification));
+		doThrow(new IllegalStateException("gateway down")).when(whatsAppService).deliverMessage(any(), any());
+
+		Instant before = Instant.now();
+		service.dispatchDue();
+
+		verify(outboxRepository, timeout(2_000)).save(notification);
+		assertEquals(OutboxStatus.PENDING, notification.getStatus());
+		assertEquals(2, notification.getAttempts());
+		assertEquals("gateway down", notification.getLastError());
+		// Second attempt: 30s << 1 = 60s, jittered into [30s, 60s].
+		Instant next = notification.getNextAttemptAt();
+		assertTrue(!next.isBefore(before.plusSeconds(30)) && !next.isAfter(Instant.now().plusSeconds(60)),
+				"next attempt at " + next);
+	}
+
+	@Test
+	void deadLettersOnceMaxAttemptsAreUsed() {
+		NotificationOutbox notification = whatsApp(2);
+		when(outboxRepository.lockDue(any(), anyInt())).thenReturn(List.of(notification));
+		doThrow(new IllegalStateException("gateway down")).when(whatsAppService).deliverMessage(any(), any());
+
+		service.dispatchDue();
+
+		verify(outboxRepository, timeout(2_000)).save(notification);
+		assertEquals(OutboxStatus.DEAD, notification.getStatus());
+		assertEquals(3, notification.getAttempts());
+	}
+
+	private NotificationOutbox whatsApp(int attempts) {
+		NotificationOutbox notification = new NotificationOutbox();
+		notification.setDedupeKey("booking:1:confirmed:whatsapp");
+		notification.setType(NotificationType.BOOKING_CONFIRMATION_WHATSAPP);
+		notification.setPayload("{\"phone\":\"+919876543210\",\"message\":\"Booking confirmed\"}");
+		notification.setStatus(OutboxStatus.PENDING);
+		notification.setAttempts(attempts);
+		notification.setNextAttemptAt(Instant.now());
+		return notification;
+	}
+}
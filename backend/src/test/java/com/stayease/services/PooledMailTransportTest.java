@@ -0,0 +1,231 @@
+package com.stayease.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.HttpStatus;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.stayease.resilience.DependencyGuards;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+
+class PooledMailTransportTest {
+
+	private static final int MESSAGES = 200;
+
+	private StubSmtpServer server;
+	private JavaMailSenderImpl mailSender;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = new StubSmtpServer();
+		mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("localhost");
+		mailSender.setPort(server.port());
+	}
+
+	@AfterEach
+	void stopServer() throws IOException {
+		server.close();
+	}
+
+	@Test
+	void pooledTransportReusesOneConnectionForABatch() throws MessagingException {
+		for (MimeMessage message : messages()) {
+			mailSender.send(message);
+		}
+		assertEquals(MESSAGES, server.connections.get());
+		assertEquals(MESSAGES, server.messages.get());
+
+		server.connections.set(0);
+		server.messages.set(0);
+		PooledMailTransport transport = new PooledMailTransport(mailSender, null, new DependencyGuards(new StandardEnvironment()), 2, 1, MESSAGES, 30_000, 0, 5_000);
+		transport.sendAll(messages());
+		transport.shutdown();
+
+		assertEquals(1, server.connections.get());
+		assertEquals(MESSAGES, server.messages.get());
+	}
+
+	@Test
+	void pooledTransportRotatesConnectionsAfterMessageLimit() throws MessagingException {
+		PooledMailTransport transport = new PooledMailTransport(mailSender, null, new DependencyGuards(new StandardEnvironment()), 1, 0, 50, 30_000, 0, 5_000);
+		transport.sendAll(messages());
+		transport.shutdown();
+
+		assertEquals(MESSAGES / 50, server.connections.get());
+		assertEquals(MESSAGES, server.messages.get());
+	}
+
+	@Test
+	void bulkSendsLeaveAConnectionForTransactionalMail() throws Exception {
+		PooledMailTransport transport = new PooledMailTransport(mailSender, null, new DependencyGuards(new StandardEnvironment()), 2, 1, MESSAGES, 30_000, 0, 5_000);
+		ExecutorService campaigns = Executors.newFixedThreadPool(3);
+		try {
+			List<Future<List<MessagingException>>> batches = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				List<MimeMessage> batch = messages().subList(0, 20);
+				batches.add(campaigns.submit(() -> transport.trySendBulk(batch)));
+			}
+			for (Future<List<MessagingException>> batch : batches) {
+				assertEquals(List.of(), batch.get(10, TimeUnit.SECONDS));
+			}
+		} finally {
+			campaigns.shutdownNow();
+			transport.shutdown();
+		}
+
+		assertEquals(1, server.connections.get(), "bulk batches must share the single unreserved connection");
+		assertEquals(60, server.messages.get());
+	}
+
+	@Test
+	void requestThreadsGiveUpWith503WhenThePoolIsExhausted() throws Exception {
+		PooledMailTransport transport = new PooledMailTransport(mailSender, null, new DependencyGuards(new StandardEnvironment()), 1, 0, 50, 30_000, 0, 100);
+		Semaphore permits = (Semaphore) ReflectionTestUtils.getField(transport, "permits");
+		permits.acquire();
+		try {
+			ResponseStatusException busy = assertThrows(ResponseStatusException.class,
+					() -> transport.send(messages().get(0)));
+			assertEquals(HttpStatus.SERVICE_UNAVAILABLE, busy.getStatusCode());
+		} finally {
+			permits.release();
+			transport.shutdown();
+		}
+		assertEquals(0, server.connections.get());
+	}
+
+	@Test
+	void rejectedRecipientsKeepTheConnection() throws Exception {
+		PooledMailTransport transport = new PooledMailTransport(mailSender, null, new DependencyGuards(new StandardEnvironment()), 1, 0, 50, 30_000, 0, 5_000);
+		List<MimeMessage> batch = new ArrayList<>(messages().subList(0, 3));
+		batch.get(1).setRecipients(Message.RecipientType.TO, "bounce@stayease.test");
+
+		List<MessagingException> failures = transport.trySendAll(batch);
+		transport.shutdown();
+
+		assertEquals(1, failures.size());
+		assertTrue(failures.get(0) instanceof SendFailedException);
+		assertEquals(1, server.connections.get());
+		assertEquals(2, server.messages.get());
+	}
+
+	private List<MimeMessage> messages() throws MessagingException {
+		List<MimeMessage> messages = new ArrayList<>();
+		for (int i = 0; i < MESSAGES; i++) {
+			MimeMessage message = mailSender.createMimeMessage();
+			MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+			helper.setFrom("noreply@stayease.test");
+			helper.setTo("guest" + i + "@stayease.test");
+			helper.setSubject("Booking " + i);
+			helper.setText("<p>Booking " + i + " confirmed</p>", true);
+			messages.add(message);
+		}
+		return messages;
+	}
+
+	// Minimal SMTP responder standing in for an embedded mail server.
+	private static class StubSmtpServer implements AutoCloseable {
+
+		private final ServerSocket serverSocket = new ServerSocket(0);
+		private final AtomicInteger connections = new AtomicInteger();
+		private final AtomicInteger messages = new AtomicInteger();
+
+		StubSmtpServer() throws IOException {
+			Thread acceptor = new Thread(this::acceptLoop, "stub-smtp");
+			acceptor.setDaemon(true);
+			acceptor.start();
+		}
+
+		int port() {
+			return serverSocket.getLocalPort();
+		}
+
+		private void acceptLoop() {
+			while (!serverSocket.isClosed()) {
+				try {
+					Socket socket = serverSocket.accept();
+					connections.incrementAndGet();
+					Thread session = new Thread(() -> handle(socket), "stub-smtp-session");
+					session.setDaemon(true);
+					session.start();
+				} catch (IOException e) {
+					return;
+				}
+			}
+		}
+
+		private void handle(Socket socket) {
+			try (socket;
+					BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+					PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+				reply(out, "220 localhost stub ESMTP");
+				String line;
+				while ((line = in.readLine()) != null) {
+					String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+					switch (command) {
+					case "EHLO":
+						reply(out, "250-localhost");
+						reply(out, "250 8BITMIME");
+						break;
+					case "RCPT":
+						reply(out, line.contains("bounce@") ? "550 No such user" : "250 OK");
+						break;
+					case "DATA":
+						reply(out, "354 End data with <CR><LF>.<CR><LF>");
+						while ((line = in.readLine()) != null && !line.equals(".")) {
+							// discard message body
+						}
+						messages.incrementAndGet();
+						reply(out, "250 OK");
+						break;
+					case "QUIT":
+						reply(out, "221 Bye");
+						return;
+					default:
+						reply(out, "250 OK");
+					}
+				}
+			} catch (IOException ignored) {
+			}
+		}
+
+		private void reply(PrintWriter out, String line) {
+			out.print(line + "\r\n");
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			serverSocket.close();
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.stayease.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stayease.repositories.HotelRepository;
+import com.stayease.repositories.RoomRepository;
+
+class RoomServiceTest {
+
+	private final RoomRepository roomRepository = mock(RoomRepository.class);
+	private final HotelRepository hotelRepository = mock(HotelRepository.class);
+	private final ImageUploadService imageUploadService = mock(ImageUploadService.class);
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	private final RoomService service = new RoomService(roomRepository, hotelRepository, imageUploadService,
+			new TransactionTemplate(transactionManager), null, null, new JsonPayloadReader(new ObjectMapper()), null);
+	private final List<MultipartFile> images = List.of(new MockMultipartFile("images", "a.jpg", "image/jpeg", new byte[] { 1 }));
+
+	@Test
+	void missingHotelIsRejectedBeforeAnyUpload() throws IOException {
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		when(hotelRepository.existsById(7L)).thenReturn(false);
+
+		assertEquals(HttpStatus.NOT_FOUND, service.addRoom(7L, "{\"roomNumber\":\"101\"}", images).getStatusCode());
+		verify(imageUploadService, never()).uploadAll(any(), anyString());
+	}
+
+	@Test
+	void duplicateRoomNumberIsRejectedInAReadOnlyTransactionBeforeAnyUpload() throws IOException {
+		when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+			TransactionDefinition definition = invocation.getArgument(0);
+			assertTrue(definition.isReadOnly(), "checks must not open a write transaction");
+			return new SimpleTransactionStatus();
+		});
+		when(hotelRepository.existsById(7L)).thenReturn(true);
+		when(roomRepository.existsByHotelIdAndRoomNumber(7L, "101")).thenReturn(true);
+
+		assertEquals(HttpStatus.CONFLICT, service.addRoom(7L, "{\"roomNumber\":\"101\"}", images).getStatusCode());
+		verify(imageUploadService, never()).uploadAll(any(), anyString());
+	}
+}
@@ -0,0 +1,67 @@
+package com.stayease.services;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.stayease.models.StoredImage;
+import com.stayease.repositories.StoredImageRepository;
+import com.stayease.storage.ImageStore;
+
+class StoredImageServiceTest {
+
+	private final StoredImageRepository repository = mock(StoredImageRepository.class);
+	private final ImageStore imageStore = mock(ImageStore.class);
+	private final StoredImageService service;
+
+	StoredImageServiceTest() {
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		service = new StoredImageService(repository, imageStore, transactionManager, 10, 60);
+	}
+
+	@Test
+	void collectorKeepsBlobsAnotherRowStillReferences() throws Exception {
+		StoredImage collected = image(1L, "thumb-a", "card-shared", "full-a");
+		when(repository.lockUnreferenced(any(Instant.class), anyInt())).thenReturn(List.of(collected));
+		when(repository.countReferences("card-shared")).thenReturn(1L);
+
+		service.collectUnreferenced();
+
+		verify(repository).deleteAllInBatch(List.of(collected));
+		verify(imageStore).deleteIfUnusedSince(eq("thumb-a"), any(Instant.class));
+		verify(imageStore).deleteIfUnusedSince(eq("full-a"), any(Instant.class));
+		verify(imageStore, never()).deleteIfUnusedSince(eq("card-shared"), any(Instant.class));
+	}
+
+	@Test
+	void orphanCleanupSkipsUrlsThatHaveARow() throws Exception {
+		when(repository.countReferences("taken")).thenReturn(1L);
+
+		service.deleteUnreferenced(List.of("taken", "orphan", "orphan"));
+
+		verify(imageStore).delete("orphan");
+		verify(imageStore, never()).delete("taken");
+	}
+
+	private StoredImage image(Long id, String thumbnailUrl, String cardUrl, String fullUrl) {
+		StoredImage image = new StoredImage();
+		image.setId(id);
+		image.setThumbnailUrl(thumbnailUrl);
+		image.setCardUrl(cardUrl);
+		image.setFullUrl(fullUrl);
+		image.setRefCount(0);
+		return image;
+	}
+}
@@ -0,0 +1,175 @@
+package com.stayease.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.stayease.dto.WhatsAppMessage;
+import com.stayease.resilience.DependencyGuards;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class WhatsAppGatewayTest {
+
+	private static final int MESSAGES = 200;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private StubGateway server;
+	private WhatsAppGateway gateway;
+
+	@AfterEach
+	void stop() {
+		if (gateway != null) {
+			gateway.shutdown();
+		}
+		server.close();
+	}
+
+	@Test
+	void coalescesMessagesIntoBoundedBulkRequests() throws IOException {
+		server = new StubGateway(true, 20);
+		gateway = gateway(2, 20);
+
+		long started = System.nanoTime();
+		List<CompletableFuture<Void>> results = gateway.sendAll(messages());
+		long enqueueMillis = (System.nanoTime() - started) / 1_000_000;
+		CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+		assertTrue(enqueueMillis < 20 * 10, "enqueueing must not wait on the gateway: " + enqueueMillis + " ms");
+		assertEquals(MESSAGES, server.messages.get());
+		assertTrue(server.requests.get() <= MESSAGES / 10, "expected bulk requests, got " + server.requests.get());
+		assertTrue(server.maxInFlight.get() <= 2, "concurrency limit exceeded: " + server.maxInFlight.get());
+	}
+
+	@Test
+	void fallsBackToSingleSendsWhenBulkEndpointIsMissing() throws IOException {
+		server = new StubGateway(false, 1);
+		gateway = gateway(3, 10);
+
+		List<CompletableFuture<Void>> results = gateway.sendAll(messages().subList(0, 30));
+		CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+		assertEquals(30, server.messages.get());
+		assertTrue(server.maxInFlight.get() <= 3, "concurrency limit exceeded: " + server.maxInFlight.get());
+	}
+
+	@Test
+	void reportsPerMessageFailuresFromBulkResponse() throws IOException {
+		server = new StubGateway(true, 1);
+		gateway = gateway(1, 10);
+
+		List<CompletableFuture<Void>> results = gateway.sendAll(List.of(
+				new WhatsAppMessage("+919800000001", "ok"),
+				new WhatsAppMessage("+919800000002", "fail"),
+				new WhatsAppMessage("+919800000003", "ok")));
+
+		results.get(0).join();
+		results.get(2).join();
+		assertThrows(CompletionException.class, () -> results.get(1).join());
+	}
+
+	private WhatsAppGateway gateway(int maxConcurrent, int batchSize) {
+		return new WhatsAppGateway(objectMapper, new DependencyGuards(new StandardEnvironment()), "http://localhost:" + server.port(), 1000, 5000,
+				maxConcurrent, MESSAGES, batchSize, 20);
+	}
+
+	private List<WhatsAppMessage> messages() {
+		List<WhatsAppMessage> messages = new ArrayList<>();
+		for (int i = 0; i < MESSAGES; i++) {
+			messages.add(new WhatsAppMessage("+91980000" + String.format("%04d", i), "Message " + i));
+		}
+		return messages;
+	}
+
+	// Local stand-in for the Node WhatsApp gateway with a fixed per-request latency.
+	private class StubGateway {
+
+		private final HttpServer httpServer;
+		private final long latencyMillis;
+		final AtomicInteger requests = new AtomicInteger();
+		final AtomicInteger messages = new AtomicInteger();
+		final AtomicInteger inFlight = new AtomicInteger();
+		final AtomicInteger maxInFlight = new AtomicInteger();
+
+		StubGateway(boolean bulk, long latencyMillis) throws IOException {
+			this.latencyMillis = latencyMillis;
+			httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+			httpServer.setExecutor(Executors.newFixedThreadPool(8));
+			httpServer.createContext("/send-message", exchange -> handle(exchange, false));
+			if (bulk) {
+				httpServer.createContext("/send-messages", exchange -> handle(exchange, true));
+			}
+			httpServer.start();
+		}
+
+		int port() {
+			return httpServer.getAddress().getPort();
+		}
+
+		void close() {
+			httpServer.stop(0);
+		}
+
+		private void handle(HttpExchange exchange, boolean bulk) throws IOException {
+			// HttpServer contexts match by prefix, so /send-message would also catch /send-messages.
+			if (!exchange.getRequestURI().getPath().equals(bulk ? "/send-messages" : "/send-message")) {
+				exchange.getRequestBody().readAllBytes();
+				exchange.sendResponseHeaders(404, -1);
+				exchange.close();
+				return;
+			}
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				requests.incrementAndGet();
+				JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+				Thread.sleep(latencyMillis);
+				ObjectNode response = objectMapper.createObjectNode();
+				if (bulk) {
+					ArrayNode results = response.putArray("results");
+					for (JsonNode message : request.path("messages")) {
+						boolean success = !"fail".equals(message.path("message").asText());
+						if (success) {
+							messages.incrementAndGet();
+						}
+						results.addObject().put("success", success).put("msg", success ? "sent" : "rejected");
+					}
+				} else {
+					messages.incrementAndGet();
+					response.put("success", true);
+				}
+				byte[] body = objectMapper.writeValueAsBytes(response);
+				exchange.getResponseHeaders().add("Content-Type", "application/json");
+				exchange.sendResponseHeaders(200, body.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(body);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				exchange.sendResponseHeaders(500, -1);
+			} finally {
+				inFlight.decrementAndGet();
+				exchange.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package com.stayease.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.stayease.dto.RoomView;
+import com.stayease.dto.WishListView;
+import com.stayease.enums.RoomStatus;
+import com.stayease.repositories.RoomRepository;
+import com.stayease.repositories.WishListRepository;
+
+class WishListServiceTest {
+
+	private final WishListRepository wishListRepository = mock(WishListRepository.class);
+	private final RoomViewLoader roomViewLoader = mock(RoomViewLoader.class);
+	private final WishListService service = new WishListService(wishListRepository, mock(RoomRepository.class), roomViewLoader);
+	private final WishListView item = new WishListView(7L, 42L, 3L, "101", "Deluxe", 4500.0, RoomStatus.AVAILABLE, 2, "King",
+			"Sea", null);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "cachedUsers", 2);
+		service.init();
+		when(roomViewLoader.withCollections(any(RoomView.class)))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+		when(wishListRepository.findViewByUserIdAndRoomId(1L, 42L)).thenReturn(Optional.of(item));
+	}
+
+	@Test
+	void addingAWishlistedRoomSkipsTheInsert() {
+		when(wishListRepository.findRoomIdsByUserId(1L)).thenReturn(List.of(42L, 9L));
+
+		assertEquals(HttpStatus.OK, service.addToWishList(1L, 42L).getStatusCode());
+		assertEquals(HttpStatus.OK, service.addToWishList(1L, 42L).getStatusCode());
+
+		verify(wishListRepository, never()).insertIgnore(1L, 42L);
+		verify(wishListRepository, times(1)).findRoomIdsByUserId(1L);
+	}
+
+	@Test
+	void addingANewRoomInsertsOnceAndRefreshesTheCachedIds() {
+		when(wishListRepository.findRoomIdsByUserId(1L)).thenReturn(List.of(9L)).thenReturn(List.of(9L, 42L));
+
+		service.addToWishList(1L, 42L);
+		service.addToWishList(1L, 42L);
+
+		verify(wishListRepository, times(1)).insertIgnore(1L, 42L);
+		assertTrue(service.isWishlisted(1L, 42L));
+	}
+
+	@Test
+	void aFullCacheDropsOnlyTheLeastRecentlyUsedUser() {
+		when(wishListRepository.findRoomIdsByUserId(1L)).thenReturn(List.of(42L));
+		when(wishListRepository.findRoomIdsByUserId(2L)).thenReturn(List.of(9L));
+		when(wishListRepository.findRoomIdsByUserId(3L)).thenReturn(List.of(5L));
+
+		service.isWishlisted(1L, 42L);
+		service.isWishlisted(2L, 9L);
+		service.isWishlisted(1L, 42L);
+		service.isWishlisted(3L, 5L);
+		service.isWishlisted(1L, 42L);
+		service.isWishlisted(2L, 9L);
+
+		verify(wishListRepository, times(1)).findRoomIdsByUserId(1L);
+		verify(wishListRepository, times(2)).findRoomIdsByUserId(2L);
+	}
+
+	@Test
+	void unknownUserOrRoomIsNotFound() {
+		when(wishListRepository.findRoomIdsByUserId(1L)).thenReturn(List.of());
+
+		assertEquals(HttpStatus.NOT_FOUND, service.addToWishList(1L, 5L).getStatusCode());
+	}
+
+	@Test
+	void removalEvictsOnlyAfterCommit() {
+		when(wishListRepository.findRoomIdsByUserId(1L)).thenReturn(List.of(42L)).thenReturn(List.of());
+		when(wishListRepository.findUserIdById(7L)).thenReturn(Optional.of(1L));
+		assertTrue(service.isWishlisted(1L, 42L));
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			service.removeFromWishlist(7L);
+			assertTrue(service.isWishlisted(1L, 42L));
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertFalse(service.isWishlisted(1L, 42L));
+	}
+
+	@Test
+	void aLoadOverlappingAnEvictionIsNotCached() {
+		when(wishListRepository.findUserIdById(7L)).thenReturn(Optional.of(1L));
+		when(wishListRepository.findRoomIdsByUserId(1L)).thenAnswer(invocation -> {
+			service.removeFromWishlist(7L);
+			return List.of(42L);
+		}).thenReturn(List.of());
+
+		assertTrue(service.isWishlisted(1L, 42L));
+		assertFalse(service.isWishlisted(1L, 42L));
+	}
+}
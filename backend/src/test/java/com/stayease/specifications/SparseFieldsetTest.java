@@ -0,0 +1,41 @@
+package com.stayease.specifications;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class SparseFieldsetTest {
+
+	private static final Map<String, List<String>> FIELDS = new LinkedHashMap<>();
+	static {
+		FIELDS.put("id", List.of("id"));
+		FIELDS.put("hotelName", List.of("hotelName"));
+		FIELDS.put("address", List.of("address.id", "address.city"));
+		FIELDS.put("amenities", List.of());
+	}
+
+	@Test
+	void alwaysIncludesIdAndIgnoresBlankEntries() {
+		SparseFieldset fieldset = SparseFieldset.parse(" hotelName, ,amenities", FIELDS);
+
+		assertTrue(fieldset.includes("id"));
+		assertTrue(fieldset.includes("hotelName"));
+		assertTrue(fieldset.includes("amenities"));
+		assertFalse(fieldset.includes("address"));
+	}
+
+	@Test
+	void rejectsUnknownFieldsWithTheAllowedList() {
+		IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+				() -> SparseFieldset.parse("hotelName,password", FIELDS));
+
+		assertTrue(error.getMessage().contains("'password'"));
+		assertTrue(error.getMessage().contains("id, hotelName, address, amenities"));
+	}
+}
@@ -0,0 +1,113 @@
+package com.stayease.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.stayease.controllers.UploadController;
+
+class LocalImageStoreTest {
+
+	private static final String BASE_URL = "http://localhost:8081/uploads";
+
+	@TempDir
+	Path root;
+
+	@Test
+	void storesByContentHashAndReusesIdenticalBlobs() throws IOException {
+		LocalImageStore store = new LocalImageStore(root.toString(), BASE_URL);
+
+		String first = store.store(jpeg(), "stayease/rooms");
+		String second = store.store(jpeg(), "stayease/hotels");
+
+		assertEquals(first, second);
+		assertTrue(first.matches(BASE_URL + "/[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.jpg"), first);
+		String key = first.substring(BASE_URL.length() + 1);
+		assertTrue(key.startsWith(key.substring(6, 8) + "/" + key.substring(8, 10) + "/"));
+		assertArrayEquals(jpeg(), Files.readAllBytes(root.resolve(key)));
+
+		store.delete(first);
+		assertTrue(Files.notExists(root.resolve(key)));
+	}
+
+	@Test
+	void keepsBlobsReusedAfterTheCollectorCutoff() throws IOException {
+		LocalImageStore store = new LocalImageStore(root.toString(), BASE_URL);
+		String url = store.store(jpeg(), "stayease/rooms");
+		Path blob = root.resolve(url.substring(BASE_URL.length() + 1));
+		Files.setLastModifiedTime(blob, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+		Instant cutoff = Instant.now().minus(Duration.ofHours(1));
+
+		store.store(jpeg(), "stayease/hotels");
+		store.deleteIfUnusedSince(url, cutoff);
+		assertTrue(Files.exists(blob));
+
+		Files.setLastModifiedTime(blob, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+		store.deleteIfUnusedSince(url, cutoff);
+		assertTrue(Files.notExists(blob));
+	}
+
+	@Test
+	void servesRangesWithImmutableCacheHeaders() throws Exception {
+		LocalImageStore store = new LocalImageStore(root.toString(), BASE_URL);
+		UploadController controller = new UploadController(store);
+		String path = "/uploads/" + store.store(jpeg(), "stayease/rooms").substring(BASE_URL.length() + 1);
+
+		MockHttpServletResponse full = serve(controller, path, null);
+		assertEquals(200, full.getStatus());
+		assertEquals("image/jpeg", full.getContentType());
+		assertEquals("public, max-age=31536000, immutable", full.getHeader("Cache-Control"));
+		assertArrayEquals(jpeg(), full.getContentAsByteArray());
+
+		MockHttpServletResponse partial = serve(controller, path, "bytes=2-5");
+		assertEquals(206, partial.getStatus());
+		assertEquals("bytes 2-5/" + jpeg().length, partial.getHeader("Content-Range"));
+		assertArrayEquals(Arrays.copyOfRange(jpeg(), 2, 6), partial.getContentAsByteArray());
+
+		MockHttpServletResponse suffix = serve(controller, path, "bytes=-3");
+		assertArrayEquals(Arrays.copyOfRange(jpeg(), jpeg().length - 3, jpeg().length), suffix.getContentAsByteArray());
+
+		assertEquals(416, serve(controller, path, "bytes=999-").getStatus());
+		assertEquals(404, serve(controller, "/uploads/../../etc/passwd", null).getStatus());
+
+		MockHttpServletRequest conditional = new MockHttpServletRequest("GET", path);
+		conditional.addHeader("If-None-Match", full.getHeader("ETag"));
+		MockHttpServletResponse notModified = new MockHttpServletResponse();
+		controller.serve(conditional, notModified);
+		assertEquals(304, notModified.getStatus());
+	}
+
+	private MockHttpServletResponse serve(UploadController controller, String path, String range) throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+		if (range != null) {
+			request.addHeader("Range", range);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller.serve(request, response);
+		return response;
+	}
+
+	private byte[] jpeg() {
+		byte[] bytes = new byte[64];
+		bytes[0] = (byte) 0xFF;
+		bytes[1] = (byte) 0xD8;
+		bytes[2] = (byte) 0xFF;
+		for (int i = 3; i < bytes.length; i++) {
+			bytes[i] = (byte) i;
+		}
+		return bytes;
+	}
+}
@@ -67,4 +67,35 @@ app.post("/send-message", async (req, res) => {
   }
 });
 
+app.post("/send-messages", async (req, res) => {
+  if (!isClientReady) {
+    return res.status(503).json({ success: false, msg: "WhatsApp client is not ready yet." });
+  }
+
+  const { messages } = req.body;
+  if (!Array.isArray(messages) || messages.length === 0) {
+    return res.status(400).json({ success: false, msg: "A non-empty messages array is required." });
+  }
+
+  const results = [];
+  for (const item of messages) {
+    let phone = item && item.phone ? item.phone.toString().trim() : "";
+    const message = item && item.message;
+    if (!phone || !message) {
+      results.push({ success: false, msg: "Phone number and message are required." });
+      continue;
+    }
+    if (phone.startsWith("+")) phone = phone.substring(1);
+    if (!phone.startsWith("91")) phone = "91" + phone;
+    try {
+      await client.sendMessage(`${phone}@c.us`, message);
+      results.push({ success: true, msg: `Message sent to ${phone}` });
+    } catch (err) {
+      console.error("Error sending message:", err);
+      results.push({ success: false, msg: "Failed to send message." });
+    }
+  }
+  res.status(200).json({ success: results.every((r) => r.success), results });
+});
+
 app.listen(5000, () => console.log("WhatsApp sender server running on port 5000"));
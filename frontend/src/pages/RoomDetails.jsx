@@ -69,7 +69,7 @@ const RoomDetails = () => {
       description: roomData.description,
       amenities: roomData.amenities || [],
       images: formatImages(roomData.images),
-      hotelId: roomData.hotel?.id || location.state?.hotelId,
+      hotelId: roomData.hotelId || roomData.hotel?.id || location.state?.hotelId,
     };
   };
 
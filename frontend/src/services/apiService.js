@@ -253,6 +253,10 @@ const getUserWishlist = async (userId) => {
   return response;
 };
 
+const getWishlistRoomIds = async (userId) => {
+  return await axiosInstance.get(`${API_URL}/get-wishlist-room-ids/${userId}`);
+};
+
 const removeFromWishlist = async (wishListId) => {
   return await axiosInstance.delete(`${API_URL}/remove-wishlist/${wishListId}`);
 };
@@ -417,6 +421,7 @@ export {
   getGuestsByHotel,
   addToWishlist,
   getUserWishlist,
+  getWishlistRoomIds,
   removeFromWishlist,
   submitFeedback,
   deleteUser,